@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+
+public class Manifests {
+
+    private Manifests() {
+        // This is a utility class
+    }
+
+    /**
+     * Creates a deep copy of the manifest, used to provide a fresh input for benchmarks which modify the manifest.
+     *
+     * @param bom the manifest to copy
+     * @return the copy
+     */
+    public static Bom copy(Bom bom) {
+        try {
+            return CycloneDxJsonCodec.read(CycloneDxJsonCodec.toJsonNode(bom));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
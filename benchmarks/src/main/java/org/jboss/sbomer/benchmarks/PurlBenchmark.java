@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Component;
+import org.jboss.sbomer.core.features.sbom.utils.GenericPurlWrapperUtil;
+import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * Benchmarks of purl handling, executed for every component of every manifest. Each invocation processes a fixed set
+ * of 1000 purls (with a realistic mix of types, including purls which need to be sanitized).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PurlBenchmark {
+
+    private static final int PURL_COUNT = 1000;
+
+    private static final String NAME_VERSION_QKEY_QVALUE = "[^a-zA-Z0-9.+\\-_]";
+
+    List<String> purls;
+
+    List<String> bogusPurls;
+
+    List<String> genericPurls;
+
+    @Setup
+    public void setup() {
+        List<Component> components = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).syftImage(PURL_COUNT)
+                .getComponents()
+                .stream()
+                .filter(c -> c.getPurl() != null)
+                .toList();
+
+        purls = components.stream().map(Component::getPurl).toList();
+        // Syft reports RPM versions which are not valid in purls
+        bogusPurls = purls.stream().map(purl -> purl.replace("@", "@0^")).toList();
+        genericPurls = components.stream()
+                .map(c -> "pkg:generic/" + c.getName() + "-" + c.getVersion() + ".zip")
+                .toList();
+    }
+
+    @Benchmark
+    public void parseAndCanonicalize(Blackhole blackhole) throws MalformedPackageURLException {
+        for (String purl : purls) {
+            blackhole.consume(new PackageURL(purl).canonicalize());
+        }
+    }
+
+    @Benchmark
+    public void canonicalizePurl(Blackhole blackhole) {
+        for (String purl : purls) {
+            blackhole.consume(SbomUtils.canonicalizePurl(purl));
+        }
+    }
+
+    /**
+     * Sanitization of purls which cannot be parsed. Results are cached, so the (expensive) failed parsing and error
+     * logging happen only in the first invocation.
+     */
+    @Benchmark
+    public void sanitizePurlCached(Blackhole blackhole) {
+        for (String purl : bogusPurls) {
+            blackhole.consume(SbomUtils.sanitizePurl(purl));
+        }
+    }
+
+    /**
+     * The character replacement previously done by {@link PurlSanitizer}, kept as a reference for
+     * {@link #sanitizeSegments(Blackhole)}.
+     */
+    @Benchmark
+    public void sanitizeSegmentsRegex(Blackhole blackhole) {
+        for (String purl : bogusPurls) {
+            blackhole.consume(purl.replaceAll(NAME_VERSION_QKEY_QVALUE, "-"));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeSegments(Blackhole blackhole) {
+        for (String purl : bogusPurls) {
+            blackhole.consume(PurlSanitizer.sanitizeName(purl));
+        }
+    }
+
+    @Benchmark
+    public void genericPurlVersionConfidence(Blackhole blackhole) {
+        for (String purl : genericPurls) {
+            blackhole.consume(GenericPurlWrapperUtil.genericPurlVersionConfidence(purl));
+        }
+    }
+}
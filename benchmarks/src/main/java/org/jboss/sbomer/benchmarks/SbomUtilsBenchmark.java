@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StringPool;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Benchmarks of the {@link SbomUtils} operations done on whole manifests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SbomUtilsBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    int components;
+
+    @Param({ "4" })
+    int fanOut;
+
+    Bom source;
+
+    Bom target;
+
+    Bom bom;
+
+    byte[] json;
+
+    JsonNode jsonNode;
+
+    Map<String, String> relocations;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        source = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).syftImage(components, fanOut, "amd64");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CycloneDxJsonCodec.write(source, outputStream);
+        json = outputStream.toByteArray();
+        jsonNode = CycloneDxJsonCodec.toJsonNode(source);
+
+        // Relocate every 10th purl
+        relocations = new HashMap<>();
+        List<Component> sourceComponents = source.getComponents();
+        for (int i = 0; i < sourceComponents.size(); i += 10) {
+            String purl = sourceComponents.get(i).getPurl();
+
+            if (purl != null) {
+                relocations.put(purl, purl.replace("@", "-relocated@"));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        bom = Manifests.copy(source);
+
+        // Every 10th component (and its dependency) is missing in the target manifest
+        target = Manifests.copy(source);
+        Set<String> removed = new HashSet<>();
+        for (int i = 0; i < target.getComponents().size(); i += 10) {
+            removed.add(target.getComponents().get(i).getBomRef());
+        }
+        target.getComponents().removeIf(component -> removed.contains(component.getBomRef()));
+        target.getDependencies().removeIf(dependency -> removed.contains(dependency.getRef()));
+
+        CycloneDxValidationCache.clear();
+    }
+
+    @Benchmark
+    public Bom addMissingComponentsAndDependencies() {
+        SbomUtils.addMissingComponentsAndDependencies(target, source);
+        return target;
+    }
+
+    @Benchmark
+    public Map<String, String> updatePurls() {
+        return SbomUtils.updatePurls(bom, relocations);
+    }
+
+    @Benchmark
+    public Bom read() throws IOException {
+        return CycloneDxJsonCodec.read(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public Bom readWithoutDeduplication() throws IOException {
+        // A pool which does not accept any value
+        return CycloneDxJsonCodec.read(new ByteArrayInputStream(json), new StringPool(0, 0));
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        CycloneDxJsonCodec.write(bom, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public List<ParseException> validate() throws IOException {
+        return SbomUtils.validate(jsonNode);
+    }
+}
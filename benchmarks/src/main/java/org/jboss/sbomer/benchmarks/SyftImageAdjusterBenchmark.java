@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.cli.feature.sbom.adjuster.SyftImageAdjuster;
+import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link SyftImageAdjuster}, the most expensive step of the container image manifest generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SyftImageAdjusterBenchmark {
+
+    private static final String SKOPEO = """
+            {
+                "Name": "registry.example.com/acme/benchmark-image",
+                "Digest": "sha256:0897e7dcf7a971b493755010b7893b4a44800fe5032463676d016e3fe3b42d61",
+                "Labels": {
+                    "name": "acme/benchmark-image"
+                },
+                "Architecture": "amd64",
+                "Os": "linux"
+            }
+            """;
+
+    /**
+     * Large images (for example with many Java or NPM packages) have tens of thousands of components.
+     */
+    @Param({ "1000", "10000", "50000", "100000" })
+    int components;
+
+    @Param({ "false", "true" })
+    boolean filterPaths;
+
+    /**
+     * Number of additional configured paths (not matching any component) when filtering by paths is enabled. Teams
+     * configure dozens of paths for some images.
+     */
+    @Param({ "0", "50" })
+    int extraPaths;
+
+    Path workDir;
+
+    Bom source;
+
+    Bom bom;
+
+    SyftImageAdjuster adjuster;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        workDir = Files.createTempDirectory("sbomer-benchmark-");
+        Files.writeString(workDir.resolve("skopeo.json"), SKOPEO);
+
+        source = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).syftImage(components);
+        List<String> paths = null;
+
+        if (filterPaths) {
+            paths = new ArrayList<>(List.of("/opt/app", "/usr/bin"));
+
+            for (int i = 0; i < extraPaths; i++) {
+                paths.add("/opt/extra-" + i + "/lib");
+            }
+        }
+
+        adjuster = new SyftImageAdjuster(workDir, paths, true, null, null);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        bom = Manifests.copy(source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FileUtils.rmdir(workDir);
+    }
+
+    @Benchmark
+    public Bom adjust() {
+        return adjuster.adjust(bom);
+    }
+}
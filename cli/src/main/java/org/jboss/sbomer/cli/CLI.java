@@ -59,6 +59,16 @@ public class CLI implements QuarkusApplication {
     @Override
     @ActivateRequestContext
     public int run(String... args) {
+        return createCommandLine().execute(args);
+    }
+
+    /**
+     * Creates the command line with all feature commands registered. Every call creates new instances of the commands,
+     * while the application scoped services (clients, caches) are shared.
+     *
+     * @return the command line
+     */
+    public CommandLine createCommandLine() {
         CommandLine commandLine = new CommandLine(this, factory).setExecutionExceptionHandler(new ExceptionHandler())
                 .setExecutionStrategy(new RunOnlyCallable())
                 .setCommandName("sbomerctl");
@@ -71,7 +81,7 @@ public class CLI implements QuarkusApplication {
         commandLine.setExitCodeExceptionMapper(new SbomerExitCodeExceptionMapper());
         commandLine.setCaseInsensitiveEnumValuesAllowed(true);
 
-        return commandLine.execute(args);
+        return commandLine;
     }
 
     public static class RunOnlyCallable extends RunAll {
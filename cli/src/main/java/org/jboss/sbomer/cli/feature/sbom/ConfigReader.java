@@ -32,20 +32,38 @@ import org.jboss.sbomer.cli.feature.sbom.client.GitilesClient;
 import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.utils.LookupCache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Reads the SBOMer config file ({@code .sbomer/config.yaml}) from the source code repository of a PNC build.
+ * </p>
+ *
+ * <p>
+ * The content of the file is identified by the SCM URL and tag of the build and is stored in the shared
+ * {@link LookupCache}, so that builds of the same tag do not fetch the file from the SCM host again. Tags are rarely
+ * moved, but can be (for example when a commit is retagged), so cached entries expire: the content of the file after
+ * the regular TTL and the information that there is no config file after the shorter negative results TTL. Failures to
+ * fetch the file are never cached.
+ * </p>
+ */
 @ApplicationScoped
 @Slf4j
 public class ConfigReader {
     private static final String CONFIG_PATH = ".sbomer/config.yaml";
 
+    private static final String CONFIG_CACHE_REGION = "scm-config";
+
     @Inject
     @RestClient
     GitilesClient gitilesClient;
@@ -68,6 +86,11 @@ public class ConfigReader {
     @Setter
     Optional<String> gitHubHost;
 
+    @Inject
+    @Getter
+    @Setter
+    LookupCache lookupCache;
+
     @Getter
     final ObjectMapper yamlObjectMapper = ObjectMapperProvider.yaml();
 
@@ -79,7 +102,8 @@ public class ConfigReader {
      *
      * @param scmUrl the SCM URL
      * @param scmTag the SCM tag
-     * @return the base64 decoded content of the config file
+     * @return the base64 decoded content of the config file, empty if there is no config file or {@code null} if it
+     *         could not be retrieved
      */
     private byte[] getGerritConfigContent(String scmUrl, String scmTag) {
         log.debug("Using Gerrit config provider");
@@ -109,7 +133,7 @@ public class ConfigReader {
                     scmTag,
                     e);
 
-            return new byte[0];
+            return isNotFound(e) ? new byte[0] : null;
         }
 
         return Base64.getDecoder().decode(base64Config);
@@ -120,7 +144,8 @@ public class ConfigReader {
      *
      * @param scmUrl the SCM URL
      * @param scmTag the SCM tag
-     * @return the content of the SBOMer config file
+     * @return the content of the SBOMer config file, empty if there is no config file or {@code null} if it could
+     *         not be retrieved
      */
     private byte[] getGitLabConfigContent(String scmUrl, String scmTag) {
         log.debug("Using GitLab config provider");
@@ -149,7 +174,7 @@ public class ConfigReader {
                     scmTag,
                     e);
 
-            return new byte[0];
+            return isNotFound(e) ? new byte[0] : null;
         }
 
     }
@@ -188,41 +213,102 @@ public class ConfigReader {
                     repo,
                     scmTag,
                     e);
-            return new byte[0];
+            return isNotFound(e) ? new byte[0] : null;
         }
 
     }
 
+    /**
+     * Retrieves the SBOMer config file from the source code repository of the build.
+     *
+     * @param build the PNC build
+     * @return the config or {@code null} if there is no config file or it could not be retrieved
+     */
     public Config getConfig(Build build) {
+        byte[] configContent = getConfigContent(scmUrl(build), scmTag(build), build.getId());
+
+        if (configContent.length == 0) {
+            log.warn("Config file not found or failed to retrieve it, ignoring");
+            return null;
+        }
+
+        return Config.fromBytes(configContent);
+    }
+
+    private static String scmUrl(Build build) {
+        if (org.jboss.pnc.enums.BuildStatus.NO_REBUILD_REQUIRED.equals(build.getStatus())) {
+            return build.getNoRebuildCause().getScmUrl();
+        }
 
-        String scmUrl = build.getScmUrl();
-        String scmTag = build.getScmTag();
+        return build.getScmUrl();
+    }
 
+    private static String scmTag(Build build) {
         if (org.jboss.pnc.enums.BuildStatus.NO_REBUILD_REQUIRED.equals(build.getStatus())) {
-            scmUrl = build.getNoRebuildCause().getScmUrl();
-            scmTag = build.getNoRebuildCause().getScmTag();
+            return build.getNoRebuildCause().getScmTag();
+        }
+
+        return build.getScmTag();
+    }
+
+    private static String cacheKey(String scmUrl, String scmTag) {
+        return scmUrl + "@" + scmTag;
+    }
+
+    /**
+     * Returns the content of the config file, from the cache if possible.
+     *
+     * @return the content of the config file, empty if there is no config file or it could not be retrieved
+     */
+    private byte[] getConfigContent(String scmUrl, String scmTag, String buildId) {
+        LookupCache.Region<String> cache = configCache();
+        String key = cacheKey(scmUrl, scmTag);
+        LookupCache.Entry<String> cached = cache.find(key);
+
+        if (cached != null) {
+            log.debug("Using cached config file of the '{}' repository with '{}' tag", scmUrl, scmTag);
+            return cached.value() != null ? cached.value().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+
+        byte[] configContent = fetchConfigContent(scmUrl, scmTag, buildId);
+
+        if (configContent == null) {
+            return new byte[0];
         }
 
-        byte[] configContent;
+        cache.put(key, configContent.length > 0 ? new String(configContent, StandardCharsets.UTF_8) : null);
+
+        return configContent;
+    }
 
+    private byte[] fetchConfigContent(String scmUrl, String scmTag, String buildId) {
         if (scmUrl.contains("gerrit")) {
-            configContent = getGerritConfigContent(scmUrl, scmTag);
+            return getGerritConfigContent(scmUrl, scmTag);
         } else if (scmUrl.contains("gitlab")) {
-            configContent = getGitLabConfigContent(scmUrl, scmTag);
+            return getGitLabConfigContent(scmUrl, scmTag);
         } else if (scmUrl.contains("github")) {
-            configContent = getGitHubConfigContent(scmUrl, scmTag);
-        } else {
-            throw new ClientException(
-                    "Unable to determine the project from the SCM url: '{}' from PNC build '{}'",
-                    scmUrl,
-                    build.getId());
+            return getGitHubConfigContent(scmUrl, scmTag);
         }
 
-        if (configContent.length == 0) {
-            log.warn("Config file not found or failed to retrieve it, ignoring");
-            return null;
+        throw new ClientException(
+                "Unable to determine the project from the SCM url: '{}' from PNC build '{}'",
+                scmUrl,
+                buildId);
+    }
+
+    private LookupCache.Region<String> configCache() {
+        LookupCache cache = lookupCache != null ? lookupCache : LookupCache.disabled();
+        // Tags can be moved, the content expires
+        return cache.region(CONFIG_CACHE_REGION, String.class, jsonObjectMapper, content -> false);
+    }
+
+    private static boolean isNotFound(Exception e) {
+        if (e instanceof NotFoundException) {
+            return true;
         }
 
-        return Config.fromBytes(configContent);
+        return e instanceof WebApplicationException webApplicationException
+                && webApplicationException.getResponse() != null
+                && webApplicationException.getResponse().getStatus() == 404;
     }
 }
@@ -30,6 +30,7 @@ import org.cyclonedx.model.component.evidence.Identity;
 import org.cyclonedx.model.component.evidence.Identity.Field;
 import org.jboss.pnc.common.Strings;
 import org.jboss.sbomer.cli.feature.sbom.utils.UriValidator;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
 import lombok.extern.slf4j.Slf4j;
@@ -126,10 +127,12 @@ public abstract class AbstractAdjuster implements Adjuster {
         // Read feature flag from environment variable set by Tekton Task parameter
         String envValue = System.getenv("SBOMER_FEATURE_GENERIC_COMPONENT_PURL_VERSION_REGEX_ENABLED");
         boolean featureFlagEnabled = Boolean.parseBoolean(envValue != null ? envValue : "false");
-        SbomUtils.setPurlVersionFromGeneric(bom, metadataComponent, featureFlagEnabled);
+        // The index is needed only if the component purls (and refs) are updated, and is shared by both updates
+        BomIndex index = featureFlagEnabled ? BomIndex.of(bom) : null;
+        SbomUtils.setPurlVersionFromGeneric(index, metadataComponent, featureFlagEnabled);
 
         // Also update the main component that will be added to the components list
-        SbomUtils.setPurlVersionFromGeneric(bom, mainComponent, featureFlagEnabled);
+        SbomUtils.setPurlVersionFromGeneric(index, mainComponent, featureFlagEnabled);
 
         // Set main component
         bom.getMetadata().setComponent(metadataComponent);
@@ -33,6 +33,7 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addMissingCont
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -48,6 +49,7 @@ import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.config.SyftImageConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.PathPrefixMatcher;
 import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
@@ -84,6 +86,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      */
     boolean includeRpms;
 
+    /**
+     * The {@link SyftImageAdjuster#paths} compiled once, so that checking a component does not require to iterate over
+     * all configured paths.
+     */
+    final PathPrefixMatcher pathMatcher;
+
     final Path workDir;
 
     /**
@@ -112,6 +120,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             CONTAINER_PROPERTY_METADATA_VIRTUALPATH_PREFIX,
             CONTAINER_PROPERTY_IMAGE_LABELS_PREFIX);
 
+    /**
+     * Name of the property (as generated by Syft, before {@link SyftImageAdjuster#adjustProperties(List)} renames it)
+     * holding the location of the component within the container image.
+     */
+    private static final String SYFT_LOCATION_PATH_PROPERTY = "syft:location:0:path";
+
     public SyftImageAdjuster(
             Path workDir,
             List<String> paths,
@@ -120,6 +134,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             Path sourcesMetadataPath) {
         this.workDir = workDir;
         this.paths = paths;
+        this.pathMatcher = PathPrefixMatcher.of(paths);
         this.includeRpms = includeRpms;
         this.sourcesManifestPath = sourcesManifestPath;
         this.sourcesMetadataPath = sourcesMetadataPath;
@@ -134,11 +149,34 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      */
     private boolean isOnPath(String path) {
         // In case we haven't provided paths to filter, add all found artifacts.
-        if (paths == null || paths.isEmpty()) {
+        if (pathMatcher.isEmpty()) {
             return true;
         }
 
-        return paths.stream().anyMatch(path::startsWith);
+        return pathMatcher.matches(path);
+    }
+
+    /**
+     * Checks whether the component is located on or under paths specified by the {@link SyftImageAdjuster#paths}
+     * list. The location properties are looked up directly, without going through all the other properties of the
+     * component.
+     *
+     * @param component the component to check
+     * @return {@code true} if the component is located on or under the paths specified by the
+     *         {@link SyftImageAdjuster#paths} list, {@code false} otherwise
+     */
+    private boolean isOnPath(Component component) {
+        if (component.getProperties() == null) {
+            return false;
+        }
+
+        for (Property property : component.getProperties()) {
+            if (SYFT_LOCATION_PATH_PROPERTY.equals(property.getName()) && isOnPath(property.getValue())) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @Override
@@ -269,21 +307,17 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             // Handle everything else
 
             // If paths are not specified, include everything
-            if (paths == null || paths.isEmpty()) {
+            if (pathMatcher.isEmpty()) {
                 log.debug("No paths provided, component won't be removed");
                 return false;
             }
 
             // Remove all components that are not on the paths we are interested in
-            boolean onPath = c.getProperties()
-                    .stream()
-                    .filter(p -> p.getName().equals("syft:location:0:path") && isOnPath(p.getValue()))
-                    .findAny()
-                    .isEmpty();
+            boolean onPath = isOnPath(c);
 
             log.debug("Component on path: {}", onPath);
 
-            return onPath;
+            return !onPath;
         });
 
         // Go deep
@@ -455,17 +489,28 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     private void adjustDependencies(Bom bom) {
         List<Dependency> dependencies = new ArrayList<>();
 
-        populateDependencies(dependencies, bom.getComponents());
+        populateDependencies(dependencies, new HashSet<>(), bom.getComponents());
 
         // The image itself is the first element
         Dependency productDependency = dependencies.get(0);
 
         // If there are more dependencies (besides the main image), add all of them
-        // as a product dependency
+        // as a product dependency. Duplicated refs are skipped, the same way as in Dependency#addDependency(), but
+        // without scanning the list for every added dependency.
         if (dependencies.size() > 1) {
+            List<Dependency> dependsOn = productDependency.getDependencies() != null
+                    ? new ArrayList<>(productDependency.getDependencies())
+                    : new ArrayList<>();
+            Set<String> dependsOnRefs = new HashSet<>();
+            dependsOn.forEach(d -> dependsOnRefs.add(d.getRef()));
+
             for (Component component : bom.getComponents().subList(1, dependencies.size())) {
-                productDependency.addDependency(SbomUtils.createDependency(component.getBomRef()));
+                if (dependsOnRefs.add(component.getBomRef())) {
+                    dependsOn.add(SbomUtils.createDependency(component.getBomRef()));
+                }
             }
+
+            productDependency.setDependencies(dependsOn);
         }
 
         bom.setDependencies(dependencies);
@@ -479,8 +524,13 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * <p>
      * CAse where a component has nested components is handled as well.
      * </p>
+     *
+     * <p>
+     * The refs of the dependencies added so far are tracked in the {@code refs} set, so that checking whether the purl
+     * of a component can be used as its bom-ref does not require to scan all dependencies for every component.
+     * </p>
      */
-    private void populateDependencies(List<Dependency> dependencies, List<Component> components) {
+    private void populateDependencies(List<Dependency> dependencies, Set<String> refs, List<Component> components) {
         if (components == null) {
             return;
         }
@@ -488,11 +538,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         components.forEach(component -> {
             // Check that there isn't already a dependency with the bom-ref equals to the new purl, otherwise do not
             // update it
-            if (!dependencies.stream().map(Dependency::getRef).toList().contains(component.getPurl())) {
+            if (!refs.contains(component.getPurl())) {
                 component.setBomRef(component.getPurl());
             }
             dependencies.add(SbomUtils.createDependency(component.getBomRef()));
-            populateDependencies(dependencies, component.getComponents());
+            refs.add(component.getBomRef());
+            populateDependencies(dependencies, refs, component.getComponents());
         });
 
     }
@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.cli.feature.sbom.command;
 
+import static org.jboss.sbomer.core.features.sbom.Constants.PROCESS_REPORT_SUFFIX;
+
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -24,6 +26,7 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -42,7 +45,10 @@ import org.jboss.sbomer.cli.errors.pnc.MissingPncBuildException;
 import org.jboss.sbomer.cli.errors.pnc.UnsupportedPncBuildException;
 import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
 import org.jboss.sbomer.cli.feature.sbom.command.mixin.GeneratorToolMixin;
+import org.jboss.sbomer.cli.feature.sbom.generate.ProcessReport;
+import org.jboss.sbomer.cli.feature.sbom.generate.ProcessRunner;
 import org.jboss.sbomer.cli.feature.sbom.git.GitCredentialsProvider;
+import org.jboss.sbomer.cli.feature.sbom.git.GitMirrorCache;
 import org.jboss.sbomer.cli.feature.sbom.model.Sbom;
 import org.jboss.sbomer.cli.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.cli.feature.sbom.utils.otel.OtelCLIUtils;
@@ -70,6 +76,7 @@ import picocli.CommandLine.ParentCommand;
 
 @Slf4j
 public abstract class AbstractGenerateCommand implements Callable<Integer> {
+
     @Mixin
     GeneratorToolMixin generator;
 
@@ -86,8 +93,18 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
     @Inject
     protected GitCredentialsProvider gitCredentialsProvider;
 
+    @Inject
+    protected GitMirrorCache gitMirrorCache;
+
     protected final SbomerConfigProvider sbomerConfigProvider = SbomerConfigProvider.getInstance();
 
+    /**
+     * Reports of the commands run by the {@link ProcessRunner} during the generation. These are written next to the
+     * generated manifest, where the service picks these up together with the manifest, see
+     * {@link #writeProcessReports()}.
+     */
+    protected final List<ProcessReport> processReports = new ArrayList<>();
+
     /**
      * <p>
      * Implementation of the SBOM generation for the project located in the {@code parent.getOutput()} directory.
@@ -134,8 +151,10 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
     @Override
     public Integer call() {
         try {
-            // Make sure there is no context
+            // Make sure there is no context or report left from a previous run
             MDCUtils.removeContext();
+            processReports.clear();
+
             MDCUtils.addIdentifierContext(parent.getBuildId());
             MDCUtils.addOtelContext(OtelCLIUtils.getOtelContextFromEnvVariables());
 
@@ -318,6 +337,8 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
                         e);
             }
 
+            writeProcessReports();
+
             log.info("Generation finished, SBOM available at: '{}'", parent.getOutput().toFile().getAbsolutePath());
             return 0;
         } finally {
@@ -326,6 +347,32 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
         }
     }
 
+    /**
+     * Writes the reports of the commands run during the generation next to the generated manifest, for example
+     * {@code bom.process-report.json} for {@code bom.json}. Nothing is written if no command was run (for example if a
+     * previously generated manifest was reused).
+     */
+    private void writeProcessReports() {
+        if (processReports.isEmpty()) {
+            return;
+        }
+
+        Path output = parent.getOutput();
+        String fileName = output.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        Path reportPath = output.resolveSibling(baseName + PROCESS_REPORT_SUFFIX);
+
+        try {
+            ObjectMapperProvider.json()
+                    .writerWithDefaultPrettyPrinter()
+                    .writeValue(reportPath.toFile(), processReports);
+            log.info("Process report available at: '{}'", reportPath.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write the process report to '{}', ignoring", reportPath.toAbsolutePath(), e);
+        }
+    }
+
     protected void doClone(String url, String tag, Path path, boolean force) {
         log.info("Cloning '{}' repository and '{}' tag into '{}'...", url, tag, path.toAbsolutePath());
 
@@ -348,6 +395,12 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
             log.error("Could not create the '{}' directory", path, e);
         }
 
+        CredentialsProvider credentials = gitCredentialsProvider.getCredentials(url);
+
+        if (gitMirrorCache.isEnabled() && checkoutFromMirror(url, tag, path, credentials)) {
+            return;
+        }
+
         log.info("Cloning the repository to {}...", path);
 
         // Build clone command
@@ -358,7 +411,6 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
                 .setDepth(1); // Shallow clone for efficiency
 
         // Add credentials if available
-        CredentialsProvider credentials = gitCredentialsProvider.getCredentials(url);
         if (credentials != null) {
             log.debug("Using authenticated clone for: {}", url);
             cloneCommand.setCredentialsProvider(credentials);
@@ -397,6 +449,35 @@ public abstract class AbstractGenerateCommand implements Callable<Integer> {
         log.info("Directory size: {} MB", String.format("%.02f", (float) dirSize(path) / 1024));
     }
 
+    /**
+     * Checks out the source code using the {@link GitMirrorCache}. In case of failure the directory is recreated, so
+     * that a regular clone can be done instead.
+     *
+     * @return {@code true} if the source code was checked out, {@code false} otherwise
+     */
+    private boolean checkoutFromMirror(String url, String tag, Path path, CredentialsProvider credentials) {
+        try {
+            gitMirrorCache.checkout(url, tag, path, credentials);
+        } catch (RuntimeException e) {
+            // Any failure of the mirror, including unexpected ones, must not prevent a regular clone
+            log.warn("Unable to use the Git mirror cache, falling back to a regular clone", e);
+
+            FileUtils.rmdir(path);
+
+            try {
+                Files.createDirectories(path);
+            } catch (IOException ioe) {
+                log.error("Could not create the '{}' directory", path, ioe);
+            }
+
+            return false;
+        }
+
+        log.info("Done, source code available in the '{}' directory", path);
+
+        return true;
+    }
+
     /**
      * Calculates directory size for a given path.
      *
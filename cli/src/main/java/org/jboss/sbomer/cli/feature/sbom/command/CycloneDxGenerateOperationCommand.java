@@ -37,11 +37,18 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -58,6 +65,7 @@ import org.jboss.sbomer.cli.feature.sbom.processor.WorkaroundMissingNpmDependenc
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.utils.ArchivePathTrie;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
@@ -229,6 +237,11 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
         purl256ToDependencies.put(distributionPurl, mainDependency);
         WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
 
+        // Resolve the Brew builds of all artifacts (not built in PNC) concurrently, while the components are assembled.
+        // The Brew metadata is set on the components afterwards, in the order of the artifacts.
+        CompletableFuture<Map<Integer, KojiBuildInfo>> brewBuildsFuture = findBrewBuilds(artifactsToManifest);
+        List<Map.Entry<Component, AnalyzedArtifact>> brewComponents = new ArrayList<>();
+
         for (AnalyzedArtifact artifact : artifactsToManifest) {
             if (SbomUtils.isDistributionArtifact(artifact.getArtifact(), fileName, distributionHashes)
                     && SbomUtils.hasUnusablePurl(artifact.getArtifact())) {
@@ -270,8 +283,8 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
                 if (artifact.getArtifact().getBuild() != null) {
                     // Artifact was built in PNC, so it has all the data we need
                     workaround.analyzeBuild(component, artifact.getArtifact().getBuild());
-                } else if (artifact.getBrewId() != null && artifact.getBrewId() > 0) {
-                    setBrewBuildMetadata(component, artifact);
+                } else if (isBrewArtifact(artifact)) {
+                    brewComponents.add(Map.entry(component, artifact));
                 } else {
                     log.warn(
                             "An artifact has been found with no associated build: '{}'. It will be added in the SBOM with generic type.",
@@ -299,13 +312,23 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
                     .forEach(filename -> pathToDependencies.put(filename, dep));
         }
 
+        Map<Integer, KojiBuildInfo> brewBuilds = awaitBrewBuilds(brewBuildsFuture);
+        brewComponents.forEach(entry -> setBrewBuildMetadata(entry.getKey(), entry.getValue(), brewBuilds));
+
         // Find the parent to set the correct hierarchy, default to the main root dependency
+        ArchivePathTrie<Dependency> pathTrie = new ArchivePathTrie<>();
+        pathToDependencies.forEach(pathTrie::put);
+
+        // The refs already added to every parent, so that adding a dependency does not require to scan all the
+        // dependencies of the parent (as Dependency#addDependency() does)
+        Map<Dependency, Set<String>> parentToRefs = new IdentityHashMap<>();
+
         for (Map.Entry<String, Dependency> entry : pathToDependencies.entrySet()) {
             String key = entry.getKey();
             Dependency dependency = entry.getValue();
-            Optional<Dependency> maybeParent = findClosestParent(pathToDependencies, key);
+            Optional<Dependency> maybeParent = pathTrie.findClosestParent(key);
             Dependency parent = maybeParent.orElse(mainDependency);
-            parent.addDependency(dependency);
+            addDependency(parent, dependency, parentToRefs);
         }
 
         workaround.addMissingDependencies(bom);
@@ -337,10 +360,55 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
         return sbomDirPath;
     }
 
-    private void setBrewBuildMetadata(Component component, AnalyzedArtifact artifact) {
+    private static boolean isBrewArtifact(AnalyzedArtifact artifact) {
+        return artifact.getArtifact().getBuild() == null && artifact.getBrewId() != null && artifact.getBrewId() > 0;
+    }
+
+    /**
+     * Starts resolving the distinct Brew builds of the provided artifacts, in concurrent batches.
+     */
+    private CompletableFuture<Map<Integer, KojiBuildInfo>> findBrewBuilds(List<AnalyzedArtifact> artifacts) {
+        Set<Integer> brewIds = new LinkedHashSet<>();
+
+        artifacts.stream()
+                .filter(CycloneDxGenerateOperationCommand::isBrewArtifact)
+                .forEach(artifact -> brewIds.add(artifact.getBrewId().intValue()));
+
+        if (brewIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        log.info("Resolving {} distinct Brew builds...", brewIds.size());
+
+        return kojiService.findBuildsByIdsAsync(brewIds);
+    }
+
+    /**
+     * Waits for the Brew builds resolved by {@link #findBrewBuilds(List)}. In case these could not be resolved, an
+     * empty map is returned, so that every build is retrieved one by one.
+     */
+    private Map<Integer, KojiBuildInfo> awaitBrewBuilds(CompletableFuture<Map<Integer, KojiBuildInfo>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.warn("Failed to resolve Brew builds in batches, retrieving them one by one", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while resolving Brew builds", e);
+        }
+
+        return Map.of();
+    }
+
+    private void setBrewBuildMetadata(
+            Component component,
+            AnalyzedArtifact artifact,
+            Map<Integer, KojiBuildInfo> brewBuilds) {
         KojiBuildInfo brewBuild;
         try {
-            brewBuild = kojiService.findBuild(artifact.getBrewId().intValue());
+            int brewId = artifact.getBrewId().intValue();
+            brewBuild = brewBuilds.containsKey(brewId) ? brewBuilds.get(brewId) : kojiService.findBuild(brewId);
             if (brewBuild != null) {
                 SbomUtils.setBrewBuildMetadata(
                         component,
@@ -375,19 +443,19 @@ public class CycloneDxGenerateOperationCommand extends AbstractGenerateOperation
         }
     }
 
-    private Optional<Dependency> findClosestParent(Map<String, Dependency> pathToDependencies, String path) {
-        while (!path.isEmpty()) {
-            // Find the parent if it exists
-            int lastIndex = path.lastIndexOf("!/");
-            if (lastIndex != -1) {
-                path = path.substring(0, lastIndex);
-            } else {
-                break; // No more parent
-            }
-            if (pathToDependencies.get(path) != null) {
-                return Optional.of(pathToDependencies.get(path));
+    private void addDependency(Dependency parent, Dependency dependency, Map<Dependency, Set<String>> parentToRefs) {
+        Set<String> refs = parentToRefs.computeIfAbsent(parent, p -> {
+            if (p.getDependencies() == null) {
+                p.setDependencies(new ArrayList<>());
             }
+
+            Set<String> existing = new HashSet<>();
+            p.getDependencies().forEach(d -> existing.add(d.getRef()));
+            return existing;
+        });
+
+        if (refs.add(dependency.getRef())) {
+            parent.getDependencies().add(dependency);
         }
-        return Optional.empty();
     }
 }
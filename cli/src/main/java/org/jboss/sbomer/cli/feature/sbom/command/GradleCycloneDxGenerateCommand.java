@@ -61,7 +61,7 @@ public class GradleCycloneDxGenerateCommand extends AbstractGradleGenerateComman
                         "JAVA_OPTS",
                         "-XX:InitialRAMPercentage=75.0 -XX:MaxRAMPercentage=75.0 -XX:+ExitOnOutOfMemoryError"));
 
-        ProcessRunner.run(environment, parent.getWorkdir(), command(buildCmdOptions));
+        processReports.add(ProcessRunner.run(environment, parent.getWorkdir(), command(buildCmdOptions)));
 
         return Path.of(parent.getWorkdir().toAbsolutePath().toString(), "build", "sbom", "bom.json");
     }
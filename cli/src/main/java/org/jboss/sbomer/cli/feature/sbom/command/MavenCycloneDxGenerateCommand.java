@@ -46,14 +46,14 @@ public class MavenCycloneDxGenerateCommand extends AbstractMavenGenerateCommand
     protected Path doGenerate(String buildCmdOptions) {
         log.info("Starting SBOM generation using the CycloneDX Maven plugin...");
 
-        ProcessRunner.run(
+        processReports.add(ProcessRunner.run(
                 Map.of(
                         "MAVEN_OPTS",
                         "-XshowSettings:vm -XX:+PrintCommandLineFlags",
                         "JAVA_TOOL_OPTIONS",
                         "-XX:InitialRAMPercentage=75.0 -XX:MaxRAMPercentage=75.0 -XX:+ExitOnOutOfMemoryError"),
                 parent.getWorkdir(),
-                command(buildCmdOptions));
+                command(buildCmdOptions)));
 
         try {
             List<Path> path = FileUtils.findManifests(parent.getWorkdir());
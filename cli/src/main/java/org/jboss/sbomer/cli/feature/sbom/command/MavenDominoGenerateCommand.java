@@ -63,6 +63,7 @@ public class MavenDominoGenerateCommand extends AbstractMavenGenerateCommand {
         log.info("Starting SBOM generation using Domino");
 
         Path outputFile = generator.run(parent.getWorkdir(), generatorArgs().split(" "));
+        processReports.addAll(generator.getProcessReports());
 
         log.info("SBOM generation finished");
 
@@ -43,7 +43,7 @@ public class NpmCycloneDxGenerateCommand extends AbstractNodejsGenerateCommand {
     protected Path doGenerate(String buildCmdOptions) {
         log.info("Starting SBOM generation using the CycloneDX NPM plugin...");
 
-        ProcessRunner.run(parent.getWorkdir(), command());
+        processReports.add(ProcessRunner.run(parent.getWorkdir(), command()));
 
         return Path.of(parent.getWorkdir().toAbsolutePath().toString(), BOM_FILE_NAME);
     }
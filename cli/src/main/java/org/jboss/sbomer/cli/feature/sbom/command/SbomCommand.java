@@ -19,9 +19,11 @@ package org.jboss.sbomer.cli.feature.sbom.command;
 
 import org.jboss.sbomer.cli.FeatureTopCommand;
 import org.jboss.sbomer.cli.feature.sbom.command.adjust.AdjustCommand;
+import org.jboss.sbomer.cli.feature.sbom.command.batch.BatchCommand;
 import org.jboss.sbomer.cli.feature.sbom.command.catalog.CatalogCommand;
 import org.jboss.sbomer.cli.feature.sbom.command.download.DownloadCommand;
 import org.jboss.sbomer.cli.feature.sbom.command.process.StandaloneProcessCommand;
+import org.jboss.sbomer.cli.feature.sbom.command.worker.WorkerCommand;
 
 import jakarta.inject.Inject;
 import picocli.CommandLine;
@@ -35,7 +37,8 @@ import picocli.CommandLine.Spec;
         aliases = { "s" },
         description = "SBOM generation",
         subcommands = { AutoCommand.class, GenerateCommand.class, GenerateOperationCommand.class,
-                StandaloneProcessCommand.class, AdjustCommand.class, CatalogCommand.class, DownloadCommand.class })
+                StandaloneProcessCommand.class, AdjustCommand.class, CatalogCommand.class, DownloadCommand.class,
+                WorkerCommand.class, BatchCommand.class })
 public class SbomCommand implements FeatureTopCommand {
 
     @Spec
@@ -70,15 +70,15 @@ public class SbtCycloneDxGenerateCommand extends AbstractSbtGenerateCommand {
 
         // 1. Create the destination folder in case it does not exist
         List<String> createDir = List.of("mkdir", "-p", "project");
-        ProcessRunner.run(parent.getWorkdir(), createDir.toArray(new String[0]));
+        processReports.add(ProcessRunner.run(parent.getWorkdir(), createDir.toArray(new String[0])));
 
         // 2. Add the SBT plugin to the configuration
         String[] addPlugin = { "bash", "-c", "echo 'addSbtPlugin(\"com.github.sbt\" % \"sbt-sbom\" % \"" + toolVersion()
                 + "\")' >> project/plugins.sbt" };
-        ProcessRunner.run(parent.getWorkdir(), addPlugin);
+        processReports.add(ProcessRunner.run(parent.getWorkdir(), addPlugin));
 
         // 3. Trigger the proper manifest generation using the SBT plugin
-        ProcessRunner.run(parent.getWorkdir(), command(buildCmdOptions));
+        processReports.add(ProcessRunner.run(parent.getWorkdir(), command(buildCmdOptions)));
 
         try {
             // Retrieve all the manifests generated
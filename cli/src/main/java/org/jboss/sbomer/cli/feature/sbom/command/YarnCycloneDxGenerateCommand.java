@@ -44,7 +44,7 @@ public class YarnCycloneDxGenerateCommand extends AbstractNodejsGenerateCommand
     protected Path doGenerate(String buildCmdOptions) {
         log.info("Starting SBOM generation using the CycloneDX Yarn plugin...");
 
-        ProcessRunner.run(parent.getWorkdir(), command(buildCmdOptions));
+        processReports.add(ProcessRunner.run(parent.getWorkdir(), command(buildCmdOptions)));
 
         try {
             List<Path> path = FileUtils.findManifests(parent.getWorkdir());
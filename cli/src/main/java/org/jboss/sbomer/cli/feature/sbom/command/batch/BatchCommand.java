@@ -0,0 +1,341 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.command.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.sbomer.cli.CLI;
+import org.jboss.sbomer.cli.feature.sbom.command.PathConverter;
+import org.jboss.sbomer.cli.feature.sbom.command.worker.WorkerCommand;
+import org.jboss.sbomer.cli.feature.sbom.utils.otel.OtelCLIUtils;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.HashUtils;
+import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+
+import io.opentelemetry.context.Context;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+/**
+ * <p>
+ * Runs the same CLI invocation for many targets (build identifiers, operation identifiers or manifest paths) in one
+ * JVM, with bounded parallelism. Every target gets new instances of the commands, while the application scoped beans
+ * (the PNC and Koji services, the lookup cache, the processors) are shared by all targets, which may run at the same
+ * time. Such beans must not keep state of a single invocation in their fields.
+ * </p>
+ *
+ * <p>
+ * The invocation is a template, in which the {@value #TARGET_PLACEHOLDER} placeholder is replaced with the target and
+ * the {@value #DIR_PLACEHOLDER} placeholder with a directory created for the target in the output directory. The name
+ * of the directory is the target with unsafe characters replaced; targets which would end up in the same directory
+ * get a suffix with the hash of the target. For example:
+ * </p>
+ *
+ * <pre>
+ * sbom batch --targets-file builds.txt --output-dir /data/backfill -- \
+ *     sbom generate --build-id {target} --workdir {dir}/workdir --output {dir}/bom.json maven-cyclonedx process default
+ * </pre>
+ *
+ * <p>
+ * Once all targets are finished, a report with the exit code and duration of every target is written into the
+ * {@value #REPORT_FILE} file in the output directory.
+ * </p>
+ *
+ * <p>
+ * The batch owns the OpenTelemetry lifecycle: it is started once, before any target is run, and stopped once all
+ * targets are finished. Every target runs within its own span, a child of the root span of the batch, so that targets
+ * running at the same time neither start nor stop the global OpenTelemetry SDK.
+ * </p>
+ */
+@Slf4j
+@Command(
+        mixinStandardHelpOptions = true,
+        name = "batch",
+        description = "Runs the same generation, processing or adjustment for many builds, operations or manifests")
+public class BatchCommand implements Callable<Integer> {
+
+    public static final String TARGET_PLACEHOLDER = "{target}";
+    public static final String DIR_PLACEHOLDER = "{dir}";
+    public static final String REPORT_FILE = "batch-report.json";
+
+    /**
+     * The result of the invocation for a single target.
+     *
+     * @param target the target
+     * @param directory the directory created for the target
+     * @param exitCode the exit code of the invocation
+     * @param durationMillis the duration of the invocation
+     * @param message the error message in case the invocation could not be run, can be {@code null}
+     */
+    public record TargetResult(String target, String directory, int exitCode, long durationMillis, String message) {
+        public boolean isSuccessful() {
+            return exitCode == CommandLine.ExitCode.OK;
+        }
+    }
+
+    @Spec
+    CommandSpec spec;
+
+    @Option(names = { "-t", "--target" }, paramLabel = "TARGET", description = "Target to run the invocation for")
+    List<String> targets = new ArrayList<>();
+
+    @Option(
+            names = { "--targets-file" },
+            paramLabel = "FILE",
+            description = "File with targets, one per line. Empty lines and lines starting with '#' are ignored.",
+            converter = PathConverter.class)
+    Path targetsFile;
+
+    @Option(
+            names = { "-o", "--output-dir" },
+            required = true,
+            paramLabel = "DIR",
+            description = "The directory where a directory for every target and the report are created",
+            converter = PathConverter.class)
+    Path outputDir;
+
+    @Option(
+            names = { "-j", "--parallelism" },
+            defaultValue = "4",
+            description = "Maximum number of targets run at the same time. Default: ${DEFAULT-VALUE}")
+    int parallelism;
+
+    @Parameters(
+            arity = "1..*",
+            paramLabel = "ARGS",
+            description = "The CLI invocation to run for every target, with the " + TARGET_PLACEHOLDER + " and "
+                    + DIR_PLACEHOLDER + " placeholders")
+    List<String> template;
+
+    @Override
+    public Integer call() throws Exception {
+        if (parallelism < 1) {
+            throw new ApplicationException("Parallelism needs to be at least 1, got {}", parallelism);
+        }
+
+        Set<String> allTargets = readTargets();
+
+        if (allTargets.isEmpty()) {
+            throw new ApplicationException("No targets were provided");
+        }
+
+        Files.createDirectories(outputDir);
+
+        log.info("Running {} targets with parallelism of {}...", allTargets.size(), parallelism);
+
+        Map<String, Path> directories = targetDirectories(allTargets);
+
+        OtelCLIUtils.startOwnedOtel(
+                OtelCLIUtils.SBOMER_CLI_NAME,
+                OtelHelper.getEffectiveClassName(this.getClass()),
+                Map.of("params.targets", String.valueOf(allTargets.size())));
+
+        try {
+            return runTargets(allTargets, directories);
+        } finally {
+            OtelCLIUtils.stopOwnedOtel();
+        }
+    }
+
+    private int runTargets(Set<String> allTargets, Map<String, Path> directories)
+            throws IOException, InterruptedException {
+        // The context of the root span of the batch, the worker threads do not inherit it
+        Context parent = Context.current();
+        long start = System.nanoTime();
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, allTargets.size()),
+                runnable -> new Thread(runnable, "sbomer-batch-" + threadCounter.incrementAndGet()));
+
+        List<Future<TargetResult>> futures = new ArrayList<>(allTargets.size());
+
+        try {
+            for (String target : allTargets) {
+                Path directory = directories.get(target);
+                futures.add(executor.submit(() -> runTarget(target, directory, parent)));
+            }
+
+            List<TargetResult> results = new ArrayList<>(futures.size());
+
+            for (Future<TargetResult> future : futures) {
+                results.add(future.get());
+            }
+
+            long failed = results.stream().filter(result -> !result.isSuccessful()).count();
+
+            writeReport(results, Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+            log.info(
+                    "Batch finished, {} targets succeeded, {} failed, report available at: '{}'",
+                    results.size() - failed,
+                    failed,
+                    outputDir.resolve(REPORT_FILE).toAbsolutePath());
+
+            return failed == 0 ? CommandLine.ExitCode.OK : CommandLine.ExitCode.SOFTWARE;
+        } catch (ExecutionException e) {
+            throw new ApplicationException("Unable to run the batch", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Set<String> readTargets() throws IOException {
+        Set<String> allTargets = new LinkedHashSet<>(targets);
+
+        if (targetsFile != null) {
+            for (String line : Files.readAllLines(targetsFile)) {
+                String target = line.strip();
+
+                if (!target.isEmpty() && !target.startsWith("#")) {
+                    allTargets.add(target);
+                }
+            }
+        }
+
+        return allTargets;
+    }
+
+    /**
+     * Assigns a unique directory in the output directory to every target.
+     */
+    private Map<String, Path> targetDirectories(Set<String> allTargets) {
+        Map<String, Path> directories = new LinkedHashMap<>();
+        Set<String> names = new HashSet<>();
+
+        for (String target : allTargets) {
+            String name = target.replaceAll("[^A-Za-z0-9._-]", "_");
+
+            // Compare case-insensitively, as the file system may be case-insensitive
+            if (!names.add(name.toLowerCase(Locale.ROOT))) {
+                name = name + "-" + HashUtils.sha256(target.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+                names.add(name.toLowerCase(Locale.ROOT));
+            }
+
+            directories.put(target, outputDir.resolve(name));
+        }
+
+        return directories;
+    }
+
+    /**
+     * Runs the invocation for the target with a new instance of the command line, so that no state is shared with
+     * other targets. The invocation does not fail the batch, the failure is recorded in the result instead.
+     *
+     * @param parent the context of the root span of the batch
+     */
+    private TargetResult runTarget(String target, Path directory, Context parent) {
+        long start = System.nanoTime();
+        int exitCode;
+        String message = null;
+
+        // The request context is activated for the main thread only
+        ManagedContext requestContext = Arc.container().requestContext();
+        requestContext.activate();
+
+        try {
+            Files.createDirectories(directory);
+            exitCode = OtelCLIUtils.withSpan(
+                    parent,
+                    OtelHelper.getEffectiveClassName(this.getClass()) + ".target",
+                    Map.of("params.target", target),
+                    () -> execute(args(target, directory)));
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to run target '{}'", target, e);
+            exitCode = CommandLine.ExitCode.SOFTWARE;
+            message = e.getMessage();
+        } finally {
+            requestContext.terminate();
+            MDCUtils.removeContext();
+        }
+
+        long durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        log.info("Target '{}' finished with exit code {} in {} ms", target, exitCode, durationMillis);
+
+        return new TargetResult(target, directory.toAbsolutePath().toString(), exitCode, durationMillis, message);
+    }
+
+    private String[] args(String target, Path directory) {
+        String dir = directory.toAbsolutePath().toString();
+
+        return template.stream()
+                .map(arg -> arg.replace(TARGET_PLACEHOLDER, target).replace(DIR_PLACEHOLDER, dir))
+                .toArray(String[]::new);
+    }
+
+    private int execute(String[] args) {
+        CommandLine commandLine = ((CLI) spec.root().userObject()).createCommandLine();
+
+        try {
+            if (commandLine.parseArgs(args)
+                    .asCommandLineList()
+                    .stream()
+                    .anyMatch(
+                            parsed -> parsed.getCommand() instanceof BatchCommand
+                                    || parsed.getCommand() instanceof WorkerCommand)) {
+                throw new ApplicationException("A batch cannot start another batch or worker");
+            }
+        } catch (ParameterException e) {
+            // Let the execution below report the invalid arguments
+            log.debug("Invalid arguments: {}", e.getMessage());
+        }
+
+        return commandLine.execute(args);
+    }
+
+    private void writeReport(List<TargetResult> results, long durationMillis) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targets", results.size());
+        report.put("succeeded", results.stream().filter(TargetResult::isSuccessful).count());
+        report.put("failed", results.stream().filter(result -> !result.isSuccessful()).count());
+        report.put("durationMillis", durationMillis);
+        report.put("results", results);
+
+        Files.writeString(
+                outputDir.resolve(REPORT_FILE),
+                ObjectMapperProvider.json().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+    }
+}
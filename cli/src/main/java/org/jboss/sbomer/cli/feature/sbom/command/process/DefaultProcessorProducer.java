@@ -17,6 +17,7 @@
  */
 package org.jboss.sbomer.cli.feature.sbom.command.process;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.pnc.PncService;
@@ -37,12 +38,15 @@ public class DefaultProcessorProducer {
     @Inject
     KojiService kojiService;
 
+    @ConfigProperty(name = "sbomer.processor.concurrency", defaultValue = "8")
+    int concurrency;
+
     @Produces
     @DefaultBean
     @ApplicationScoped
     public DefaultProcessor produceDefaultPRocessor() {
-        log.debug("Creating new Default Processor bean...");
-        return new DefaultProcessor(pncService, kojiService);
+        log.debug("Creating new Default Processor bean with concurrency of {}...", concurrency);
+        return new DefaultProcessor(pncService, kojiService, concurrency);
     }
 
 }
@@ -0,0 +1,400 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.command.worker;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.cli.CLI;
+import org.jboss.sbomer.cli.feature.sbom.command.PathConverter;
+import org.jboss.sbomer.cli.feature.sbom.utils.otel.OtelCLIUtils;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
+
+import io.opentelemetry.context.Context;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/**
+ * <p>
+ * Long-running worker, which executes jobs (regular CLI invocations) taken from a spool directory, so that the cost
+ * of the JVM startup, Quarkus boot and the initialization of the PNC and Koji clients (including the Kerberos login)
+ * is paid only once for many generations. The application scoped services, together with their caches, are shared by
+ * all jobs, while every job gets new instances of the commands.
+ * </p>
+ *
+ * <p>
+ * A job is a JSON file with the arguments of the CLI invocation, for example:
+ * {@code {"args": ["sbom", "generate", "--build-id", "AYHJRDPEUMYAC", "--workdir", "/data/AYHJRDPEUMYAC", ...]}}.
+ * Jobs are processed one by one, in the order of their file names, and should use absolute paths, as the working
+ * directory is shared by all jobs. The spool directory has the following layout:
+ * </p>
+ *
+ * <ul>
+ * <li>{@code incoming} &mdash; jobs waiting to be processed, these need to be moved (not written) there,</li>
+ * <li>{@code processing} &mdash; jobs which are being processed,</li>
+ * <li>{@code done} and {@code failed} &mdash; finished jobs, each next to its {@code <job>.result.json} file with the
+ * exit code and duration.</li>
+ * </ul>
+ *
+ * <p>
+ * A job is claimed by an atomic move into the {@code processing} directory, so many workers can share the same spool
+ * directory. The worker stops after the current job once a {@code stop} file is created in the spool directory.
+ * </p>
+ *
+ * <p>
+ * While a job is processed, the worker holds a lock on the {@code <job>.lock} file next to it, which is released by
+ * the operating system in case the worker dies. On startup, jobs left in the {@code processing} directory which are
+ * not locked by any live worker are moved to the {@code failed} directory, so that they can be resubmitted. These are
+ * not retried automatically, as the job itself may have caused the worker to stop.
+ * </p>
+ *
+ * <p>
+ * The worker owns the OpenTelemetry lifecycle: it is started once, for the whole life of the worker, and every job
+ * runs within its own span, a child of the root span of the worker. The commands run by the jobs do not start or stop
+ * OpenTelemetry themselves.
+ * </p>
+ */
+@Slf4j
+@Command(
+        mixinStandardHelpOptions = true,
+        name = "worker",
+        description = "Runs generation, processing and adjustment jobs taken from a spool directory")
+public class WorkerCommand implements Callable<Integer> {
+
+    public static final String INCOMING_DIR = "incoming";
+    public static final String PROCESSING_DIR = "processing";
+    public static final String DONE_DIR = "done";
+    public static final String FAILED_DIR = "failed";
+    public static final String STOP_FILE = "stop";
+    public static final String RESULT_SUFFIX = ".result.json";
+
+    private static final String JOB_SUFFIX = ".json";
+    private static final String LOCK_SUFFIX = ".lock";
+
+    /**
+     * A job taken from the spool directory.
+     *
+     * @param args the arguments of the CLI invocation
+     */
+    public record Job(List<String> args) {
+    }
+
+    /**
+     * A job claimed by this worker.
+     *
+     * @param job the job in the {@code processing} directory
+     * @param lock the channel holding the lock of the job
+     */
+    private record Claim(Path job, FileChannel lock) {
+    }
+
+    @Spec
+    CommandSpec spec;
+
+    @Option(
+            names = { "--spool-dir" },
+            required = true,
+            paramLabel = "DIR",
+            description = "The directory to take the jobs from",
+            converter = PathConverter.class)
+    Path spoolDir;
+
+    @Option(
+            names = { "--poll-interval" },
+            defaultValue = "PT2S",
+            description = "How often the spool directory is checked for new jobs. Default: ${DEFAULT-VALUE}")
+    Duration pollInterval;
+
+    @Option(
+            names = { "--idle-timeout" },
+            description = "Stop the worker if there were no jobs for the given time. By default the worker keeps waiting.")
+    Optional<Duration> idleTimeout;
+
+    @Option(
+            names = { "--max-jobs" },
+            defaultValue = "0",
+            description = "Stop the worker after the given number of jobs, 0 means no limit. Default: ${DEFAULT-VALUE}")
+    int maxJobs;
+
+    @Override
+    public Integer call() throws Exception {
+        for (String dir : List.of(INCOMING_DIR, PROCESSING_DIR, DONE_DIR, FAILED_DIR)) {
+            Files.createDirectories(spoolDir.resolve(dir));
+        }
+
+        failAbandonedJobs();
+
+        OtelCLIUtils.startOwnedOtel(
+                OtelCLIUtils.SBOMER_CLI_NAME,
+                OtelHelper.getEffectiveClassName(this.getClass()),
+                Map.of("params.spool.dir", spoolDir.toAbsolutePath().toString()));
+
+        try {
+            return processJobs();
+        } finally {
+            OtelCLIUtils.stopOwnedOtel();
+        }
+    }
+
+    private int processJobs() throws IOException {
+        log.info("Worker started, waiting for jobs in '{}'...", spoolDir.resolve(INCOMING_DIR).toAbsolutePath());
+
+        int processed = 0;
+        long idleSince = System.nanoTime();
+
+        while (!Files.exists(spoolDir.resolve(STOP_FILE)) && (maxJobs <= 0 || processed < maxJobs)) {
+            Optional<Claim> claim = claimNextJob();
+
+            if (claim.isPresent()) {
+                try {
+                    processJob(claim.get().job());
+                } finally {
+                    unlock(claim.get().job(), claim.get().lock());
+                }
+
+                processed++;
+                idleSince = System.nanoTime();
+                continue;
+            }
+
+            if (idleTimeout.isPresent() && System.nanoTime() - idleSince >= idleTimeout.get().toNanos()) {
+                log.info("No jobs for {}, stopping the worker", idleTimeout.get());
+                break;
+            }
+
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                log.info("Worker interrupted, stopping");
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        log.info("Worker stopped after processing {} jobs", processed);
+
+        return CommandLine.ExitCode.OK;
+    }
+
+    /**
+     * Moves jobs left in the {@code processing} directory by workers which stopped unexpectedly into the
+     * {@code failed} directory. Jobs locked by a live worker are skipped.
+     */
+    private void failAbandonedJobs() throws IOException {
+        for (Path job : listJobs(spoolDir.resolve(PROCESSING_DIR))) {
+            Optional<FileChannel> lock = lock(job);
+
+            if (lock.isEmpty()) {
+                continue;
+            }
+
+            try {
+                // The owner may have finished the job in the meantime
+                if (Files.exists(job)) {
+                    log.warn("Job '{}' was abandoned by a worker which stopped unexpectedly", job.getFileName());
+                    finishJob(
+                            job,
+                            CommandLine.ExitCode.SOFTWARE,
+                            null,
+                            "The worker processing the job stopped unexpectedly");
+                }
+            } finally {
+                unlock(job, lock.get());
+            }
+        }
+    }
+
+    /**
+     * Moves the first job (by name) from the {@code incoming} directory into the {@code processing} one. The job is
+     * locked before it is moved, so that it is never seen as abandoned. In case the job is claimed by another worker at
+     * the same time, the next one is tried.
+     *
+     * @return the claimed job in the {@code processing} directory, if any
+     */
+    private Optional<Claim> claimNextJob() throws IOException {
+        for (Path job : listJobs(spoolDir.resolve(INCOMING_DIR))) {
+            Path claimed = spoolDir.resolve(PROCESSING_DIR).resolve(job.getFileName());
+            Optional<FileChannel> lock = lock(claimed);
+
+            if (lock.isEmpty()) {
+                log.debug("Job '{}' is locked by another worker, skipping", job.getFileName());
+                continue;
+            }
+
+            try {
+                return Optional.of(new Claim(Files.move(job, claimed, StandardCopyOption.ATOMIC_MOVE), lock.get()));
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                log.debug("Job '{}' was claimed by another worker, skipping", job.getFileName());
+                unlock(claimed, lock.get());
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static List<Path> listJobs(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(JOB_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static Path lockFile(Path job) {
+        return job.resolveSibling(job.getFileName() + LOCK_SUFFIX);
+    }
+
+    /**
+     * Tries to lock the given job in the {@code processing} directory.
+     *
+     * @return the channel holding the lock, empty in case the job is locked by another worker
+     */
+    private static Optional<FileChannel> lock(Path job) throws IOException {
+        FileChannel channel = FileChannel.open(lockFile(job), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+        try {
+            if (channel.tryLock() != null) {
+                return Optional.of(channel);
+            }
+        } catch (OverlappingFileLockException e) {
+            // Locked by this worker
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        channel.close();
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the lock file of the job, while the lock is still held, and releases the lock.
+     */
+    private static void unlock(Path job, FileChannel lock) throws IOException {
+        try (lock) {
+            Files.deleteIfExists(lockFile(job));
+        }
+    }
+
+    private void processJob(Path job) throws IOException {
+        String name = job.getFileName().toString();
+        long start = System.nanoTime();
+        int exitCode;
+        String message = null;
+
+        log.info("Processing job '{}'...", name);
+
+        try {
+            Job parsed = ObjectMapperProvider.json().readValue(job.toFile(), Job.class);
+
+            exitCode = OtelCLIUtils.withSpan(
+                    Context.current(),
+                    OtelHelper.getEffectiveClassName(this.getClass()) + ".job",
+                    Map.of("params.job", name),
+                    () -> execute(parsed));
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to process job '{}'", name, e);
+            exitCode = CommandLine.ExitCode.SOFTWARE;
+            message = e.getMessage();
+        } finally {
+            // Commands leave their context in case these fail early
+            MDCUtils.removeContext();
+        }
+
+        long durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        finishJob(job, exitCode, durationMillis, message);
+
+        log.info("Job '{}' finished with exit code {} in {} ms", name, exitCode, durationMillis);
+    }
+
+    /**
+     * Writes the result of the job and moves it into the {@code done} or {@code failed} directory.
+     *
+     * @param job the job in the {@code processing} directory
+     * @param exitCode the exit code of the job
+     * @param durationMillis the duration of the job, {@code null} if not known
+     * @param message the error message, if any
+     */
+    private void finishJob(Path job, int exitCode, Long durationMillis, String message) throws IOException {
+        String name = job.getFileName().toString();
+        Path target = spoolDir.resolve(exitCode == CommandLine.ExitCode.OK ? DONE_DIR : FAILED_DIR);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("exitCode", exitCode);
+
+        if (durationMillis != null) {
+            result.put("durationMillis", durationMillis);
+        }
+
+        if (message != null) {
+            result.put("message", message);
+        }
+
+        Files.writeString(
+                target.resolve(name.substring(0, name.length() - JOB_SUFFIX.length()) + RESULT_SUFFIX),
+                ObjectMapperProvider.json().writeValueAsString(result));
+        Files.move(job, target.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Executes the job with a new instance of the command line, so that no state is shared with previous jobs.
+     */
+    private int execute(Job job) {
+        if (job.args() == null || job.args().isEmpty()) {
+            throw new ApplicationException("The job does not contain any arguments");
+        }
+
+        CommandLine commandLine = ((CLI) spec.root().userObject()).createCommandLine();
+        String[] args = job.args().toArray(new String[0]);
+
+        try {
+            if (commandLine.parseArgs(args)
+                    .asCommandLineList()
+                    .stream()
+                    .anyMatch(parsed -> parsed.getCommand() instanceof WorkerCommand)) {
+                throw new ApplicationException("A job cannot start another worker");
+            }
+        } catch (ParameterException e) {
+            // Let the execution below report the invalid arguments
+            log.debug("Invalid job arguments: {}", e.getMessage());
+        }
+
+        return commandLine.execute(args);
+    }
+}
@@ -64,6 +64,12 @@ public class MavenDominoGenerator implements SbomGenerator {
     @Builder.Default
     String dominoJava = "java";
 
+    /**
+     * Reports of the commands run during the last {@link #run(Path, String...)} call.
+     */
+    @Builder.Default
+    List<ProcessReport> processReports = new ArrayList<>();
+
     /**
      * Perform validation of the Domino tool.
      *
@@ -114,11 +120,17 @@ public class MavenDominoGenerator implements SbomGenerator {
 
         String[] command = command(dominoToolPath, workDir, generatorArgs);
 
-        ProcessRunner.run(workDir, command);
+        processReports.clear();
+        processReports.add(ProcessRunner.run(workDir, command));
 
         return Path.of(workDir.toString(), BOM_FILE_NAME);
     }
 
+    @Override
+    public List<ProcessReport> getProcessReports() {
+        return List.copyOf(processReports);
+    }
+
     private String[] command(Path dominoToolPath, Path workDir, String... args) {
 
         log.debug("Using following Java binary to run Domino: '{}'", dominoJava);
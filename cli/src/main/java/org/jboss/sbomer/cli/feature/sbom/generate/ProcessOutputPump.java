@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.generate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.MDC;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Reads the output of a process on a dedicated thread, so that the process never blocks on a full pipe.
+ * </p>
+ *
+ * <p>
+ * Every line is logged, unless the process writes more than {@code maxLinesPerSecond} lines within a second. Lines over
+ * that limit are only counted, and the number of suppressed lines is logged once the next second starts. The last
+ * {@code tailSize} lines are always kept in a ring buffer, so that these can be shown in case the process fails.
+ * </p>
+ */
+@Slf4j
+class ProcessOutputPump {
+
+    private final Deque<String> tail;
+
+    private final int tailSize;
+
+    private final int maxLinesPerSecond;
+
+    private final Thread thread;
+
+    private long lines;
+
+    private long suppressedLines;
+
+    private long windowStart;
+
+    private int windowLines;
+
+    private int windowSuppressedLines;
+
+    ProcessOutputPump(String name, InputStream inputStream, int tailSize, int maxLinesPerSecond) {
+        this.tail = new ArrayDeque<>(tailSize);
+        this.tailSize = tailSize;
+        this.maxLinesPerSecond = maxLinesPerSecond;
+        this.windowStart = System.nanoTime();
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        this.thread = new Thread(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+
+            try {
+                pump(inputStream);
+            } finally {
+                MDC.clear();
+            }
+        }, name);
+
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Waits until the whole output is read, which happens once the process (and all descendants which inherited its
+     * output) exits.
+     *
+     * @param timeoutMillis maximum time to wait
+     * @return {@code true} if the whole output was read, {@code false} otherwise
+     */
+    boolean await(long timeoutMillis) throws InterruptedException {
+        thread.join(timeoutMillis);
+        return !thread.isAlive();
+    }
+
+    synchronized long getLines() {
+        return lines;
+    }
+
+    synchronized long getSuppressedLines() {
+        return suppressedLines;
+    }
+
+    /**
+     * @return the last lines written by the process, at most {@code tailSize}
+     */
+    synchronized List<String> getTail() {
+        return new ArrayList<>(tail);
+    }
+
+    private void pump(InputStream inputStream) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (accept(line, System.nanoTime())) {
+                    log.info(line);
+                }
+            }
+        } catch (IOException e) {
+            log.error(
+                    "An error occurred while processing the output of the command. This is not fatal and will be ignored.",
+                    e);
+        }
+
+        flushSuppressed();
+    }
+
+    /**
+     * Records the line and decides whether it should be logged.
+     */
+    private synchronized boolean accept(String line, long now) {
+        lines++;
+
+        if (tailSize > 0) {
+            if (tail.size() == tailSize) {
+                tail.removeFirst();
+            }
+
+            tail.addLast(line);
+        }
+
+        if (now - windowStart >= 1_000_000_000L) {
+            flushSuppressed();
+            windowStart = now;
+            windowLines = 0;
+        }
+
+        if (windowLines < maxLinesPerSecond) {
+            windowLines++;
+            return true;
+        }
+
+        suppressedLines++;
+        windowSuppressedLines++;
+        return false;
+    }
+
+    private synchronized void flushSuppressed() {
+        if (windowSuppressedLines > 0) {
+            log.info("[{} lines of output suppressed]", windowSuppressedLines);
+            windowSuppressedLines = 0;
+        }
+    }
+}
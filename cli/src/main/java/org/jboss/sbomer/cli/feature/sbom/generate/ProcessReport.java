@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.generate;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Resources used by a single command run by the {@link ProcessRunner}.
+ * </p>
+ *
+ * <p>
+ * The CPU time and the peak resident set size are sampled periodically for the process and all its descendants (the
+ * build tools usually fork other processes), so these are approximations. Values which could not be determined (for
+ * example on systems without {@code /proc}) are set to {@code -1}.
+ * </p>
+ *
+ * @param command the command
+ * @param exitCode the exit code of the process, {@code -1} if it was killed because of the timeout
+ * @param timedOut whether the process was killed because it did not finish within the timeout
+ * @param durationMillis the wall-clock duration of the run
+ * @param cpuTimeMillis the total CPU time of the process and its descendants
+ * @param peakRssBytes the highest observed resident set size of the process and its descendants
+ * @param outputLines the number of lines written by the process
+ * @param suppressedLines the number of lines which were not logged because of the rate limit
+ */
+public record ProcessReport(
+        List<String> command,
+        int exitCode,
+        boolean timedOut,
+        long durationMillis,
+        long cpuTimeMillis,
+        long peakRssBytes,
+        long outputLines,
+        long suppressedLines) {
+
+    public boolean isSuccessful() {
+        return !timedOut && exitCode == 0;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.generate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Periodically samples the CPU time and the resident set size of a process and all its descendants.
+ * </p>
+ *
+ * <p>
+ * The CPU time is taken from {@link ProcessHandle.Info#totalCpuDuration()}, the resident set size is read from
+ * {@code /proc/<pid>/status}. Both are available only while the processes are alive, so the values are as accurate as
+ * the sampling interval allows.
+ * </p>
+ */
+@Slf4j
+class ProcessResourceMonitor {
+
+    private static final Path PROC = Path.of("/proc");
+
+    private static final String VM_RSS = "VmRSS:";
+
+    private final ProcessHandle process;
+
+    private final ScheduledExecutorService scheduler;
+
+    // Highest observed CPU time for every process of the tree, the value only grows while the process is alive
+    private final Map<Long, Long> cpuTimeMillis = new HashMap<>();
+
+    private boolean cpuTimeAvailable;
+
+    private long peakRssBytes = -1;
+
+    ProcessResourceMonitor(ProcessHandle process) {
+        this.process = process;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "process-monitor-" + process.pid());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start(Duration interval) {
+        scheduler.scheduleAtFixedRate(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    synchronized long getCpuTimeMillis() {
+        return cpuTimeAvailable ? cpuTimeMillis.values().stream().mapToLong(Long::longValue).sum() : -1;
+    }
+
+    synchronized long getPeakRssBytes() {
+        return peakRssBytes;
+    }
+
+    synchronized void sample() {
+        try {
+            List<ProcessHandle> tree = Stream.concat(Stream.of(process), process.descendants()).toList();
+            long rssBytes = 0;
+            boolean rssAvailable = false;
+
+            for (ProcessHandle handle : tree) {
+                handle.info().totalCpuDuration().ifPresent(cpu -> {
+                    cpuTimeAvailable = true;
+                    cpuTimeMillis.merge(handle.pid(), cpu.toMillis(), Math::max);
+                });
+
+                long rss = readRssBytes(handle.pid());
+
+                if (rss >= 0) {
+                    rssBytes += rss;
+                    rssAvailable = true;
+                }
+            }
+
+            if (rssAvailable) {
+                peakRssBytes = Math.max(peakRssBytes, rssBytes);
+            }
+        } catch (RuntimeException e) {
+            // Never let the scheduler stop because of a failed sample
+            log.debug("Unable to sample resource usage of process {}", process.pid(), e);
+        }
+    }
+
+    /**
+     * @return the resident set size of the process in bytes, or {@code -1} if it cannot be determined
+     */
+    private static long readRssBytes(long pid) {
+        Path status = PROC.resolve(String.valueOf(pid)).resolve("status");
+
+        try (Stream<String> lines = Files.lines(status)) {
+            return lines.filter(line -> line.startsWith(VM_RSS))
+                    .findFirst()
+                    .map(line -> line.substring(VM_RSS.length()).trim())
+                    // The value is always reported in kB
+                    .map(value -> Long.parseLong(value.split("\\s+")[0]) * 1024)
+                    .orElse(-1L);
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -17,16 +17,24 @@
  */
 package org.jboss.sbomer.cli.feature.sbom.generate;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ValidationException;
 
@@ -42,6 +50,35 @@ public class ProcessRunner {
 
     public static final String VALIDATION_FAILED_MESSAGE = "Command execution validation failed";
 
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofHours(3);
+
+    /**
+     * Number of last lines of the output kept in memory, which are logged in case the command fails after some output
+     * was suppressed.
+     */
+    static final int OUTPUT_TAIL_SIZE = 500;
+
+    /**
+     * Maximum number of lines of the output logged every second. Build tools can be very chatty, logging every line
+     * slows down the generation noticeably.
+     */
+    static final int MAX_LOGGED_LINES_PER_SECOND = 200;
+
+    static final Duration SAMPLING_INTERVAL = Duration.ofSeconds(1);
+
+    static final Duration OUTPUT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Executor finishing the processes: waiting for the rest of the output can take up to
+     * {@link #OUTPUT_DRAIN_TIMEOUT}, which must not happen on the shared threads completing {@link Process#onExit()}
+     * and {@link CompletableFuture#orTimeout(long, TimeUnit)}.
+     */
+    private static final ExecutorService COMPLETION_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "process-completion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private ProcessRunner() {
         throw new IllegalStateException("This is a utility class that should not be instantiated");
     }
@@ -82,21 +119,96 @@ public class ProcessRunner {
      *
      * @param workDir The {@link Path} to the working directory
      * @param command The command to execute
-     * @throws ApplicationException in case the process cannot be started or failed.
+     * @return the report of the resources used by the command
+     * @throws ApplicationException in case the process cannot be started, failed or did not finish within the timeout.
      */
-    public static void run(Path workDir, String... command) {
-        run(Collections.emptyMap(), workDir, command);
+    public static ProcessReport run(Path workDir, String... command) {
+        return run(Collections.emptyMap(), workDir, command);
     }
 
     /**
-     * Executes the provided {@code command} in the {@code workDir}.
+     * Executes the provided {@code command} in the {@code workDir}, with the timeout configured by the
+     * {@code sbomer.process.timeout} property.
+     *
+     * @param environment A {@link Map} containing environment variables that should be added to the execution.
+     * @param workDir The {@link Path} to the working directory
+     * @param command The command to execute
+     * @return the report of the resources used by the command
+     * @throws ApplicationException in case the process cannot be started, failed or did not finish within the timeout.
+     */
+    public static ProcessReport run(Map<String, String> environment, Path workDir, String... command) {
+        return run(environment, workDir, defaultTimeout(), command);
+    }
+
+    /**
+     * Executes the provided {@code command} in the {@code workDir} and waits until it finishes.
      *
      * @param environment A {@link Map} containing environment variables that should be added to the execution.
      * @param workDir The {@link Path} to the working directory
+     * @param timeout The maximum wall-clock time of the execution, {@link Duration#ZERO} to wait indefinitely
      * @param command The command to execute
-     * @throws ApplicationException in case the process cannot be started or failed.
+     * @return the report of the resources used by the command
+     * @throws ApplicationException in case the process cannot be started, failed or did not finish within the timeout.
      */
-    public static void run(Map<String, String> environment, Path workDir, String... command) {
+    public static ProcessReport run(
+            Map<String, String> environment,
+            Path workDir,
+            Duration timeout,
+            String... command) {
+        CompletableFuture<ProcessReport> execution = start(environment, workDir, timeout, command);
+        ProcessReport report;
+
+        try {
+            report = execution.get();
+        } catch (ExecutionException e) {
+            throw new ApplicationException("Error while running the command", e.getCause());
+        } catch (InterruptedException e) {
+            log.error("Unable to obtain the status for the process", e);
+            execution.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while running the command", e);
+        }
+
+        if (report.timedOut()) {
+            throw new ApplicationException("Command did not finish within {}, it was killed, see logs above", timeout);
+        }
+
+        if (report.exitCode() != 0) {
+            throw new ApplicationException("Command failed, see logs above");
+        }
+
+        log.info("Command run successfully");
+
+        return report;
+    }
+
+    /**
+     * <p>
+     * Starts the provided {@code command} in the {@code workDir} without waiting for it to finish.
+     * </p>
+     *
+     * <p>
+     * The output of the process is read and logged on a separate thread (see {@link ProcessOutputPump}). In case the
+     * process does not finish within the {@code timeout}, it is killed together with all its descendants. Cancelling
+     * the returned future kills the process tree as well.
+     * </p>
+     *
+     * <p>
+     * The returned future is completed with the report once the process finishes, regardless of its exit code.
+     * </p>
+     *
+     * @param environment A {@link Map} containing environment variables that should be added to the execution.
+     * @param workDir The {@link Path} to the working directory
+     * @param timeout The maximum wall-clock time of the execution, {@link Duration#ZERO} to wait indefinitely
+     * @param command The command to execute
+     * @return the future report of the resources used by the command
+     * @throws ApplicationException in case the process cannot be started.
+     */
+    public static CompletableFuture<ProcessReport> start(
+            Map<String, String> environment,
+            Path workDir,
+            Duration timeout,
+            String... command) {
         if (Objects.isNull(command) || command.length == 0) {
             throw new ValidationException(
                     VALIDATION_FAILED_MESSAGE,
@@ -122,6 +234,7 @@ public class ProcessRunner {
 
         log.info("Starting execution...");
 
+        long startTime = System.nanoTime();
         Process process;
 
         try {
@@ -132,32 +245,114 @@ public class ProcessRunner {
 
         log.info("Starting processing of output...");
 
-        try {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    log.info(line);
+        ProcessOutputPump pump = new ProcessOutputPump(
+                "process-output-" + process.pid(),
+                process.getInputStream(),
+                OUTPUT_TAIL_SIZE,
+                MAX_LOGGED_LINES_PER_SECOND);
+        pump.start();
+
+        ProcessResourceMonitor monitor = new ProcessResourceMonitor(process.toHandle());
+        monitor.start(SAMPLING_INTERVAL);
+
+        CompletableFuture<Process> exit = process.onExit();
+
+        if (!timeout.isZero() && !timeout.isNegative()) {
+            exit = exit.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        CompletableFuture<ProcessReport> report = exit.handleAsync((p, e) -> {
+            boolean timedOut = e instanceof TimeoutException;
+
+            if (e != null) {
+                if (timedOut) {
+                    log.error("Command did not finish within {}, killing it", timeout);
                 }
+
+                kill(process);
             }
-        } catch (IOException e) {
-            log.error(
-                    "An error occurred while processing the output of the command. This is not fatal and will be ignored.",
-                    e);
-        }
 
-        int exitCode = -1;
+            monitor.stop();
+            awaitOutput(pump);
+
+            ProcessReport processReport = new ProcessReport(
+                    List.copyOf(pb.command()),
+                    timedOut ? -1 : exitValue(process),
+                    timedOut,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                    monitor.getCpuTimeMillis(),
+                    monitor.getPeakRssBytes(),
+                    pump.getLines(),
+                    pump.getSuppressedLines());
+
+            if (!processReport.isSuccessful() && processReport.suppressedLines() > 0) {
+                // Some output was not logged, make sure that at least the end of it (usually containing the cause of
+                // the failure) is
+                log.error("Last {} lines of the output:", pump.getTail().size());
+                pump.getTail().forEach(log::error);
+            }
+
+            log.info(
+                    "Command finished with exit code {} in {} ms (CPU time: {} ms, peak RSS: {} bytes, output lines: {})",
+                    processReport.exitCode(),
+                    processReport.durationMillis(),
+                    processReport.cpuTimeMillis(),
+                    processReport.peakRssBytes(),
+                    processReport.outputLines());
+
+            return processReport;
+        }, COMPLETION_EXECUTOR);
 
+        // Kill the process tree when the caller is not interested in the result anymore
+        report.whenComplete((r, e) -> {
+            if (e instanceof CancellationException) {
+                kill(process);
+                monitor.stop();
+            }
+        });
+
+        return report;
+    }
+
+    /**
+     * Reads the {@code sbomer.process.timeout} configuration property.
+     */
+    static Duration defaultTimeout() {
         try {
-            exitCode = process.waitFor();
-        } catch (InterruptedException e) {
-            log.error("Unable to obtain the status for the process", e);
-            Thread.currentThread().interrupt();
+            return ConfigProvider.getConfig()
+                    .getOptionalValue("sbomer.process.timeout", Duration.class)
+                    .orElse(DEFAULT_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.debug("Unable to read the process timeout configuration, using the default {}", DEFAULT_TIMEOUT, e);
+            return DEFAULT_TIMEOUT;
         }
+    }
 
-        if (exitCode != 0) {
-            throw new ApplicationException("Command failed, see logs above");
+    /**
+     * Kills the process and all its descendants. The descendants are killed first, so that they are not reparented
+     * when the process exits.
+     */
+    private static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static int exitValue(Process process) {
+        try {
+            return process.exitValue();
+        } catch (IllegalThreadStateException e) {
+            return -1;
         }
+    }
 
-        log.info("Command run successfully");
+    private static void awaitOutput(ProcessOutputPump pump) {
+        try {
+            if (!pump.await(OUTPUT_DRAIN_TIMEOUT.toMillis())) {
+                // A descendant which inherited the output may still be running
+                log.warn("The output of the command was not fully read within {}", OUTPUT_DRAIN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -18,6 +18,7 @@
 package org.jboss.sbomer.cli.feature.sbom.generate;
 
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * An interface for the SBOM generator.
@@ -33,4 +34,14 @@ public interface SbomGenerator {
      */
     Path run(Path workDir, String... generatorArgs);
 
+    /**
+     * Returns the reports of the commands run by the {@link ProcessRunner} during the last {@link #run(Path, String...)}
+     * call.
+     *
+     * @return the reports, empty if no command was run
+     */
+    default List<ProcessReport> getProcessReports() {
+        return List.of();
+    }
+
 }
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.git;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.dircache.DirCacheCheckout;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.HashUtils;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A cache of bare Git mirrors, kept on a volume shared by all generations and keyed by the SCM URL.
+ * </p>
+ *
+ * <p>
+ * Instead of cloning the repository for every generation, only the requested tag (or branch) is fetched into the
+ * mirror. The fetch is incremental: objects already present in the mirror (for example from a previous tag of the
+ * same repository) are not transferred again. The working copy is then checked out in the target directory, borrowing
+ * all objects from the mirror through {@code objects/info/alternates}, so that no objects are copied.
+ * </p>
+ *
+ * <p>
+ * Tags are considered immutable: a tag already present in the mirror is checked out without contacting the remote
+ * repository. Branches are always fetched again.
+ * </p>
+ *
+ * <p>
+ * Mirrors are only ever added to (never pruned), because working copies may still reference their objects. Concurrent
+ * generations updating the same mirror are serialized with a file lock.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GitMirrorCache {
+
+    private static final String MIRRORS_DIR = "git-mirrors";
+
+    @ConfigProperty(name = "sbomer.scm-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "sbomer.scm-cache.path")
+    Optional<Path> path;
+
+    public GitMirrorCache() {
+        // Configured by CDI
+    }
+
+    /**
+     * Creates an enabled cache keeping the mirrors in the given directory.
+     *
+     * @param path the directory to keep the mirrors in
+     */
+    public GitMirrorCache(Path path) {
+        this.enabled = true;
+        this.path = Optional.of(path);
+    }
+
+    public boolean isEnabled() {
+        return enabled && path.isPresent();
+    }
+
+    /**
+     * Checks out the {@code tag} (or a branch with such name) of the repository at {@code url} into {@code workDir},
+     * updating the mirror of the repository first.
+     *
+     * @param url the SCM URL
+     * @param tag the tag or branch to check out
+     * @param workDir an empty directory to check out the working copy into
+     * @param credentials the credentials to fetch with, can be {@code null}
+     * @throws ApplicationException in case the mirror could not be updated or the working copy could not be created
+     */
+    public void checkout(String url, String tag, Path workDir, CredentialsProvider credentials) {
+        if (!isEnabled()) {
+            throw new ApplicationException("The Git mirror cache is not enabled");
+        }
+
+        Path mirror = path.get().resolve(MIRRORS_DIR).resolve(HashUtils.sha256(url.getBytes(StandardCharsets.UTF_8)));
+
+        try {
+            String refName = updateMirror(mirror, url, tag, credentials);
+            createWorkingCopy(mirror, url, refName, workDir);
+        } catch (IOException | GitAPIException | JGitInternalException e) {
+            throw new ApplicationException(
+                    "Unable to check out '{}' of the '{}' repository using the mirror in '{}'",
+                    tag,
+                    url,
+                    mirror,
+                    e);
+        }
+    }
+
+    /**
+     * Fetches the requested ref into the mirror, creating the mirror if it does not exist yet.
+     *
+     * @return the full name of the fetched ref
+     */
+    private String updateMirror(Path mirror, String url, String tag, CredentialsProvider credentials)
+            throws IOException, GitAPIException {
+        Files.createDirectories(mirror.getParent());
+
+        Path lockFile = mirror.resolveSibling(mirror.getFileName() + ".lock");
+
+        try (FileChannel channel = FileChannel
+                .open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock ignored = channel.lock()) {
+
+            if (!Files.exists(mirror.resolve(Constants.OBJECTS))) {
+                log.info("Creating Git mirror of '{}' in '{}'...", url, mirror);
+                Git.init().setBare(true).setGitDir(mirror.toFile()).setInitialBranch("main").call().close();
+            }
+
+            try (Git git = Git.open(mirror.toFile())) {
+                StoredConfig config = git.getRepository().getConfig();
+                config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", url);
+                config.save();
+
+                String tagRefName = Constants.R_TAGS + tag;
+
+                if (git.getRepository().exactRef(tagRefName) != null) {
+                    log.info("Tag '{}' of '{}' is already in the mirror", tag, url);
+                    return tagRefName;
+                }
+
+                String refName = findRef(git, url, tag, credentials);
+
+                log.info("Fetching '{}' of '{}' into the mirror...", refName, url);
+
+                git.fetch()
+                        .setRemote(url)
+                        .setRefSpecs(new RefSpec("+" + refName + ":" + refName))
+                        .setTagOpt(TagOpt.NO_TAGS)
+                        .setCredentialsProvider(credentials)
+                        .call();
+
+                return refName;
+            }
+        }
+    }
+
+    /**
+     * The requested name is usually a tag, but can be a branch too.
+     */
+    private String findRef(Git git, String url, String tag, CredentialsProvider credentials)
+            throws GitAPIException {
+        Set<String> remoteRefs = git.lsRemote()
+                .setRemote(url)
+                .setCredentialsProvider(credentials)
+                .call()
+                .stream()
+                .map(Ref::getName)
+                .collect(Collectors.toSet());
+
+        for (String refName : List.of(Constants.R_TAGS + tag, Constants.R_HEADS + tag)) {
+            if (remoteRefs.contains(refName)) {
+                return refName;
+            }
+        }
+
+        throw new ApplicationException("Neither a tag nor a branch '{}' was found in the '{}' repository", tag, url);
+    }
+
+    /**
+     * Creates a working copy borrowing objects from the mirror, with a detached HEAD at the commit of the ref.
+     */
+    private void createWorkingCopy(Path mirror, String url, String refName, Path workDir)
+            throws IOException, GitAPIException {
+        ObjectId refId;
+        ObjectId commitId;
+
+        try (Git mirrorGit = Git.open(mirror.toFile())) {
+            Repository mirrorRepository = mirrorGit.getRepository();
+            Ref ref = mirrorRepository.exactRef(refName);
+            commitId = mirrorRepository.resolve(refName + "^{commit}");
+
+            if (ref == null || commitId == null) {
+                throw new ApplicationException("The '{}' ref of '{}' is missing in the mirror", refName, url);
+            }
+
+            refId = ref.getObjectId();
+        }
+
+        Git.init().setDirectory(workDir.toFile()).call().close();
+
+        Path alternates = workDir.resolve(Constants.DOT_GIT).resolve(Constants.OBJECTS).resolve("info/alternates");
+        Files.createDirectories(alternates.getParent());
+        Files.writeString(alternates, mirror.resolve(Constants.OBJECTS).toAbsolutePath() + "\n");
+
+        // Reopen the repository, so that the alternates are used
+        try (Git git = Git.open(workDir.toFile()); RevWalk revWalk = new RevWalk(git.getRepository())) {
+            Repository repository = git.getRepository();
+
+            StoredConfig config = repository.getConfig();
+            config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", url);
+            config.save();
+
+            RefUpdate refUpdate = repository.updateRef(refName);
+            refUpdate.setNewObjectId(refId);
+            refUpdate.forceUpdate();
+
+            RevCommit commit = revWalk.parseCommit(commitId);
+            DirCacheCheckout checkout = new DirCacheCheckout(repository, repository.lockDirCache(), commit.getTree());
+            checkout.setFailOnConflict(true);
+            checkout.checkout();
+
+            RefUpdate headUpdate = repository.updateRef(Constants.HEAD, true);
+            headUpdate.setNewObjectId(commit.getId());
+            headUpdate.forceUpdate();
+        }
+
+        log.info("Checked out '{}' ({}) of '{}' using the mirror", refName, commitId.name(), url);
+    }
+}
@@ -34,13 +34,20 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setBrewBuildMe
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPublisher;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setSupplier;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurl;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurls;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -54,17 +61,33 @@ import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
 import org.jboss.sbomer.core.features.sbom.utils.RhVersionPattern;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.slf4j.MDC;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Enriches components of a manifest with information found in PNC and Brew.
+ * </p>
+ *
+ * <p>
+ * Most of the time is spent waiting for responses of remote services. Components are independent of each other, so
+ * these can be enriched concurrently by a pool of {@code concurrency} threads created for every processed manifest.
+ * Every component is modified only by the thread which processes it and purl relocations are applied (in a sorted
+ * order) only after all components are processed, so the result does not depend on the number of threads.
+ * </p>
+ */
 @Slf4j
 public class DefaultProcessor implements Processor {
 
@@ -72,19 +95,66 @@ public class DefaultProcessor implements Processor {
 
     protected final KojiService kojiService;
 
+    /**
+     * Maximum number of components processed concurrently.
+     */
+    @Getter
+    protected final int concurrency;
+
     public DefaultProcessor(PncService pncService, KojiService kojiService) {
+        this(pncService, kojiService, 1);
+    }
+
+    public DefaultProcessor(PncService pncService, KojiService kojiService, int concurrency) {
+        if (concurrency < 1) {
+            throw new ApplicationException("Concurrency must be a positive number, provided: {}", concurrency);
+        }
+
         this.pncService = pncService;
         this.kojiService = kojiService;
+        this.concurrency = concurrency;
     }
 
-    private final Map<String, String> purlRelocations = new HashMap<>();
+    /**
+     * <p>
+     * State of a single {@link #process(Bom)} call. The processor itself is shared (it is an application scoped bean),
+     * so nothing related to a particular manifest can be kept in its fields.
+     * </p>
+     *
+     * <p>
+     * The prefetched results are populated before, and only read during the (possibly concurrent) processing of
+     * components.
+     * </p>
+     */
+    protected static final class ProcessingContext {
+        /**
+         * Purls to be updated once all components are processed, written concurrently.
+         */
+        private final Map<String, String> purlRelocations = new ConcurrentHashMap<>();
+
+        /**
+         * Artifacts looked up in batches. A {@code null} value means that the artifact was not found.
+         */
+        private final Map<ArtifactQuery, Artifact> prefetchedArtifacts = new HashMap<>();
+
+        /**
+         * Brew builds of RPMs (by NVRA) looked up in batches.
+         */
+        private final Map<String, KojiBuildInfo> prefetchedRpmBuilds = new HashMap<>();
+
+        /**
+         * Brew builds of container images (by NVR) looked up in batches.
+         */
+        private final Map<String, KojiBuildInfo> prefetchedImageBuilds = new HashMap<>();
+    }
 
     /**
      * Performs processing for a given {@link Component}.
      *
      * @param component the component to process
+     * @param context the state of the current {@link #process(Bom)} call
      */
-    protected void processComponent(Component component) {
+    protected void processComponent(Component component, ProcessingContext context) {
         log.debug("Processing '{}'...", component.getPurl());
 
         if (component.getPurl() == null) {
@@ -98,9 +168,7 @@ public class DefaultProcessor implements Processor {
         }
 
         // If the component does not have "pnc-build-id" nor "pnc-environment-image" nor "brew-build-id", query it
-        if (!hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID)) {
+        if (requiresArtifactLookup(component)) {
 
             Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
             Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
@@ -109,7 +177,9 @@ public class DefaultProcessor implements Processor {
             // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
             // results
             // Even though we may have different hashes, we specifically specify only SHA256 here.
-            Artifact artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            Artifact artifact = findArtifact(
+                    ArtifactQuery.of(component.getPurl(), sha256, Optional.empty(), Optional.empty()),
+                    context);
 
             // Artifact wasn't found, so we will try lookup using different methods
             if (artifact == null) {
@@ -127,7 +197,7 @@ public class DefaultProcessor implements Processor {
                     log.debug("Looking up '{}' artifact in PNC using hashes only", component.getPurl());
 
                     // Let's try a lookup with hashes only, because the generated purl can be wrongly constructed
-                    artifact = pncService.getArtifact(null, sha256, sha1, md5);
+                    artifact = findArtifact(ArtifactQuery.of(null, sha256, sha1, md5), context);
                 }
 
                 // No luck, let's try to see if we can find hashes in build-meta external references
@@ -151,7 +221,7 @@ public class DefaultProcessor implements Processor {
                     // This means that the purl most probably is incorrect in the manifest, so let's update it.
                     log.debug("Updating component's purl from '{}' to '{}'", oldPurl, newPurl);
 
-                    purlRelocations.put(oldPurl, newPurl);
+                    context.purlRelocations.put(oldPurl, newPurl);
                 }
             }
 
@@ -204,6 +274,167 @@ public class DefaultProcessor implements Processor {
         }
     }
 
+    private static boolean requiresArtifactLookup(Component component) {
+        return !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
+                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
+                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID);
+    }
+
+    /**
+     * Returns the artifact prefetched for the query by {@link #prefetchArtifacts(List, ProcessingContext)}, if the
+     * query was prefetched. Otherwise PNC is queried.
+     */
+    private Artifact findArtifact(ArtifactQuery query, ProcessingContext context) {
+        if (context.prefetchedArtifacts.containsKey(query)) {
+            return context.prefetchedArtifacts.get(query);
+        }
+
+        return pncService.getArtifact(
+                query.purl(),
+                Optional.ofNullable(query.sha256()),
+                Optional.ofNullable(query.sha1()),
+                Optional.ofNullable(query.md5()));
+    }
+
+    /**
+     * <p>
+     * Looks up PNC artifacts for all provided components which will be processed by
+     * {@link #processComponent(Component, ProcessingContext)} in batches, instead of one (or two) requests per
+     * component.
+     * </p>
+     *
+     * <p>
+     * The same queries as in {@link #processComponent(Component, ProcessingContext)} are prepared: first the purl
+     * (with the SHA-256 hash) lookup, then, for components which were not found this way, the hash-only lookup.
+     * </p>
+     *
+     * @param components the components to prefetch the artifacts for
+     * @param context the context to store the prefetched artifacts in
+     */
+    private void prefetchArtifacts(List<Component> components, ProcessingContext context) {
+        List<Component> candidates = components.stream()
+                .filter(c -> c.getType() != Component.Type.CONTAINER)
+                .filter(c -> c.getPurl() != null && c.getVersion() != null)
+                .filter(c -> !c.getPurl().startsWith("pkg:" + PackageURL.StandardTypes.RPM + "/"))
+                .filter(DefaultProcessor::requiresArtifactLookup)
+                .toList();
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        log.debug("Prefetching PNC artifacts for {} components", candidates.size());
+
+        List<ArtifactQuery> purlQueries = candidates.stream()
+                .map(
+                        c -> ArtifactQuery.of(
+                                c.getPurl(),
+                                getHash(c, Hash.Algorithm.SHA_256),
+                                Optional.empty(),
+                                Optional.empty()))
+                .toList();
+
+        Map<ArtifactQuery, Artifact> prefetchedArtifacts = context.prefetchedArtifacts;
+        prefetchedArtifacts.putAll(pncService.getArtifacts(purlQueries));
+
+        List<ArtifactQuery> hashQueries = new ArrayList<>();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            ArtifactQuery purlQuery = purlQueries.get(i);
+
+            // Only queries which were looked up and not found, same as in processComponent()
+            if (!prefetchedArtifacts.containsKey(purlQuery) || prefetchedArtifacts.get(purlQuery) != null) {
+                continue;
+            }
+
+            Component component = candidates.get(i);
+            Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
+            Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
+            Optional<String> md5 = getHash(component, Hash.Algorithm.MD5);
+
+            if (hasAnyHash(sha256, sha1, md5)) {
+                hashQueries.add(ArtifactQuery.of(null, sha256, sha1, md5));
+            }
+        }
+
+        if (!hashQueries.isEmpty()) {
+            prefetchedArtifacts.putAll(pncService.getArtifacts(hashQueries));
+        }
+    }
+
+    /**
+     * Looks up Brew builds of all RPM and container image components with Koji multicalls, instead of one (or two)
+     * calls per component. In case the lookup fails, components are looked up one by one.
+     *
+     * @param components the components to prefetch the builds for
+     * @param context the context to store the prefetched builds in
+     */
+    private void prefetchBrewBuilds(List<Component> components, ProcessingContext context) {
+        List<String> nvras = new ArrayList<>();
+        List<String> nvrs = new ArrayList<>();
+
+        for (Component component : components) {
+            if (component.getType() == Component.Type.CONTAINER) {
+                getContainerImageNvr(component).ifPresent(nvrs::add);
+            } else if (component.getPurl() != null
+                    && component.getPurl().startsWith("pkg:" + PackageURL.StandardTypes.RPM + "/")) {
+                try {
+                    getRpmNvra(new PackageURL(component.getPurl())).ifPresent(nvras::add);
+                } catch (MalformedPackageURLException e) {
+                    log.debug("Unable to parse purl '{}', not prefetching its build", component.getPurl());
+                }
+            }
+        }
+
+        try {
+            if (!nvras.isEmpty()) {
+                log.debug("Prefetching Brew builds for {} RPMs", nvras.size());
+                context.prefetchedRpmBuilds.putAll(kojiService.findBuildsByRPMs(nvras));
+            }
+
+            if (!nvrs.isEmpty()) {
+                log.debug("Prefetching Brew builds for {} container images", nvrs.size());
+                context.prefetchedImageBuilds.putAll(kojiService.findBuilds(nvrs));
+            }
+        } catch (KojiClientException e) {
+            log.warn(
+                    "Batch lookup in Brew failed due to {}, looking up components one by one",
+                    e.getMessage() == null ? e.toString() : e.getMessage(),
+                    e);
+        }
+    }
+
+    private static Optional<String> getRpmNvra(PackageURL purl) {
+        Map<String, String> qualifiers = purl.getQualifiers();
+        String arch = qualifiers != null ? qualifiers.get("arch") : null;
+
+        if (arch == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(purl.getName() + "-" + purl.getVersion() + "." + arch);
+    }
+
+    private static Optional<String> getContainerImageNvr(Component component) {
+        Optional<Property> componentOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT, component);
+        Optional<Property> versionOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_VERSION, component);
+        Optional<Property> releaseOpt = SbomUtils
+                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE, component);
+
+        if (componentOpt.isEmpty() || versionOpt.isEmpty() || releaseOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(
+                String.join(
+                        "-",
+                        componentOpt.get().getValue(),
+                        versionOpt.get().getValue(),
+                        releaseOpt.get().getValue()));
+    }
+
     // FIXME: 'Optional<String>' used as type for parameter 'sha256'
     private boolean hasAnyHash(Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
         return (sha256.orElse(null) != null || sha1.orElse(null) != null || md5.orElse(null) != null);
@@ -233,34 +464,49 @@ public class DefaultProcessor implements Processor {
         // TODO: this should be moved to its own workflow
         new PncBuildAdjuster().adjust(bom);
 
+        // Processing of the components does not change purls, refs nor the dependency tree, so the manifest is indexed
+        // once for the whole processing
+        BomIndex index = BomIndex.of(bom);
+
+        List<Component> toPrefetch = new ArrayList<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            toPrefetch.add(bom.getMetadata().getComponent());
+        }
+
+        if (bom.getComponents() != null) {
+            toPrefetch.addAll(bom.getComponents());
+        }
+
+        ProcessingContext context = new ProcessingContext();
+
+        prefetchArtifacts(toPrefetch, context);
+        prefetchBrewBuilds(toPrefetch, context);
+
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
             Component component = bom.getMetadata().getComponent();
 
             // For container images, there is nothing to do for the metadata component.
             // All modifications are done in the main component.
             if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
-                processComponent(component);
+                processComponent(component, context);
             }
         }
 
         if (bom.getComponents() != null) {
-            for (Component c : bom.getComponents()) {
-
-                if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
-                    processContainerImageComponent(c);
-                } else {
-                    PackageURL purl = getPackageURL(c);
-                    if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
-                        processRpmComponent(c, purl);
-                    } else {
-                        processComponent(c);
-                    }
-                }
+            if (concurrency == 1 || bom.getComponents().size() < 2) {
+                bom.getComponents().forEach(component -> processTopLevelComponent(component, context));
+            } else {
+                processConcurrently(bom.getComponents(), context);
             }
         }
 
-        // If there are any purl relocations, process these.
-        purlRelocations.forEach((oldPurl, newPurl) -> updatePurl(bom, oldPurl, newPurl));
+        // If there are any purl relocations, process these, all at once.
+        if (!context.purlRelocations.isEmpty()) {
+            log.debug("Relocating {} purls", context.purlRelocations.size());
+            // Sorted, so that the order of relocations does not depend on the order in which components were processed
+            updatePurls(index, new TreeMap<>(context.purlRelocations));
+        }
 
         if (SbomUtils.isNotEmpty(bom.getComponents())) {
             WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
@@ -271,23 +517,89 @@ public class DefaultProcessor implements Processor {
         return bom;
     }
 
-    private void processRpmComponent(Component component, PackageURL purl) {
-        Map<String, String> qualifiers = purl.getQualifiers();
-        String arch = null;
+    private void processTopLevelComponent(Component component, ProcessingContext context) {
+        if (Objects.requireNonNull(component.getType()) == Component.Type.CONTAINER) {
+            processContainerImageComponent(component, context);
+        } else {
+            PackageURL purl = getPackageURL(component);
+            if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
+                processRpmComponent(component, purl, context);
+            } else {
+                processComponent(component, context);
+            }
+        }
+    }
+
+    /**
+     * Processes the components using a pool of {@link #concurrency} threads. Waits until all components are processed.
+     * In case processing of any component fails, the failure of the first such component (in the manifest order) is
+     * rethrown after all other components are processed.
+     *
+     * @param components the components to process
+     * @param context the state of the current {@link #process(Bom)} call
+     */
+    private void processConcurrently(List<Component> components, ProcessingContext context) {
+        int threads = Math.min(concurrency, components.size());
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        log.debug("Processing {} components using {} threads", components.size(), threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(components.size());
+
+            for (Component component : components) {
+                futures.add(executor.submit(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+
+                    try {
+                        processTopLevelComponent(component, context);
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
 
-        if (qualifiers != null) {
-            arch = qualifiers.get("arch");
+            RuntimeException failure = null;
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException re ? re
+                                : new ApplicationException("Component processing failed", e.getCause());
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while processing components", e);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        if (arch == null) {
+    private void processRpmComponent(Component component, PackageURL purl, ProcessingContext context) {
+        Optional<String> nvra = getRpmNvra(purl);
+
+        if (nvra.isEmpty()) {
             log.debug("RPM purl is missing arch qualifier: '{}'", component.getPurl());
             return;
         }
 
         KojiBuildInfo buildInfo;
         try {
-            String nvra = purl.getName() + "-" + purl.getVersion() + "." + arch;
-            buildInfo = kojiService.findBuildByRPM(nvra);
+            Map<String, KojiBuildInfo> prefetchedRpmBuilds = context.prefetchedRpmBuilds;
+            buildInfo = prefetchedRpmBuilds.containsKey(nvra.get()) ? prefetchedRpmBuilds.get(nvra.get())
+                    : kojiService.findBuildByRPM(nvra.get());
         } catch (KojiClientException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
@@ -310,30 +622,25 @@ public class DefaultProcessor implements Processor {
                 kojiService.getConfig().getKojiWebURL().toString());
     }
 
-    private void processContainerImageComponent(Component component) {
+    private void processContainerImageComponent(Component component, ProcessingContext context) {
         // Try to find required properties
-        Optional<Property> componentOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT, component);
-        Optional<Property> versionOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_VERSION, component);
-        Optional<Property> releaseOpt = SbomUtils
-                .findPropertyWithNameInComponent(CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE, component);
+        Optional<String> nvrOpt = getContainerImageNvr(component);
 
-        if (componentOpt.isEmpty() || versionOpt.isEmpty() || releaseOpt.isEmpty()) {
+        if (nvrOpt.isEmpty()) {
             log.warn(
                     "One or more required properties was not found in the component, skipping adding RH-specific metadata for this container image");
             return;
         }
 
-        String nvr = String
-                .join("-", componentOpt.get().getValue(), versionOpt.get().getValue(), releaseOpt.get().getValue());
+        String nvr = nvrOpt.get();
 
         log.debug("Looking up container information in Brew for NVR '{}'", nvr);
 
         KojiBuildInfo buildInfo;
 
         try {
-            buildInfo = kojiService.findBuild(nvr);
+            buildInfo = context.prefetchedImageBuilds.containsKey(nvr) ? context.prefetchedImageBuilds.get(nvr)
+                    : kojiService.findBuild(nvr);
         } catch (KojiClientException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
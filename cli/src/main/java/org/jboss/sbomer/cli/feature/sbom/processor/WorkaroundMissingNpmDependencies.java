@@ -25,12 +25,17 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setArtifactMet
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.cyclonedx.model.Bom;
@@ -41,7 +46,9 @@ import org.cyclonedx.model.ExternalReference;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.enums.BuildType;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.slf4j.MDC;
 
 import com.github.packageurl.PackageURL;
 
@@ -51,13 +58,23 @@ import lombok.extern.slf4j.Slf4j;
  * Class for working around problem with missing NPM dependencies in manifest. For every component produced by a non-NPM
  * PNC build, this class will look up that build's build time NPM dependencies. It will check if these dependencies are
  * already present in the manifest, and if not, it will add them as new components.
+ *
+ * <p>
+ * The NPM dependencies are not looked up while the builds are analyzed. Instead, all distinct builds are gathered
+ * first, and their NPM dependencies are fetched concurrently (using a pool of at most {@code concurrency} threads)
+ * when the missing dependencies are added, see {@link #addMissingDependencies(Bom)}.
+ * </p>
  */
 @Slf4j
 public class WorkaroundMissingNpmDependencies {
 
+    public static final int DEFAULT_CONCURRENCY = 8;
+
     private final PncService pncService;
 
-    // Map Build ID -> list of the build's NPM dependencies
+    private final int concurrency;
+
+    // Map Build ID -> list of the build's NPM dependencies, null until fetched
     // We will add these dependencies as new components
     private final Map<String, List<Artifact>> buildsWithNpmDependencies = new LinkedHashMap<>();
     // Map Build ID -> components that were built by the build
@@ -67,7 +84,16 @@ public class WorkaroundMissingNpmDependencies {
     private final Map<Artifact, Component> newComponents = new LinkedHashMap<>();
 
     public WorkaroundMissingNpmDependencies(PncService pncService) {
+        this(pncService, DEFAULT_CONCURRENCY);
+    }
+
+    public WorkaroundMissingNpmDependencies(PncService pncService, int concurrency) {
+        if (concurrency < 1) {
+            throw new ApplicationException("Concurrency must be a positive number, got: {}", concurrency);
+        }
+
         this.pncService = pncService;
+        this.concurrency = concurrency;
     }
 
     public void analyzeBuild(Component component, Build build) {
@@ -76,14 +102,9 @@ public class WorkaroundMissingNpmDependencies {
             return;
         }
         String buildId = build.getId();
-        List<Artifact> npmDependencies = buildsWithNpmDependencies // also serves as cache for PNC requests
-                .computeIfAbsent(buildId, k -> new ArrayList<>(pncService.getNPMDependencies(k)));
-        List<Component> components = componentsToAddNpmDependencies.computeIfAbsent(buildId, k -> new ArrayList<>());
-        if (npmDependencies.isEmpty()) {
-            // No NPM dependencies to add
-            return;
-        }
-        components.add(component);
+        // The NPM dependencies are fetched later, for all builds at once
+        buildsWithNpmDependencies.putIfAbsent(buildId, null);
+        componentsToAddNpmDependencies.computeIfAbsent(buildId, k -> new ArrayList<>()).add(component);
     }
 
     public void analyzeComponentsBuild(Component component) {
@@ -117,11 +138,107 @@ public class WorkaroundMissingNpmDependencies {
     }
 
     public void addMissingDependencies(Bom bom) {
+        fetchNpmDependencies();
+        removeBuildsWithoutNpmDependencies();
         filterOutAlreadyPresentDependencies(bom);
         generateNewComponents(bom);
         addDependencies(bom);
     }
 
+    /**
+     * Fetches the NPM dependencies of all analyzed builds which were not fetched yet. In case fetching for any build
+     * fails, the failure of the first such build (in the order of analysis) is rethrown after all other builds are
+     * fetched.
+     */
+    private void fetchNpmDependencies() {
+        List<String> buildIds = buildsWithNpmDependencies.entrySet()
+                .stream()
+                .filter(e -> e.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        if (buildIds.isEmpty()) {
+            return;
+        }
+
+        int threads = Math.min(concurrency, buildIds.size());
+
+        if (threads == 1) {
+            buildIds.forEach(buildId -> buildsWithNpmDependencies.put(buildId, fetchNpmDependencies(buildId)));
+            return;
+        }
+
+        log.debug("Fetching NPM dependencies of {} builds using {} threads", buildIds.size(), threads);
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            Map<String, Future<List<Artifact>>> futures = new LinkedHashMap<>();
+
+            for (String buildId : buildIds) {
+                futures.put(buildId, executor.submit(() -> {
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+
+                    try {
+                        return fetchNpmDependencies(buildId);
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
+
+            RuntimeException failure = null;
+
+            for (Map.Entry<String, Future<List<Artifact>>> entry : futures.entrySet()) {
+                try {
+                    buildsWithNpmDependencies.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException re ? re
+                                : new ApplicationException(
+                                        "Fetching NPM dependencies of build '{}' failed",
+                                        entry.getKey(),
+                                        e.getCause());
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while fetching NPM dependencies", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Artifact> fetchNpmDependencies(String buildId) {
+        Collection<Artifact> npmDependencies = pncService.getNPMDependencies(buildId);
+        return npmDependencies != null ? new ArrayList<>(npmDependencies) : new ArrayList<>();
+    }
+
+    /**
+     * Builds without any NPM dependencies are not processed further, so that no empty dependency entries are added for
+     * the components built by these.
+     */
+    private void removeBuildsWithoutNpmDependencies() {
+        Iterator<Map.Entry<String, List<Artifact>>> it = buildsWithNpmDependencies.entrySet().iterator();
+
+        while (it.hasNext()) {
+            Map.Entry<String, List<Artifact>> entry = it.next();
+
+            if (entry.getValue().isEmpty()) {
+                it.remove();
+                componentsToAddNpmDependencies.remove(entry.getKey());
+            }
+        }
+    }
+
     private void filterOutAlreadyPresentDependencies(Bom bom) {
         if (bom.getComponents() == null) {
             return;
@@ -20,22 +20,37 @@ package org.jboss.sbomer.cli.feature.sbom.service;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.MultiValuedMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.pnc.build.finder.core.BuildConfig;
@@ -55,6 +70,7 @@ import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.utils.buildfinder.FinderStatus;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.utils.LookupCache;
 
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.json.BuildExtraInfo;
@@ -62,6 +78,7 @@ import com.redhat.red.build.koji.model.json.RemoteSourcesExtraInfo;
 import com.redhat.red.build.koji.model.json.TypeInfoExtraInfo;
 import com.redhat.red.build.koji.model.json.util.KojiObjectMapper;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildState;
 import com.redhat.red.build.koji.model.xmlrpc.KojiIdOrName;
 import com.redhat.red.build.koji.model.xmlrpc.KojiRpmInfo;
 
@@ -79,17 +96,19 @@ import lombok.extern.slf4j.Slf4j;
 @ApplicationScoped
 public class KojiService {
 
-    private static final Long MAX_BREW_WAIT_5_MIN = 5 * 60 * 1000L;
     private static final KojiObjectMapper MAPPER = new KojiObjectMapper();
+    private static final int DEFAULT_MULTICALL_SIZE = 50;
     public static final String REMOTE_SOURCE_PREFIX = "remote-source";
     public static final String REMOTE_SOURCE_DELIMITER = "-";
     public static final String SOURCES_FILE_ARCHIVE_SUFFIX = ".tar.gz";
     public static final String SOURCES_FILE_METADATA_SUFFIX = ".json";
 
     @Inject
+    @Setter
     ManagedExecutor executor;
 
     @Getter
+    @Setter
     @Inject
     BuildConfig config;
 
@@ -102,6 +121,17 @@ public class KojiService {
     @Setter
     KojiDownloadClient kojiDownloadClient;
 
+    @Inject
+    @Setter
+    LookupCache lookupCache;
+
+    /**
+     * Maximum time to wait for the analysis of archives.
+     */
+    @ConfigProperty(name = "sbomer.koji.analysis-timeout", defaultValue = "PT5M")
+    @Setter
+    Duration analysisTimeout = Duration.ofMinutes(5);
+
     /**
      * Executes analysis of the provided archives identified by URLs, which must be downloadable using HTTP(S). The
      * operation is executed synchronously, but the analysis itself runs several executors in parallel.
@@ -111,26 +141,113 @@ public class KojiService {
      * @param buildFinderListener A listener for events from Buildfinder
      *
      * @return Results of the analysis if the whole operation was successful.
-     * @throws Throwable Thrown in case of any errors during the analysis
+     * @throws Throwable Thrown in case of any errors during the analysis, including the analysis not finishing within
+     *         the {@link #analysisTimeout}
      */
     public List<KojiBuild> find(
             String url,
             DistributionAnalyzerListener distributionAnalyzerListener,
             BuildFinderListener buildFinderListener) throws Throwable {
 
-        Future<List<KojiBuild>> finderTask = executor.submit(() -> {
-            try {
-                return find(URI.create(url).normalize().toURL(), distributionAnalyzerListener, buildFinderListener);
-            } catch (KojiClientException | MalformedURLException e) {
-                throw new ExecutionException(e);
+        Future<List<KojiBuild>> finderTask = submit(url, distributionAnalyzerListener, buildFinderListener);
+
+        return awaitResults(url, finderTask, System.nanoTime() + analysisTimeout.toNanos());
+    }
+
+    /**
+     * <p>
+     * Executes analysis of all provided archives identified by URLs concurrently. All analyses share the Koji client
+     * session and must finish within the {@link #analysisTimeout} (counted from the start of all analyses), so the
+     * whole operation takes as long as the longest analysis, instead of the sum of all of these.
+     * </p>
+     *
+     * <p>
+     * Results are collected in the order in which the analyses finish. As soon as any of the analyses fails (or the
+     * timeout is reached), all other analyses are cancelled.
+     * </p>
+     *
+     * @param urls The URLs to retrieve
+     *
+     * @return Results of the analyses, for every URL (in the order as provided) the list of builds built in Brew
+     * @throws Throwable Thrown in case of any errors during the analysis
+     */
+    public Map<String, List<KojiBuild>> find(Collection<String> urls) throws Throwable {
+        long deadline = System.nanoTime() + analysisTimeout.toNanos();
+        CompletionService<List<KojiBuild>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<KojiBuild>>, String> finderTasks = new HashMap<>();
+        Map<String, List<KojiBuild>> results = new LinkedHashMap<>();
+
+        for (String url : urls) {
+            if (!results.containsKey(url)) {
+                FinderStatus status = new FinderStatus();
+                results.put(url, null);
+                finderTasks.put(completionService.submit(analysis(url, status, status)), url);
             }
-        });
+        }
 
         try {
-            return awaitResults(finderTask);
-        } catch (InterruptedException | ExecutionException e) { // NOSONAR We are rethrowing it.
-            log.debug("Analysis failed due to {}", e.getMessage(), e);
+            for (int finished = 0; finished < finderTasks.size(); finished++) {
+                Future<List<KojiBuild>> finderTask = completionService
+                        .poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (finderTask == null) {
+                    throw new ApplicationException(
+                            "Analysis of {} out of {} archives did not finish within {}, cancelled these",
+                            finderTasks.size() - finished,
+                            finderTasks.size(),
+                            analysisTimeout);
+                }
+
+                String url = finderTasks.get(finderTask);
+                results.put(url, awaitResults(url, finderTask, deadline));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while waiting for the analysis of {} archives", urls.size(), e);
+        } finally {
+            // Any failure means that the results would be incomplete, do not waste resources on remaining analyses
+            finderTasks.keySet().forEach(task -> task.cancel(true));
+        }
+
+        return results;
+    }
+
+    private Future<List<KojiBuild>> submit(
+            String url,
+            DistributionAnalyzerListener distributionAnalyzerListener,
+            BuildFinderListener buildFinderListener) {
+        return executor.submit(analysis(url, distributionAnalyzerListener, buildFinderListener));
+    }
+
+    private Callable<List<KojiBuild>> analysis(
+            String url,
+            DistributionAnalyzerListener distributionAnalyzerListener,
+            BuildFinderListener buildFinderListener) {
+        return () -> find(URI.create(url).normalize().toURL(), distributionAnalyzerListener, buildFinderListener);
+    }
+
+    /**
+     * Waits for the results of the analysis until the deadline. If the analysis does not finish in time or the waiting
+     * thread is interrupted, the analysis is cancelled.
+     */
+    private List<KojiBuild> awaitResults(String url, Future<List<KojiBuild>> finderTask, long deadline)
+            throws Throwable {
+        try {
+            return finderTask.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) { // NOSONAR We are rethrowing the cause.
+            log.debug("Analysis of '{}' failed due to {}", url, e.getMessage(), e);
             throw e.getCause();
+        } catch (TimeoutException e) {
+            finderTask.cancel(true);
+            throw new ApplicationException(
+                    "Analysis of '{}' did not finish within {}, cancelled it",
+                    url,
+                    analysisTimeout,
+                    e);
+        } catch (InterruptedException e) {
+            finderTask.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while waiting for the analysis of '{}'", url, e);
         }
     }
 
@@ -142,7 +259,7 @@ public class KojiService {
      * @return the list of only the builds built in Brew
      * @throws KojiClientException Thrown in case of exceptions with Koji communication
      */
-    private List<KojiBuild> find(
+    protected List<KojiBuild> find(
             URL url,
             DistributionAnalyzerListener distributionAnalyzerListener,
             BuildFinderListener buildFinderListener) throws KojiClientException {
@@ -181,26 +298,6 @@ public class KojiService {
         return brewBuilds;
     }
 
-    private List<KojiBuild> awaitResults(Future<List<KojiBuild>> finderTask)
-            throws InterruptedException, ExecutionException {
-
-        int retry = 1;
-        while (!finderTask.isDone() && (retry * 500L) < MAX_BREW_WAIT_5_MIN) {
-            try {
-                retry++;
-                // FIXME: Call to 'Thread.sleep()' in a loop, probably busy-waiting
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                log.warn("Sleeping while awaiting results was interrupted", e);
-                Thread.currentThread().interrupt();
-            }
-        }
-        if (finderTask.isDone()) {
-            return finderTask.get();
-        }
-        return Collections.emptyList();
-    }
-
     public KojiBuild findBuild(Artifact artifact) {
 
         if (artifact.getPublicUrl() == null) {
@@ -231,11 +328,27 @@ public class KojiService {
         return null;
     }
 
+    /**
+     * Builds which are not being built anymore cannot change, so these are cached without expiration.
+     */
+    private LookupCache.Region<KojiBuildInfo> buildCache() {
+        LookupCache cache = lookupCache != null ? lookupCache : LookupCache.disabled();
+        return cache.region(
+                "koji-builds",
+                KojiBuildInfo.class,
+                MAPPER,
+                b -> b.getBuildState() != null && b.getBuildState() != KojiBuildState.BUILDING);
+    }
+
     public KojiBuildInfo findBuildByRPM(String nvra) throws KojiClientException {
         if (nvra == null) {
             return null;
         }
 
+        return buildCache().get("rpm:" + nvra, () -> fetchBuildByRPM(nvra));
+    }
+
+    private KojiBuildInfo fetchBuildByRPM(String nvra) throws KojiClientException {
         log.debug("Finding Brew build for RPM '{}'...", nvra);
 
         List<KojiRpmInfo> rpm = kojiSession.getRPM(List.of(new KojiIdOrName(nvra)));
@@ -271,7 +384,259 @@ public class KojiService {
         return buildInfo;
     }
 
+    /**
+     * <p>
+     * Finds Brew builds of many RPMs at once. Instead of two XML-RPC calls for every RPM, RPMs and their builds are
+     * retrieved using Koji multicalls, in batches of the configured multicall size.
+     * </p>
+     *
+     * @param nvras the RPM identifiers ({@code name-version-release.arch})
+     * @return a map containing every looked up RPM identifier, with the build or {@code null} as the value, if the
+     *         build could not be found
+     * @throws KojiClientException Thrown in case of exceptions with Koji communication
+     */
+    public Map<String, KojiBuildInfo> findBuildsByRPMs(Collection<String> nvras) throws KojiClientException {
+        LookupCache.Region<KojiBuildInfo> cache = buildCache();
+        Map<String, KojiBuildInfo> results = new HashMap<>();
+        List<String> toFind = new ArrayList<>();
+
+        for (String nvra : new LinkedHashSet<>(nvras)) {
+            LookupCache.Entry<KojiBuildInfo> cached = cache.find("rpm:" + nvra);
+
+            if (cached != null) {
+                results.put(nvra, cached.value());
+            } else {
+                toFind.add(nvra);
+            }
+        }
+
+        if (toFind.isEmpty()) {
+            return results;
+        }
+
+        log.debug("Finding Brew builds for {} RPMs using multicalls...", toFind.size());
+
+        Map<String, Integer> buildIds = new HashMap<>();
+
+        for (List<String> batch : batches(toFind)) {
+            List<KojiRpmInfo> rpms = kojiSession.getRPM(batch.stream().map(KojiIdOrName::new).toList());
+
+            if (rpms.size() != batch.size()) {
+                log.warn("Expected {} RPMs from a multicall, got {}, ignoring the results", batch.size(), rpms.size());
+                continue;
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                KojiRpmInfo rpmInfo = rpms.get(i);
+                buildIds.put(batch.get(i), rpmInfo != null ? rpmInfo.getBuildId() : null);
+            }
+        }
+
+        List<Integer> distinctBuildIds = buildIds.values().stream().filter(Objects::nonNull).distinct().toList();
+        Map<Integer, KojiBuildInfo> builds = new HashMap<>();
+
+        for (List<Integer> batch : batches(distinctBuildIds)) {
+            List<KojiBuildInfo> buildInfos = kojiSession.getBuild(batch.stream().map(KojiIdOrName::new).toList());
+
+            for (KojiBuildInfo buildInfo : buildInfos) {
+                if (buildInfo != null) {
+                    builds.put(buildInfo.getId(), buildInfo);
+                }
+            }
+        }
+
+        buildIds.forEach((nvra, buildId) -> {
+            KojiBuildInfo buildInfo = buildId != null ? builds.get(buildId) : null;
+            results.put(nvra, buildInfo);
+            cache.put("rpm:" + nvra, buildInfo);
+        });
+
+        log.debug(
+                "Found {} Brew builds for {} RPMs",
+                results.values().stream().filter(Objects::nonNull).count(),
+                results.size());
+
+        return results;
+    }
+
+    /**
+     * Finds Brew builds of many NVRs at once, using Koji multicalls in batches of the configured multicall size.
+     *
+     * @param nvrs the build identifiers ({@code name-version-release})
+     * @return a map containing every looked up NVR, with the build or {@code null} as the value, if the build could not
+     *         be found
+     * @throws KojiClientException Thrown in case of exceptions with Koji communication
+     */
+    public Map<String, KojiBuildInfo> findBuilds(Collection<String> nvrs) throws KojiClientException {
+        LookupCache.Region<KojiBuildInfo> cache = buildCache();
+        Map<String, KojiBuildInfo> results = new HashMap<>();
+        List<String> toFind = new ArrayList<>();
+
+        for (String nvr : new LinkedHashSet<>(nvrs)) {
+            LookupCache.Entry<KojiBuildInfo> cached = cache.find("nvr:" + nvr);
+
+            if (cached != null) {
+                results.put(nvr, cached.value());
+            } else {
+                toFind.add(nvr);
+            }
+        }
+
+        for (List<String> batch : batches(toFind)) {
+            List<KojiBuildInfo> buildInfos = kojiSession.getBuild(batch.stream().map(KojiIdOrName::getFor).toList());
+
+            if (buildInfos.size() != batch.size()) {
+                log.warn(
+                        "Expected {} builds from a multicall, got {}, ignoring the results",
+                        batch.size(),
+                        buildInfos.size());
+                continue;
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                results.put(batch.get(i), buildInfos.get(i));
+                cache.put("nvr:" + batch.get(i), buildInfos.get(i));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * <p>
+     * Finds Brew builds by their ids, using Koji multicalls in batches of the configured multicall size. The batches
+     * are retrieved concurrently.
+     * </p>
+     *
+     * @param ids the build ids
+     * @return a map containing every looked up id, with the build or {@code null} as the value, if the build could not
+     *         be found
+     * @throws KojiClientException Thrown in case of exceptions with Koji communication
+     */
+    public Map<Integer, KojiBuildInfo> findBuildsByIds(Collection<Integer> ids) throws KojiClientException {
+        CompletableFuture<Map<Integer, KojiBuildInfo>> future = findBuildsByIdsAsync(ids);
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new KojiClientException("Interrupted while retrieving Brew builds", e);
+        }
+    }
+
+    /**
+     * <p>
+     * Asynchronous variant of {@link #findBuildsByIds(Collection)}, which does not block the calling thread while the
+     * batches are retrieved.
+     * </p>
+     *
+     * <p>
+     * In case of a failure, the returned future completes exceptionally with a {@link KojiClientException}.
+     * </p>
+     *
+     * @param ids the build ids
+     * @return a future of a map containing every looked up id, with the build or {@code null} as the value, if the
+     *         build could not be found
+     */
+    public CompletableFuture<Map<Integer, KojiBuildInfo>> findBuildsByIdsAsync(Collection<Integer> ids) {
+        LookupCache.Region<KojiBuildInfo> cache = buildCache();
+        Map<Integer, KojiBuildInfo> results = new HashMap<>();
+        List<Integer> toFind = new ArrayList<>();
+
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            LookupCache.Entry<KojiBuildInfo> cached = cache.find("id:" + id);
+
+            if (cached != null) {
+                results.put(id, cached.value());
+            } else {
+                toFind.add(id);
+            }
+        }
+
+        List<List<Integer>> batches = batches(toFind);
+
+        if (batches.isEmpty()) {
+            return CompletableFuture.completedFuture(results);
+        }
+
+        log.debug("Retrieving {} Brew builds in {} concurrent multicalls...", toFind.size(), batches.size());
+
+        List<CompletableFuture<List<KojiBuildInfo>>> futures = new ArrayList<>(batches.size());
+
+        for (List<Integer> batch : batches) {
+            futures.add(supplyAsync(() -> fetchBuilds(batch)));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).handle((v, e) -> {
+            if (e != null) {
+                futures.forEach(future -> future.cancel(true));
+                throw new CompletionException(unwrap(e instanceof CompletionException ? e.getCause() : e));
+            }
+
+            for (int b = 0; b < batches.size(); b++) {
+                List<Integer> batch = batches.get(b);
+                List<KojiBuildInfo> buildInfos = futures.get(b).join();
+
+                if (buildInfos.size() != batch.size()) {
+                    log.warn(
+                            "Expected {} builds from a multicall, got {}, ignoring the results",
+                            batch.size(),
+                            buildInfos.size());
+                    continue;
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    results.put(batch.get(i), buildInfos.get(i));
+                    cache.put("id:" + batch.get(i), buildInfos.get(i));
+                }
+            }
+
+            return results;
+        });
+    }
+
+    private List<KojiBuildInfo> fetchBuilds(List<Integer> ids) {
+        try {
+            return kojiSession.getBuild(ids.stream().map(KojiIdOrName::new).toList());
+        } catch (KojiClientException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        // Without an executor (outside of the container) the batches are retrieved one by one
+        Executor batchExecutor = executor != null ? executor : Runnable::run;
+        return CompletableFuture.supplyAsync(supplier, batchExecutor);
+    }
+
+    private static KojiClientException unwrap(Throwable cause) {
+        if (cause instanceof KojiClientException kojiClientException) {
+            return kojiClientException;
+        }
+
+        return new KojiClientException("Could not retrieve Brew builds", cause);
+    }
+
+    private <T> List<List<T>> batches(List<T> values) {
+        int size = config != null && config.getKojiMulticallSize() > 0 ? config.getKojiMulticallSize()
+                : DEFAULT_MULTICALL_SIZE;
+        List<List<T>> batches = new ArrayList<>();
+
+        for (int i = 0; i < values.size(); i += size) {
+            batches.add(values.subList(i, Math.min(i + size, values.size())));
+        }
+
+        return batches;
+    }
+
     public KojiBuildInfo findBuild(int id) throws KojiClientException {
+        return buildCache().get("id:" + id, () -> fetchBuild(id));
+    }
+
+    private KojiBuildInfo fetchBuild(int id) throws KojiClientException {
         log.debug("Retrieving Brew build with id '{}'...", id);
 
         KojiBuildInfo build = kojiSession.getBuild(id);
@@ -289,6 +654,10 @@ public class KojiService {
             return null;
         }
 
+        return buildCache().get("nvr:" + nvr, () -> fetchBuild(nvr));
+    }
+
+    private KojiBuildInfo fetchBuild(String nvr) throws KojiClientException {
         log.debug("Finding Brew build for NVR '{}'...", nvr);
 
         List<KojiBuildInfo> builds = kojiSession.getBuild(List.of(KojiIdOrName.getFor(nvr)));
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.utils.LookupCache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Produces the {@link LookupCache} shared by the PNC and Koji services. Unless enabled, and a directory is provided,
+ * nothing is cached.
+ */
+@ApplicationScoped
+@Slf4j
+public class LookupCacheProducer {
+
+    @ConfigProperty(name = "sbomer.cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "sbomer.cache.path")
+    Optional<Path> path;
+
+    @ConfigProperty(name = "sbomer.cache.ttl", defaultValue = "PT1H")
+    Duration ttl;
+
+    @ConfigProperty(name = "sbomer.cache.negative-ttl", defaultValue = "PT10M")
+    Duration negativeTtl;
+
+    @Produces
+    @ApplicationScoped
+    public LookupCache produceLookupCache() {
+        if (!enabled) {
+            log.debug("Lookup cache is disabled");
+            return LookupCache.disabled();
+        }
+
+        if (path.isEmpty()) {
+            log.warn("Lookup cache is enabled, but the 'sbomer.cache.path' is not set, disabling it");
+            return LookupCache.disabled();
+        }
+
+        log.info(
+                "Using lookup cache in '{}', TTL: {}, negative results TTL: {}",
+                path.get().toAbsolutePath(),
+                ttl,
+                negativeTtl);
+
+        return new LookupCache(path.get(), ttl, negativeTtl);
+    }
+
+    public void close(@Disposes LookupCache lookupCache) {
+        if (lookupCache.isEnabled()) {
+            log.info("Lookup cache hits: {}, misses: {}", lookupCache.getHits(), lookupCache.getMisses());
+        }
+    }
+}
@@ -19,10 +19,12 @@ package org.jboss.sbomer.cli.feature.sbom.service;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.jboss.sbomer.core.utils.LookupCache;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,11 +36,14 @@ public class PncServiceProducer {
     @ConfigProperty(name = "sbomer.pnc.host")
     String apiUrl;
 
+    @Inject
+    LookupCache lookupCache;
+
     @Produces
     @ApplicationScoped
     public PncService producePncService() {
         log.debug("Creating new PNC service bean...");
-        return new PncService(apiUrl);
+        return new PncService(apiUrl, lookupCache);
     }
 
     public void close(@Disposes PncService pncService) {
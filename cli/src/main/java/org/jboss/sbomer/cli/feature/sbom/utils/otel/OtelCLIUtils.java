@@ -18,12 +18,18 @@
 package org.jboss.sbomer.cli.feature.sbom.utils.otel;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.jboss.pnc.common.otel.OtelUtils;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -36,6 +42,11 @@ public class OtelCLIUtils {
     public static final String SBOMER_SERVICE_NAME = "sbomer";
     public static final String SBOMER_CLI_NAME = "sbomer-cli";
 
+    /**
+     * Set while a long-running command, which runs other commands in the same JVM, owns the OpenTelemetry lifecycle.
+     */
+    private static volatile boolean owned = false;
+
     public static Map<String, String> getOtelContextFromEnvVariables() {
         String traceId = System.getenv(OTEL_TRACE_ID_ENV_VARIABLE);
         String spanId = System.getenv(OTEL_SPAN_ID_ENV_VARIABLE);
@@ -62,9 +73,15 @@ public class OtelCLIUtils {
     }
 
     /**
-     * Start Otel exporters. The {@link OtelHelper} class will be used for this purpose.
+     * Start Otel exporters. The {@link OtelHelper} class will be used for this purpose. Does nothing if the
+     * OpenTelemetry lifecycle is owned by a long-running command, see {@link #startOwnedOtel(String, String, Map)}.
      */
     public static void startOtel(String serviceName, String commandName, Map<String, String> attributes) {
+        if (owned) {
+            log.debug("OpenTelemetry is owned by the running command, not starting it for {}", commandName);
+            return;
+        }
+
         String endpoint = System.getenv(OTEL_EXPORTER_OTLP_ENDPOINT_ENV_VARIABLE);
 
         if (endpoint != null) {
@@ -84,10 +101,81 @@ public class OtelCLIUtils {
     }
 
     /**
-     * Stop Otel exporters. The {@link OtelHelper} class will be used for this purpose.
+     * Stop Otel exporters. The {@link OtelHelper} class will be used for this purpose. Does nothing if the
+     * OpenTelemetry lifecycle is owned by a long-running command, see {@link #stopOwnedOtel()}.
      */
     public static void stopOTel() {
+        if (owned) {
+            return;
+        }
+
         OtelHelper.stopOTel();
     }
 
+    /**
+     * <p>
+     * Starts Otel exporters for a long-running command, which runs many other commands in the same JVM (for example
+     * the worker).
+     * </p>
+     *
+     * <p>
+     * The OpenTelemetry SDK is global and can be registered only once per JVM, so until {@link #stopOwnedOtel()} is
+     * called, the {@link #startOtel(String, String, Map)} and {@link #stopOTel()} calls of the commands do nothing.
+     * Instead, the long-running command should run every command within its own span, see
+     * {@link #withSpan(Context, String, Map, Supplier)}.
+     * </p>
+     */
+    public static synchronized void startOwnedOtel(
+            String serviceName,
+            String commandName,
+            Map<String, String> attributes) {
+        startOtel(serviceName, commandName, attributes);
+        owned = true;
+    }
+
+    /**
+     * Stops Otel exporters started with {@link #startOwnedOtel(String, String, Map)}.
+     */
+    public static synchronized void stopOwnedOtel() {
+        owned = false;
+        OtelHelper.stopOTel();
+    }
+
+    /**
+     * Runs the action within a new span, which is a child of the given context. If OpenTelemetry is not enabled, the
+     * action is just run.
+     *
+     * @param parent the parent context, for example the one of the root span of a long-running command
+     * @param spanName the name of the span
+     * @param attributes the attributes of the span
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public static <T> T withSpan(
+            Context parent,
+            String spanName,
+            Map<String, String> attributes,
+            Supplier<T> action) {
+        if (!OtelHelper.otelEnabled()) {
+            return action.get();
+        }
+
+        SpanBuilder spanBuilder = GlobalOpenTelemetry.getTracer(SBOMER_CLI_NAME)
+                .spanBuilder(spanName)
+                .setParent(parent);
+        attributes.forEach(spanBuilder::setAttribute);
+
+        Span span = spanBuilder.startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            return action.get();
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
 }
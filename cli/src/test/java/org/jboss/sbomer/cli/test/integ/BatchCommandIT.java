@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.integ;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.MatcherAssert;
+import org.jboss.sbomer.cli.feature.sbom.command.batch.BatchCommand;
+import org.jboss.sbomer.cli.test.integ.DefaultProcessCommandIT.CustomPncServiceProfile;
+import org.jboss.sbomer.cli.test.utils.PncWireMock;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.junit.main.LaunchResult;
+import io.quarkus.test.junit.main.QuarkusMainLauncher;
+import io.quarkus.test.junit.main.QuarkusMainTest;
+
+@QuarkusMainTest
+@WithTestResource(PncWireMock.class)
+@TestProfile(CustomPncServiceProfile.class)
+class BatchCommandIT {
+
+    @Test
+    @DisplayName("Should run all targets and write the report")
+    void shouldRunAllTargets(QuarkusMainLauncher launcher, @TempDir Path outputDir) throws IOException {
+        Path targetsFile = outputDir.resolve("targets.txt");
+        Files.writeString(targetsFile, "# Targets\n--help\n\ndoesnotexist\n--help\n");
+
+        LaunchResult result = launcher.launch(
+                "sbom",
+                "batch",
+                "--targets-file",
+                targetsFile.toString(),
+                "--output-dir",
+                outputDir.toString(),
+                "--parallelism",
+                "2",
+                "--",
+                "sbom",
+                BatchCommand.TARGET_PLACEHOLDER);
+
+        // One of the targets failed
+        assertEquals(1, result.exitCode());
+
+        JsonNode report = ObjectMapperProvider.json().readTree(outputDir.resolve(BatchCommand.REPORT_FILE).toFile());
+
+        assertEquals(2, report.get("targets").asInt());
+        assertEquals(1, report.get("succeeded").asInt());
+        assertEquals(1, report.get("failed").asInt());
+        assertEquals("--help", report.get("results").get(0).get("target").asText());
+        assertEquals(0, report.get("results").get(0).get("exitCode").asInt());
+        assertEquals("doesnotexist", report.get("results").get(1).get("target").asText());
+        assertEquals(2, report.get("results").get(1).get("exitCode").asInt());
+        assertTrue(Files.isDirectory(outputDir.resolve("doesnotexist")));
+    }
+
+    @Test
+    @DisplayName("Should process manifests concurrently")
+    void shouldProcessManifestsConcurrently(QuarkusMainLauncher launcher, @TempDir Path outputDir)
+            throws IOException {
+        Path first = outputDir.resolve("first.json");
+        Path second = outputDir.resolve("second.json");
+
+        try (InputStream plain = Objects
+                .requireNonNull(getClass().getClassLoader().getResourceAsStream("boms/plain.json"))) {
+            Files.copy(plain, first);
+        }
+
+        Files.copy(first, second);
+
+        LaunchResult result = launcher.launch(
+                "sbom",
+                "batch",
+                "--target",
+                first.toString(),
+                "--target",
+                second.toString(),
+                "--output-dir",
+                outputDir.resolve("batch").toString(),
+                "-j",
+                "2",
+                "--",
+                "sbom",
+                "process",
+                "--path",
+                BatchCommand.TARGET_PLACEHOLDER,
+                "default");
+
+        assertEquals(0, result.exitCode());
+
+        // Both manifests were enriched with the PNC artifact
+        for (Path manifest : new Path[] { first, second }) {
+            MatcherAssert
+                    .assertThat(Files.readString(manifest), CoreMatchers.containsString("/pnc-rest/v2/artifacts/123"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should create a separate directory for targets with the same safe name")
+    void shouldCreateSeparateDirectories(QuarkusMainLauncher launcher, @TempDir Path outputDir) throws IOException {
+        LaunchResult result = launcher.launch(
+                "sbom",
+                "batch",
+                "--target",
+                "a/b",
+                "--target",
+                "a:b",
+                "--output-dir",
+                outputDir.toString(),
+                "--",
+                "sbom",
+                "--help");
+
+        assertEquals(0, result.exitCode());
+
+        JsonNode report = ObjectMapperProvider.json().readTree(outputDir.resolve(BatchCommand.REPORT_FILE).toFile());
+        String firstDirectory = report.get("results").get(0).get("directory").asText();
+        String secondDirectory = report.get("results").get(1).get("directory").asText();
+
+        assertEquals(outputDir.resolve("a_b").toAbsolutePath().toString(), firstDirectory);
+        assertNotEquals(firstDirectory, secondDirectory);
+        assertTrue(Files.isDirectory(Path.of(firstDirectory)));
+        assertTrue(Files.isDirectory(Path.of(secondDirectory)));
+    }
+
+    @Test
+    @DisplayName("Should fail without targets")
+    void shouldFailWithoutTargets(QuarkusMainLauncher launcher, @TempDir Path outputDir) {
+        LaunchResult result = launcher.launch("sbom", "batch", "--output-dir", outputDir.toString(), "--", "sbom");
+
+        assertTrue(result.exitCode() != 0);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.integ;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.cli.feature.sbom.command.worker.WorkerCommand;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.test.junit.main.LaunchResult;
+import io.quarkus.test.junit.main.QuarkusMainLauncher;
+import io.quarkus.test.junit.main.QuarkusMainTest;
+
+@QuarkusMainTest
+class WorkerCommandIT {
+
+    private static void addJob(Path spoolDir, String name, String... args) throws IOException {
+        Path incoming = spoolDir.resolve(WorkerCommand.INCOMING_DIR);
+        Files.createDirectories(incoming);
+        ObjectMapperProvider.json()
+                .writeValue(incoming.resolve(name + ".json").toFile(), new WorkerCommand.Job(List.of(args)));
+    }
+
+    private static Path addProcessingJob(Path spoolDir, String name) throws IOException {
+        Path processing = spoolDir.resolve(WorkerCommand.PROCESSING_DIR);
+        Files.createDirectories(processing);
+        Path job = processing.resolve(name + ".json");
+        ObjectMapperProvider.json().writeValue(job.toFile(), new WorkerCommand.Job(List.of("sbom", "--help")));
+        return job;
+    }
+
+    private static int exitCode(Path dir, String name) throws IOException {
+        JsonNode result = ObjectMapperProvider.json()
+                .readTree(dir.resolve(name + WorkerCommand.RESULT_SUFFIX).toFile());
+        return result.get("exitCode").asInt();
+    }
+
+    @Test
+    @DisplayName("Should process all jobs from the spool directory and stop")
+    void shouldProcessJobs(QuarkusMainLauncher launcher, @TempDir Path spoolDir) throws IOException {
+        addJob(spoolDir, "01-help", "sbom", "--help");
+        addJob(spoolDir, "02-unknown", "sbom", "doesnotexist");
+        addJob(spoolDir, "03-worker", "sbom", "worker", "--spool-dir", spoolDir.toString());
+
+        LaunchResult result = launcher.launch("sbom", "worker", "--spool-dir", spoolDir.toString(), "--max-jobs", "3");
+
+        assertEquals(0, result.exitCode());
+
+        Path done = spoolDir.resolve(WorkerCommand.DONE_DIR);
+        Path failed = spoolDir.resolve(WorkerCommand.FAILED_DIR);
+
+        assertTrue(Files.exists(done.resolve("01-help.json")));
+        assertEquals(0, exitCode(done, "01-help"));
+        assertEquals(2, exitCode(failed, "02-unknown"));
+        assertEquals(1, exitCode(failed, "03-worker"));
+
+        try (Stream<Path> files = Files.list(spoolDir.resolve(WorkerCommand.INCOMING_DIR))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop when idle")
+    void shouldStopWhenIdle(QuarkusMainLauncher launcher, @TempDir Path spoolDir) {
+        LaunchResult result = launcher.launch(
+                "sbom",
+                "worker",
+                "--spool-dir",
+                spoolDir.toString(),
+                "--poll-interval",
+                "PT0.1S",
+                "--idle-timeout",
+                "PT0.5S");
+
+        assertEquals(0, result.exitCode());
+    }
+
+    @Test
+    @DisplayName("Should fail jobs abandoned by stopped workers")
+    void shouldFailAbandonedJobs(QuarkusMainLauncher launcher, @TempDir Path spoolDir) throws IOException {
+        addProcessingJob(spoolDir, "01-abandoned");
+        Path owned = addProcessingJob(spoolDir, "02-owned");
+
+        LaunchResult result;
+
+        // Simulate a live worker processing the job
+        try (FileChannel lock = FileChannel.open(
+                owned.resolveSibling("02-owned.json.lock"),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            lock.lock();
+
+            result = launcher.launch(
+                    "sbom",
+                    "worker",
+                    "--spool-dir",
+                    spoolDir.toString(),
+                    "--poll-interval",
+                    "PT0.1S",
+                    "--idle-timeout",
+                    "PT0.5S");
+        }
+
+        assertEquals(0, result.exitCode());
+
+        Path failed = spoolDir.resolve(WorkerCommand.FAILED_DIR);
+
+        assertTrue(Files.exists(failed.resolve("01-abandoned.json")));
+        assertEquals(1, exitCode(failed, "01-abandoned"));
+        assertFalse(Files.exists(spoolDir.resolve(WorkerCommand.PROCESSING_DIR).resolve("01-abandoned.json.lock")));
+        assertTrue(Files.exists(owned));
+    }
+}
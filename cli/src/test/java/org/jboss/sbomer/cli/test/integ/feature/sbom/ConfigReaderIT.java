@@ -26,7 +26,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Optional;
 
@@ -40,9 +42,11 @@ import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
+import org.jboss.sbomer.core.utils.LookupCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -51,6 +55,7 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
 
 @QuarkusTest
 class ConfigReaderIT {
@@ -62,6 +67,17 @@ class ConfigReaderIT {
         return Files.readString(Paths.get("src", "test", "resources", "sbomer-configs", fileName)).getBytes();
     }
 
+    private void withCache(Path cacheDir, Runnable runnable) {
+        LookupCache originalCache = configReader.getLookupCache();
+        configReader.setLookupCache(new LookupCache(cacheDir, Duration.ofHours(1), Duration.ofMinutes(5)));
+
+        try {
+            runnable.run();
+        } finally {
+            configReader.setLookupCache(originalCache);
+        }
+    }
+
     @Nested
     class Gerrit {
 
@@ -282,6 +298,70 @@ class ConfigReaderIT {
             assertEquals("0.0.88", productConfig.getGenerator().getVersion());
         }
 
+        @Test
+        void testConfigCached(@TempDir Path cacheDir) throws IOException {
+            Mockito.when(
+                    gitLabClient.fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml"))
+                    .thenReturn(new String(getTestConfigAsBytes("multi-product.yaml")));
+
+            withCache(cacheDir, () -> {
+                assertNotNull(configReader.getConfig(build));
+                // Another build of the same tag
+                assertNotNull(configReader.getConfig(build));
+            });
+
+            Mockito.verify(gitLabClient, Mockito.times(1))
+                    .fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml");
+        }
+
+        @Test
+        void testMissingConfigCached(@TempDir Path cacheDir) {
+            Mockito.when(
+                    gitLabClient.fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml"))
+                    .thenThrow(NotFoundException.class);
+
+            withCache(cacheDir, () -> {
+                assertNull(configReader.getConfig(build));
+                assertNull(configReader.getConfig(build));
+            });
+
+            Mockito.verify(gitLabClient, Mockito.times(1))
+                    .fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml");
+        }
+
+        @Test
+        void testFailureNotCached(@TempDir Path cacheDir) {
+            Mockito.when(
+                    gitLabClient.fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml"))
+                    .thenThrow(new WebApplicationException(503));
+
+            withCache(cacheDir, () -> {
+                assertNull(configReader.getConfig(build));
+                assertNull(configReader.getConfig(build));
+            });
+
+            Mockito.verify(gitLabClient, Mockito.times(2))
+                    .fetchFile(
+                            "pnc-workspace/eclipse/microprofile-graphql",
+                            "1.1.0.redhat-00008",
+                            ".sbomer/config.yaml");
+        }
+
         @Test
         void testMoreGitLabUrls() throws IOException {
 
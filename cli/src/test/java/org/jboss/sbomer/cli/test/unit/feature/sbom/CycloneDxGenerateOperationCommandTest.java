@@ -0,0 +1,261 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom;
+
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_BREW_BUILD_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.jboss.pnc.build.finder.core.BuildConfig;
+import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
+import org.jboss.pnc.dto.response.AnalyzedArtifact;
+import org.jboss.sbomer.cli.feature.sbom.client.facade.SBOMerClientFacade;
+import org.jboss.sbomer.cli.feature.sbom.command.CycloneDxGenerateOperationCommand;
+import org.jboss.sbomer.cli.feature.sbom.command.GenerateOperationCommand;
+import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.PncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.red.build.koji.KojiClientException;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+
+import picocli.CommandLine;
+
+class CycloneDxGenerateOperationCommandTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperProvider.json();
+
+    private static final String OPERATION_ID = "OPERATION1";
+
+    private static final String KOJI_WEB_URL = "https://koji.web";
+
+    /**
+     * Exposes the generation with the services injected by the container replaced.
+     */
+    static class TestCommand extends CycloneDxGenerateOperationCommand {
+        TestCommand(PncService pncService, KojiService kojiService, SBOMerClientFacade sbomerClientFacade) {
+            this.pncService = pncService;
+            this.kojiService = kojiService;
+            this.sbomerClientFacade = sbomerClientFacade;
+        }
+
+        Path generate() {
+            return doGenerate();
+        }
+    }
+
+    private final PncService pncServiceMock = Mockito.mock(PncService.class);
+
+    private final KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+    private final KojiBuildInfo fooBuild = new KojiBuildInfo(10, 100, "foo", "1.0.0", "1");
+
+    private final KojiBuildInfo barBuild = new KojiBuildInfo(20, 200, "bar", "1.0.0", "1");
+
+    @TempDir
+    Path workdir;
+
+    private static AnalyzedArtifact brewArtifact(String name, int brewId) throws IOException {
+        String filename = name + "-1.0.0.redhat-00001.jar";
+
+        return OBJECT_MAPPER.readValue(
+                String.format(
+                        """
+                                {
+                                  "brewId": %d,
+                                  "artifact": {
+                                    "id": "%s",
+                                    "purl": "pkg:maven/org.example/%s@1.0.0.redhat-00001?type=jar",
+                                    "filename": "%s",
+                                    "md5": "md5-%s",
+                                    "sha1": "sha1-%s",
+                                    "sha256": "sha256-%s"
+                                  },
+                                  "archiveFilenames": ["product.zip!/lib/%s"]
+                                }
+                                """,
+                        brewId,
+                        name,
+                        name,
+                        filename,
+                        name,
+                        name,
+                        name,
+                        filename),
+                AnalyzedArtifact.class);
+    }
+
+    private static String brewBuildUrl(Bom bom, String name) {
+        Component component = bom.getComponents()
+                .stream()
+                .filter(c -> c.getName().startsWith(name + "-"))
+                .findFirst()
+                .orElseThrow();
+
+        return SbomUtils.getExternalReferences(component, ExternalReference.Type.BUILD_SYSTEM)
+                .stream()
+                .filter(ref -> SBOM_RED_HAT_BREW_BUILD_ID.equals(ref.getComment()))
+                .map(ExternalReference::getUrl)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @BeforeEach
+    void init() throws IOException {
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL(KOJI_WEB_URL));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(pncServiceMock.getApiUrl()).thenReturn("pnc.example.com");
+        when(pncServiceMock.getDeliverableAnalyzerOperation(OPERATION_ID)).thenReturn(
+                OBJECT_MAPPER.readValue("{\"id\": \"" + OPERATION_ID + "\"}", DeliverableAnalyzerOperation.class));
+        // The "baz" artifact is a part of the same Brew build as "foo"
+        when(pncServiceMock.getAllAnalyzedArtifacts(OPERATION_ID)).thenReturn(
+                List.of(brewArtifact("foo", 10), brewArtifact("bar", 20), brewArtifact("baz", 10)));
+    }
+
+    private Bom generate() throws IOException {
+        Path configPath = workdir.resolve("config.json");
+        OBJECT_MAPPER.writeValue(
+                configPath.toFile(),
+                OperationConfig.builder()
+                        .withOperationId(OPERATION_ID)
+                        .withDeliverableUrls(List.of("https://download.example.com/product.zip"))
+                        .build());
+
+        SBOMerClientFacade sbomerClientFacadeMock = Mockito.mock(SBOMerClientFacade.class);
+        when(sbomerClientFacadeMock.getSbomerVersion()).thenReturn("1.0.0");
+
+        TestCommand command = new TestCommand(pncServiceMock, kojiServiceMock, sbomerClientFacadeMock);
+
+        // Let picocli inject the parent command with the options
+        new CommandLine(GenerateOperationCommand.class, new CommandLine.IFactory() {
+            @Override
+            public <K> K create(Class<K> cls) throws Exception {
+                return cls == CycloneDxGenerateOperationCommand.class ? cls.cast(command)
+                        : CommandLine.defaultFactory().create(cls);
+            }
+        }).parseArgs(
+                "--operation-id",
+                OPERATION_ID,
+                "cyclonedx-operation",
+                "--config",
+                configPath.toString(),
+                "--index",
+                "0",
+                "--workdir",
+                workdir.toString());
+
+        Path bomPath = command.generate();
+
+        assertEquals(workdir.resolve("0").resolve("bom.json"), bomPath);
+
+        return SbomUtils.fromPath(bomPath);
+    }
+
+    @Test
+    void shouldSetPrefetchedBrewBuilds() throws IOException, KojiClientException {
+        when(kojiServiceMock.findBuildsByIdsAsync(Set.of(10, 20)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(10, fooBuild, 20, barBuild)));
+
+        Bom bom = generate();
+
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "foo"));
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=20", brewBuildUrl(bom, "bar"));
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "baz"));
+
+        // Every distinct build is resolved once, in a single asynchronous call
+        verify(kojiServiceMock, times(1)).findBuildsByIdsAsync(Set.of(10, 20));
+        verify(kojiServiceMock, never()).findBuild(anyInt());
+    }
+
+    @Test
+    void shouldNotRetrieveBuildsNotFoundInBrew() throws IOException, KojiClientException {
+        Map<Integer, KojiBuildInfo> builds = new HashMap<>();
+        builds.put(10, fooBuild);
+        builds.put(20, null);
+
+        when(kojiServiceMock.findBuildsByIdsAsync(Set.of(10, 20)))
+                .thenReturn(CompletableFuture.completedFuture(builds));
+
+        Bom bom = generate();
+
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "foo"));
+        assertNull(brewBuildUrl(bom, "bar"));
+
+        verify(kojiServiceMock, never()).findBuild(anyInt());
+    }
+
+    @Test
+    void shouldRetrieveBuildsMissingInPrefetchedResults() throws IOException, KojiClientException {
+        // The results of a batch could be ignored, the builds of such batch are retrieved one by one
+        when(kojiServiceMock.findBuildsByIdsAsync(Set.of(10, 20)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(10, fooBuild)));
+        when(kojiServiceMock.findBuild(20)).thenReturn(barBuild);
+
+        Bom bom = generate();
+
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "foo"));
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=20", brewBuildUrl(bom, "bar"));
+
+        verify(kojiServiceMock, never()).findBuild(10);
+        verify(kojiServiceMock, times(1)).findBuild(20);
+    }
+
+    @Test
+    void shouldFallBackToSingleBuildsOnFailure() throws IOException, KojiClientException {
+        when(kojiServiceMock.findBuildsByIdsAsync(Set.of(10, 20)))
+                .thenReturn(CompletableFuture.failedFuture(new KojiClientException("Multicall failed")));
+        when(kojiServiceMock.findBuild(10)).thenReturn(fooBuild);
+        when(kojiServiceMock.findBuild(20)).thenReturn(barBuild);
+
+        Bom bom = generate();
+
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "foo"));
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=20", brewBuildUrl(bom, "bar"));
+        assertEquals(KOJI_WEB_URL + "/buildinfo?buildID=10", brewBuildUrl(bom, "baz"));
+
+        // The caching of single builds is up to the service
+        verify(kojiServiceMock, times(2)).findBuild(10);
+        verify(kojiServiceMock, times(1)).findBuild(20);
+    }
+}
@@ -3,12 +3,21 @@ package org.jboss.sbomer.cli.test.unit.feature.sbom;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.cyclonedx.model.Ancestors;
@@ -27,9 +36,11 @@ import org.jboss.pnc.enums.BuildType;
 import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 import org.jboss.sbomer.core.pnc.PncService;
 import org.jboss.sbomer.core.test.TestResources;
 import org.junit.jupiter.api.Test;
@@ -156,6 +167,39 @@ class DefaultProcessorTest {
                 component.getPurl());
     }
 
+    @Test
+    void testUsePrefetchedBrewBuildsForRpms() throws IOException, KojiClientException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuildsByRPMs(any())).thenAnswer(invocation -> {
+            Collection<String> nvras = invocation.getArgument(0);
+            Map<String, KojiBuildInfo> results = new HashMap<>();
+            nvras.forEach(
+                    nvra -> results.put(nvra, nvra.equals("audit-libs-3.0.7-103.el9.x86_64") ? kojiBuildInfo : null));
+            return results;
+        });
+
+        Bom processed = new DefaultProcessor(pncServiceMock, kojiServiceMock)
+                .process(SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json")));
+
+        Component rpmComponent = getComponent(processed, "pkg:rpm/redhat/audit-libs@3.0.7-103.el9?arch=x86_64")
+                .orElseThrow();
+
+        assertEquals(
+                "https://koji.web/buildinfo?buildID=12345",
+                SbomUtils.getExternalReferences(rpmComponent, Type.BUILD_SYSTEM).get(0).getUrl());
+        verify(kojiServiceMock).findBuildsByRPMs(any());
+        verify(kojiServiceMock, never()).findBuildByRPM(any());
+    }
+
     @Test
     void testUpdateComponentAndDependency() throws IOException {
         PncService pncServiceMock = Mockito.mock(PncService.class);
@@ -198,6 +242,104 @@ class DefaultProcessorTest {
         assertEquals(artifact.getPurl(), updatedDependency.getRef());
     }
 
+    @Test
+    void testConcurrentProcessingProducesSameManifest() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        Artifact artifact = Artifact.builder()
+                .purl(
+                        "pkg:generic/gradle-wrapper.jar?checksum=sha256%3Ae996d452d2645e70c01c11143ca2d3742734a28da2bf61f25c82bdc288c9e637")
+                .sha1("23a1590b048918cb655153298462fe64d284cb78")
+                .build();
+
+        when(pncServiceMock.getArtifact(null, Optional.empty(), Optional.of(artifact.getSha1()), Optional.empty()))
+                .thenReturn(artifact);
+
+        Bom sequential = new DefaultProcessor(pncServiceMock, kojiServiceMock)
+                .process(gradleWrapperBom(artifact.getSha1()));
+        Bom concurrent = new DefaultProcessor(pncServiceMock, kojiServiceMock, 4)
+                .process(gradleWrapperBom(artifact.getSha1()));
+
+        assertTrue(getComponent(concurrent, artifact.getPurl()).isPresent());
+        assertTrue(getDependency(artifact.getPurl(), concurrent.getDependencies()).isPresent());
+        assertEquals(
+                SbomUtils.toJsonNode(sequential).toPrettyString(),
+                SbomUtils.toJsonNode(concurrent).toPrettyString());
+    }
+
+    @Test
+    void testUsePrefetchedArtifacts() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        Artifact artifact = Artifact.builder()
+                .purl(
+                        "pkg:generic/gradle-wrapper.jar?checksum=sha256%3Ae996d452d2645e70c01c11143ca2d3742734a28da2bf61f25c82bdc288c9e637")
+                .sha1("23a1590b048918cb655153298462fe64d284cb78")
+                .build();
+
+        ArtifactQuery purlQuery = new ArtifactQuery(
+                "pkg:maven/gradle-wrapper/gradle-wrapper?type=jar",
+                null,
+                null,
+                null);
+        ArtifactQuery hashQuery = new ArtifactQuery(null, null, artifact.getSha1(), null);
+
+        when(pncServiceMock.getArtifacts(any())).thenAnswer(invocation -> {
+            Collection<ArtifactQuery> queries = invocation.getArgument(0);
+            Map<ArtifactQuery, Artifact> results = new HashMap<>();
+            queries.forEach(query -> results.put(query, query.equals(hashQuery) ? artifact : null));
+            return results;
+        });
+
+        Bom processed = new DefaultProcessor(pncServiceMock, kojiServiceMock)
+                .process(gradleWrapperBom(artifact.getSha1()));
+
+        assertTrue(getComponent(processed, artifact.getPurl()).isPresent());
+        verify(pncServiceMock, times(2)).getArtifacts(any());
+        verify(pncServiceMock, never()).getArtifact(any(), any(), any(), any());
+        verify(pncServiceMock).getArtifacts(argThat(queries -> queries.contains(purlQuery)));
+    }
+
+    @Test
+    void testConcurrentProcessingFailure() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        when(pncServiceMock.getArtifact(any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("PNC is down"));
+
+        DefaultProcessor defaultProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock, 4);
+        Bom bom = gradleWrapperBom("23a1590b048918cb655153298462fe64d284cb78");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> defaultProcessor.process(bom));
+        assertEquals("PNC is down", thrown.getMessage());
+    }
+
+    @Test
+    void testInvalidConcurrency() {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        assertThrows(ApplicationException.class, () -> new DefaultProcessor(pncServiceMock, kojiServiceMock, 0));
+    }
+
+    private static Bom gradleWrapperBom(String sha1) throws IOException {
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Component component = SbomUtils.createComponent(
+                null,
+                "gradle-wrapper",
+                "UNKNOWN",
+                null,
+                "pkg:maven/gradle-wrapper/gradle-wrapper?type=jar",
+                Component.Type.LIBRARY);
+        component.addHash(new Hash(Hash.Algorithm.SHA1, sha1));
+        bom.addComponent(component);
+        bom.addDependency(SbomUtils.createDependency(component.getBomRef()));
+        return bom;
+    }
+
     @Test
     void testAddMissingNpmDependencies() throws IOException {
         DefaultProcessor defaultProcessor = mockForAddMissingNpmDependencies();
@@ -21,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -38,6 +40,8 @@ import org.cyclonedx.model.Dependency;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.sbomer.cli.feature.sbom.processor.WorkaroundMissingNpmDependencies;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.pnc.PncService;
@@ -291,6 +295,67 @@ class WorkaroundMissingNpmDependenciesTest {
         assertDoesNotThrow(() -> workaround.addMissingDependencies(bom));
     }
 
+    @Test
+    void testNpmDependenciesFetchedOncePerBuild() throws IOException {
+        // Mock PNC service
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        Build pncBuild = OBJECT_MAPPER.readValue(TestResources.asString("pnc/mavenBuild.json"), Build.class);
+        when(pncServiceMock.getNPMDependencies(("FOOBAR012345"))).thenReturn(List.of());
+
+        Bom bom = Objects.requireNonNull(SbomUtils.createBom());
+
+        // Run test
+        WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncServiceMock, 4);
+        workaround.analyzeBuild(createComponent("baz"), pncBuild);
+        workaround.analyzeBuild(createComponent("qux"), pncBuild);
+        workaround.addMissingDependencies(bom);
+
+        // Verify after test
+        verify(pncServiceMock, times(1)).getNPMDependencies("FOOBAR012345");
+        assertNull(bom.getComponents());
+        // No empty dependency entries are added for 'baz' and 'qux'
+        assertTrue(bom.getDependencies() == null || bom.getDependencies().isEmpty());
+    }
+
+    @Test
+    void testNpmDependenciesFetchFailure() throws IOException {
+        // Mock PNC service
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        Build pncBuild1 = OBJECT_MAPPER.readValue(TestResources.asString("pnc/mavenBuild.json"), Build.class);
+        Build pncBuild2 = OBJECT_MAPPER.readValue(TestResources.asString("pnc/mavenBuild2.json"), Build.class);
+        ClientException failure = new ClientException("PNC responded with an error");
+        when(pncServiceMock.getNPMDependencies(("FOOBAR012345"))).thenThrow(failure);
+        when(pncServiceMock.getNPMDependencies(("FOOBAZ012345"))).thenReturn(List.of());
+
+        Bom bom = Objects.requireNonNull(SbomUtils.createBom());
+
+        // Run test
+        WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncServiceMock, 2);
+        workaround.analyzeBuild(createComponent("baz"), pncBuild1);
+        workaround.analyzeBuild(createComponent("qux"), pncBuild2);
+
+        // Verify after test
+        assertSame(failure, assertThrows(ClientException.class, () -> workaround.addMissingDependencies(bom)));
+        verify(pncServiceMock, times(1)).getNPMDependencies("FOOBAZ012345");
+    }
+
+    @Test
+    void testInvalidConcurrency() {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+
+        assertThrows(ApplicationException.class, () -> new WorkaroundMissingNpmDependencies(pncServiceMock, 0));
+    }
+
+    private static Component createComponent(String name) {
+        return SbomUtils.createComponent(
+                "foo.bar",
+                name,
+                "1.0.0.redhat-00001",
+                "Test project",
+                "pkg:maven/foo.bar/" + name + "@1.0.0.redhat-00001?type=jar",
+                Component.Type.LIBRARY);
+    }
+
     private static Optional<Dependency> getDependency(String ref, List<Dependency> dependencies) {
         return dependencies.stream().filter(d -> d.getRef().equals(ref)).findFirst();
     }
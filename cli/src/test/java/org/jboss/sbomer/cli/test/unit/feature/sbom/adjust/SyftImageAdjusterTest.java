@@ -259,6 +259,42 @@ class SyftImageAdjusterTest {
         assertEquals(0, SbomUtils.validate(SbomUtils.toJsonNode(adjusted)).size());
     }
 
+    @Test
+    void keepBomRefOfComponentsWithDuplicatedPurl() throws IOException {
+        SyftImageAdjuster adjuster = new SyftImageAdjuster(tmpDir, null, true, null, null);
+
+        for (String bomRef : List.of("syft-first", "syft-second")) {
+            Component component = new Component();
+            component.setType(Component.Type.LIBRARY);
+            component.setName("duplicated");
+            component.setPurl("pkg:golang/example.com/duplicated@v1.0.0");
+            component.setBomRef(bomRef);
+            bom.addComponent(component);
+        }
+
+        Bom adjusted = adjuster.adjust(bom);
+
+        List<Component> duplicated = adjusted.getComponents()
+                .stream()
+                .filter(c -> "pkg:golang/example.com/duplicated@v1.0.0".equals(c.getPurl()))
+                .toList();
+
+        assertEquals(2, duplicated.size());
+        assertEquals("pkg:golang/example.com/duplicated@v1.0.0", duplicated.get(0).getBomRef());
+        assertEquals("syft-second", duplicated.get(1).getBomRef());
+
+        List<String> dependsOn = adjusted.getDependencies()
+                .get(0)
+                .getDependencies()
+                .stream()
+                .map(Dependency::getRef)
+                .toList();
+
+        assertTrue(dependsOn.contains("pkg:golang/example.com/duplicated@v1.0.0"));
+        assertTrue(dependsOn.contains("syft-second"));
+        assertEquals(0, SbomUtils.validate(SbomUtils.toJsonNode(adjusted)).size());
+    }
+
     @Test
     void hasSourcesManifestComponent() throws IOException {
         SyftImageAdjuster adjuster = createDefaultAdjuster();
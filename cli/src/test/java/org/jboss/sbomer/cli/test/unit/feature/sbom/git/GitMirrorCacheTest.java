@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.transport.RefSpec;
+import org.jboss.sbomer.cli.feature.sbom.command.AbstractGenerateCommand;
+import org.jboss.sbomer.cli.feature.sbom.git.GitCredentialsProvider;
+import org.jboss.sbomer.cli.feature.sbom.git.GitMirrorCache;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
+import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
+import org.jboss.sbomer.core.features.sbom.utils.HashUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GitMirrorCacheTest {
+
+    static class TestGenerateCommand extends AbstractGenerateCommand {
+
+        TestGenerateCommand(GitMirrorCache gitMirrorCache) {
+            this.gitMirrorCache = gitMirrorCache;
+            this.gitCredentialsProvider = mock(GitCredentialsProvider.class);
+        }
+
+        @Override
+        protected Path doGenerate(String buildCmdOptions) {
+            return null;
+        }
+
+        @Override
+        protected GeneratorType generatorType() {
+            return null;
+        }
+
+        void clone(String url, String tag, Path path) {
+            doClone(url, tag, path, true);
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private Git work;
+
+    private Path origin;
+
+    private String url;
+
+    private GitMirrorCache cache;
+
+    @BeforeEach
+    void init() throws GitAPIException {
+        work = Git.init().setDirectory(tempDir.resolve("work").toFile()).setInitialBranch("main").call();
+        origin = tempDir.resolve("origin.git");
+        Git.init().setBare(true).setDirectory(origin.toFile()).setInitialBranch("main").call().close();
+        url = origin.toUri().toString();
+        cache = new GitMirrorCache(tempDir.resolve("cache"));
+    }
+
+    private void commitAndTag(String content, String tag) throws IOException, GitAPIException {
+        Files.writeString(work.getRepository().getWorkTree().toPath().resolve("file.txt"), content);
+        work.add().addFilepattern("file.txt").call();
+        work.commit().setMessage(content).setSign(false).call();
+
+        if (tag != null) {
+            work.tag().setName(tag).setAnnotated(true).setMessage(tag).setSigned(false).call();
+        }
+
+        work.push()
+                .setRemote(url)
+                .setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*"), new RefSpec("+refs/tags/*:refs/tags/*"))
+                .call();
+    }
+
+    private Path mirror() {
+        return tempDir.resolve("cache")
+                .resolve("git-mirrors")
+                .resolve(HashUtils.sha256(url.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String content(Path workDir) throws IOException {
+        return Files.readString(workDir.resolve("file.txt"));
+    }
+
+    @Test
+    void shouldCheckOutTag() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+        // A later commit on the branch
+        commitAndTag("1.1-SNAPSHOT", null);
+
+        Path workDir = tempDir.resolve("checkout");
+        cache.checkout(url, "1.0", workDir, null);
+
+        assertEquals("1.0", content(workDir));
+        assertTrue(Files.exists(mirror().resolve(Constants.OBJECTS)));
+
+        try (Git git = Git.open(workDir.toFile())) {
+            assertNotNull(git.getRepository().exactRef(Constants.R_TAGS + "1.0"));
+        }
+    }
+
+    @Test
+    void shouldFetchSecondTagIntoExistingMirror() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+        cache.checkout(url, "1.0", tempDir.resolve("first"), null);
+
+        commitAndTag("2.0", "2.0");
+        Path workDir = tempDir.resolve("second");
+        cache.checkout(url, "2.0", workDir, null);
+
+        assertEquals("2.0", content(workDir));
+
+        // Both tags are kept in the same mirror
+        try (Git git = Git.open(mirror().toFile())) {
+            assertNotNull(git.getRepository().exactRef(Constants.R_TAGS + "1.0"));
+            assertNotNull(git.getRepository().exactRef(Constants.R_TAGS + "2.0"));
+        }
+    }
+
+    @Test
+    void shouldCheckOutTagInMirrorWithoutRemote() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+        cache.checkout(url, "1.0", tempDir.resolve("first"), null);
+
+        // Tags do not change, the remote is not needed anymore
+        FileUtils.rmdir(origin);
+
+        Path workDir = tempDir.resolve("second");
+        cache.checkout(url, "1.0", workDir, null);
+
+        assertEquals("1.0", content(workDir));
+    }
+
+    @Test
+    void shouldCheckOutBranch() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+        cache.checkout(url, "main", tempDir.resolve("first"), null);
+
+        // Branches are fetched again
+        commitAndTag("1.1", null);
+        Path workDir = tempDir.resolve("second");
+        cache.checkout(url, "main", workDir, null);
+
+        assertEquals("1.1", content(workDir));
+    }
+
+    @Test
+    void shouldFailOnMissingRef() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+
+        ApplicationException e = assertThrows(
+                ApplicationException.class,
+                () -> cache.checkout(url, "3.0", tempDir.resolve("checkout"), null));
+
+        assertTrue(e.getMessage().contains("Neither a tag nor a branch '3.0' was found"));
+    }
+
+    @Test
+    void shouldFallBackToCloneWhenMirrorIsBroken() throws IOException, GitAPIException {
+        commitAndTag("1.0", "1.0");
+
+        // Not a Git repository
+        Files.createDirectories(mirror());
+        Files.writeString(mirror().resolve(Constants.OBJECTS), "garbage");
+
+        assertThrows(ApplicationException.class, () -> cache.checkout(url, "1.0", tempDir.resolve("mirror"), null));
+
+        Path workDir = tempDir.resolve("checkout");
+        new TestGenerateCommand(cache).clone(url, "1.0", workDir);
+
+        assertEquals("1.0", content(workDir));
+        assertFalse(Files.exists(workDir.resolve(Constants.DOT_GIT).resolve("objects/info/alternates")));
+    }
+}
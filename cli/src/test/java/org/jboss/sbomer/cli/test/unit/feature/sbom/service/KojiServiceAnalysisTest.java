@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.pnc.build.finder.core.BuildFinderListener;
+import org.jboss.pnc.build.finder.core.DistributionAnalyzerListener;
+import org.jboss.pnc.build.finder.koji.KojiBuild;
+import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.redhat.red.build.koji.KojiClientException;
+
+class KojiServiceAnalysisTest {
+
+    private static final String FIRST = "https://download.example.com/first.zip";
+
+    private static final String SECOND = "https://download.example.com/second.zip";
+
+    /**
+     * Records analyzed URLs. Analyses fail for URLs containing "fail" and return a single build otherwise.
+     */
+    static class StubKojiService extends KojiService {
+        final List<String> analyzedUrls = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected List<KojiBuild> find(
+                URL url,
+                DistributionAnalyzerListener distributionAnalyzerListener,
+                BuildFinderListener buildFinderListener) throws KojiClientException {
+            analyzedUrls.add(url.toExternalForm());
+
+            if (url.getPath().contains("fail")) {
+                throw new KojiClientException("Analysis of " + url + " failed");
+            }
+
+            return List.of(new KojiBuild());
+        }
+    }
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    private final StubKojiService kojiService = new StubKojiService();
+
+    /**
+     * Runs the submitted tasks matching the predicate immediately, other tasks are kept pending.
+     */
+    private void runTasks(Predicate<Integer> predicate) {
+        ManagedExecutor executor = mock(ManagedExecutor.class);
+
+        doAnswer(invocation -> {
+            Runnable task = invocation.getArgument(0);
+
+            if (predicate.test(pendingTasks.size())) {
+                task.run();
+            }
+
+            pendingTasks.add(task);
+            return null;
+        }).when(executor).execute(any());
+
+        kojiService.setExecutor(executor);
+    }
+
+    @Test
+    void shouldAnalyzeAllUrls() throws Throwable {
+        runTasks(index -> true);
+
+        Map<String, List<KojiBuild>> results = kojiService.find(List.of(SECOND, FIRST, SECOND));
+
+        assertEquals(List.of(SECOND, FIRST), List.copyOf(results.keySet()));
+        assertEquals(1, results.get(FIRST).size());
+        assertEquals(1, results.get(SECOND).size());
+        // Duplicated URLs are analyzed only once
+        assertEquals(2, pendingTasks.size());
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldCancelOtherAnalysesOnFirstFailure() {
+        kojiService.setAnalysisTimeout(Duration.ofHours(1));
+        // The first analysis never finishes, the second one fails
+        runTasks(index -> index == 1);
+
+        KojiClientException e = assertThrows(
+                KojiClientException.class,
+                () -> kojiService.find(List.of(FIRST, "https://download.example.com/fail.zip")));
+
+        assertTrue(e.getMessage().contains("fail.zip"));
+
+        // The first analysis was cancelled, running it does nothing
+        pendingTasks.get(0).run();
+
+        assertEquals(List.of("https://download.example.com/fail.zip"), kojiService.analyzedUrls);
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldCancelAnalysesOnTimeout() {
+        kojiService.setAnalysisTimeout(Duration.ofMillis(100));
+        // Only the first analysis finishes
+        runTasks(index -> index == 0);
+
+        ApplicationException e = assertThrows(
+                ApplicationException.class,
+                () -> kojiService.find(List.of(FIRST, SECOND)));
+
+        assertEquals("Analysis of 1 out of 2 archives did not finish within PT0.1S, cancelled these", e.getMessage());
+
+        // The second analysis was cancelled, running it does nothing
+        pendingTasks.get(1).run();
+
+        assertEquals(List.of(FIRST), kojiService.analyzedUrls);
+    }
+}
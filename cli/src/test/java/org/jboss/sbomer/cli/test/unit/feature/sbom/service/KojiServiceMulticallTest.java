@@ -0,0 +1,203 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.pnc.build.finder.core.BuildConfig;
+import org.jboss.pnc.build.finder.koji.ClientSession;
+import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.redhat.red.build.koji.KojiClientException;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+import com.redhat.red.build.koji.model.xmlrpc.KojiRpmInfo;
+
+class KojiServiceMulticallTest {
+
+    private final ClientSession session = mock(ClientSession.class);
+
+    private final ExecutorService threads = Executors.newFixedThreadPool(2);
+
+    private KojiService kojiService;
+
+    private static KojiRpmInfo rpm(int buildId) {
+        KojiRpmInfo rpmInfo = new KojiRpmInfo();
+        rpmInfo.setBuildId(buildId);
+        return rpmInfo;
+    }
+
+    @BeforeEach
+    void init() {
+        BuildConfig config = new BuildConfig();
+        config.setKojiMulticallSize(2);
+
+        kojiService = new KojiService();
+        kojiService.setKojiSession(session);
+        kojiService.setConfig(config);
+    }
+
+    @AfterEach
+    void cleanup() {
+        threads.shutdownNow();
+    }
+
+    /**
+     * Runs the batches on separate threads, as the managed executor does in the container.
+     */
+    private void useExecutor() {
+        ManagedExecutor executor = mock(ManagedExecutor.class);
+
+        doAnswer(invocation -> {
+            threads.execute(invocation.getArgument(0));
+            return null;
+        }).when(executor).execute(any());
+
+        kojiService.setExecutor(executor);
+    }
+
+    @Test
+    void shouldFindBuildsOfRpmsInBatches() throws KojiClientException {
+        when(session.getRPM(anyList())).thenReturn(Arrays.asList(rpm(1), null)).thenReturn(List.of(rpm(1)));
+        when(session.getBuild(anyList())).thenReturn(List.of(new KojiBuildInfo(1, 10, "bash", "5.1.8", "9.el9")));
+
+        Map<String, KojiBuildInfo> builds = kojiService.findBuildsByRPMs(
+                List.of("bash-5.1.8-9.el9.x86_64", "missing-1.0-1.el9.x86_64", "bash-5.1.8-9.el9.s390x"));
+
+        assertEquals(3, builds.size());
+        assertEquals(1, builds.get("bash-5.1.8-9.el9.x86_64").getId());
+        assertEquals(1, builds.get("bash-5.1.8-9.el9.s390x").getId());
+        assertNull(builds.get("missing-1.0-1.el9.x86_64"));
+
+        // Two batches of RPMs, a single build
+        verify(session, times(2)).getRPM(anyList());
+        verify(session, times(1)).getBuild(anyList());
+    }
+
+    @Test
+    void shouldFindBuildsByIdsInBatches() throws KojiClientException {
+        when(session.getBuild(anyList()))
+                .thenReturn(
+                        List.of(
+                                new KojiBuildInfo(1, 10, "foo", "1.0", "1"),
+                                new KojiBuildInfo(2, 10, "bar", "1.0", "1")))
+                .thenReturn(Arrays.asList((KojiBuildInfo) null));
+
+        Map<Integer, KojiBuildInfo> builds = kojiService.findBuildsByIds(List.of(1, 2, 3, 1));
+
+        assertEquals(3, builds.size());
+        assertEquals("foo", builds.get(1).getName());
+        assertEquals("bar", builds.get(2).getName());
+        assertNull(builds.get(3));
+
+        // Duplicated ids are retrieved only once
+        verify(session, times(2)).getBuild(anyList());
+    }
+
+    @Test
+    void shouldFailToFindBuildsByIds() throws KojiClientException {
+        KojiClientException failure = new KojiClientException("A reason");
+        when(session.getBuild(anyList())).thenThrow(failure);
+
+        KojiClientException e = assertThrows(KojiClientException.class, () -> kojiService.findBuildsByIds(List.of(1)));
+
+        // The original exception is rethrown
+        assertSame(failure, e);
+    }
+
+    @Test
+    void shouldFindBuildsByNvrs() throws KojiClientException {
+        when(session.getBuild(anyList()))
+                .thenReturn(Arrays.asList(new KojiBuildInfo(1, 10, "foo-container", "1.0", "1"), null));
+
+        Map<String, KojiBuildInfo> builds = kojiService
+                .findBuilds(List.of("foo-container-1.0-1", "bar-container-1.0-1"));
+
+        assertEquals(1, builds.get("foo-container-1.0-1").getId());
+        assertNull(builds.get("bar-container-1.0-1"));
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldFindBuildsByIdsConcurrently() throws KojiClientException {
+        useExecutor();
+
+        // Every batch waits for the other one, which only finishes if these are retrieved concurrently
+        CountDownLatch batches = new CountDownLatch(2);
+
+        when(session.getBuild(anyList())).thenAnswer(invocation -> {
+            batches.countDown();
+
+            if (!batches.await(5, TimeUnit.SECONDS)) {
+                throw new KojiClientException("Batches were not retrieved concurrently");
+            }
+
+            // The batches differ in size
+            return invocation.getArgument(0, List.class).size() == 2
+                    ? List.of(new KojiBuildInfo(1, 10, "foo", "1.0", "1"), new KojiBuildInfo(2, 10, "bar", "1.0", "1"))
+                    : List.of(new KojiBuildInfo(3, 10, "baz", "1.0", "1"));
+        });
+
+        Map<Integer, KojiBuildInfo> builds = kojiService.findBuildsByIdsAsync(List.of(1, 2, 3)).join();
+
+        assertEquals(3, builds.size());
+        assertEquals("foo", builds.get(1).getName());
+        assertEquals("bar", builds.get(2).getName());
+        assertEquals("baz", builds.get(3).getName());
+
+        verify(session, times(2)).getBuild(anyList());
+    }
+
+    @Test
+    @Timeout(10)
+    void shouldFailToFindBuildsByIdsConcurrently() throws KojiClientException {
+        useExecutor();
+
+        KojiClientException failure = new KojiClientException("A reason");
+        when(session.getBuild(anyList())).thenThrow(failure);
+
+        KojiClientException e = assertThrows(
+                KojiClientException.class,
+                () -> kojiService.findBuildsByIds(List.of(1, 2, 3)));
+
+        // The original exception is rethrown, regardless of the thread it was thrown on
+        assertSame(failure, e);
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.sbomer.cli.feature.sbom.generate.MavenDominoGenerator;
+import org.jboss.sbomer.cli.feature.sbom.generate.ProcessReport;
 import org.jboss.sbomer.cli.feature.sbom.generate.ProcessRunner;
 import org.jboss.sbomer.core.errors.ValidationException;
 import org.junit.jupiter.api.Test;
@@ -39,6 +40,7 @@ class MavenDominoGeneratorTest {
 
     final Path dominoDir = Path.of("/path/to/domino/dir");
     final Path workDir = Path.of("work/dir");
+    final ProcessReport report = new ProcessReport(List.of("java"), 0, false, 1000, 900, 1024, 10, 0);
 
     @Test
     void testFailedWhenNoDominoDirProvided(@TempDir Path projectDir) {
@@ -116,6 +118,22 @@ class MavenDominoGeneratorTest {
                 cmd);
     }
 
+    @Test
+    void testGenerateProvidesProcessReport() {
+        MavenDominoGenerator generator = MavenDominoGenerator.builder().withDominoDir(dominoDir).build();
+
+        assertEquals(List.of(), generator.getProcessReports());
+
+        generate(generator, dominoDir, workDir);
+
+        assertEquals(List.of(report), generator.getProcessReports());
+
+        // Only the reports of the last run are provided
+        generate(generator, dominoDir, workDir);
+
+        assertEquals(List.of(report), generator.getProcessReports());
+    }
+
     @Test
     void testGenerateWithSettingsXml() {
         var settingsXmlPath = Path.of("settings.xml");
@@ -204,7 +222,7 @@ class MavenDominoGeneratorTest {
 
         try (MockedStatic<ProcessRunner> runnerMock = Mockito.mockStatic(ProcessRunner.class)) {
             runnerMock.when(() -> ProcessRunner.run(workDirCaptor.capture(), commandCaptor.capture()))
-                    .thenAnswer((Answer<Void>) invocation -> null);
+                    .thenAnswer((Answer<ProcessReport>) invocation -> report);
 
             try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
                 filesMock.when(() -> Files.exists(workDir)).thenReturn(true);
@@ -19,12 +19,19 @@ package org.jboss.sbomer.cli.test.unit.generate;
 
 import static org.jboss.sbomer.cli.feature.sbom.generate.ProcessRunner.VALIDATION_FAILED_MESSAGE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
+import org.jboss.sbomer.cli.feature.sbom.generate.ProcessReport;
 import org.jboss.sbomer.cli.feature.sbom.generate.ProcessRunner;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ValidationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -78,4 +85,50 @@ class ProcessRunnerTest {
                 String.format("Provided working directory '%s' is not a directory", aFile),
                 thrown.getErrors().get(0));
     }
+
+    @Test
+    void reportProvidedForSuccessfulCommand(@TempDir Path tempDir) {
+        String script = "for i in $(seq 1 1000); do echo line $i; done";
+        ProcessReport report = ProcessRunner.run(tempDir, "bash", "-c", script);
+
+        assertTrue(report.isSuccessful());
+        assertEquals(0, report.exitCode());
+        assertEquals(List.of("bash", "-c", script), report.command());
+        assertEquals(1000, report.outputLines());
+        assertTrue(report.suppressedLines() < 1000);
+        assertTrue(report.durationMillis() >= 0);
+    }
+
+    @Test
+    void failedCommand(@TempDir Path tempDir) {
+        ApplicationException thrown = Assertions
+                .assertThrows(ApplicationException.class, () -> ProcessRunner.run(tempDir, "bash", "-c", "exit 3"));
+
+        assertEquals("Command failed, see logs above", thrown.getMessage());
+
+        ProcessReport report = ProcessRunner.start(Map.of(), tempDir, Duration.ZERO, "bash", "-c", "exit 3").join();
+
+        assertFalse(report.isSuccessful());
+        assertEquals(3, report.exitCode());
+        assertFalse(report.timedOut());
+    }
+
+    @Test
+    void commandKilledAfterTimeout(@TempDir Path tempDir) {
+        long start = System.nanoTime();
+
+        ProcessReport report = ProcessRunner
+                .start(Map.of(), tempDir, Duration.ofMillis(500), "bash", "-c", "sleep 60 & sleep 60; wait")
+                .join();
+
+        assertTrue(report.timedOut());
+        assertFalse(report.isSuccessful());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(30)) < 0);
+
+        ApplicationException thrown = Assertions.assertThrows(
+                ApplicationException.class,
+                () -> ProcessRunner.run(Map.of(), tempDir, Duration.ofMillis(500), "sleep", "60"));
+
+        assertEquals("Command did not finish within PT0.5S, it was killed, see logs above", thrown.getMessage());
+    }
 }
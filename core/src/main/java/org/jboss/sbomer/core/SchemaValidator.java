@@ -17,9 +17,16 @@
  */
 package org.jboss.sbomer.core;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.json.schema.Draft;
@@ -32,9 +39,29 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Validates JSON documents against JSON schemas.
+ * </p>
+ *
+ * <p>
+ * Schemas available on the classpath are compiled once and the resulting {@link Validator} is cached for the lifetime
+ * of the process, keyed by the resource name and the {@link Draft}. Compiled validators do not keep any per-validation
+ * state and are shared between threads.
+ * </p>
+ */
 @Slf4j
 public class SchemaValidator {
 
+    public static final Draft DEFAULT_DRAFT = Draft.DRAFT202012;
+
+    private static final String BASE_URI = "https://jboss.org/sbomer";
+
+    private record SchemaKey(String resource, Draft draft) {
+    }
+
+    private static final Map<SchemaKey, Validator> VALIDATORS = new ConcurrentHashMap<>();
+
     private SchemaValidator() {
         // This is a utility class and should not be instantiated
     }
@@ -59,22 +86,88 @@ public class SchemaValidator {
         }
     }
 
+    /**
+     * Returns the compiled {@link Validator} for the schema available on the classpath under the given resource name,
+     * using the {@link #DEFAULT_DRAFT}. The schema is read and compiled only once.
+     *
+     * @param resource the classpath resource name of the schema, for example {@code schemas/config.json}
+     * @return the compiled validator or empty {@link Optional} if the resource does not exist
+     */
+    public static Optional<Validator> getValidator(String resource) {
+        return getValidator(resource, DEFAULT_DRAFT);
+    }
+
+    /**
+     * Returns the compiled {@link Validator} for the schema available on the classpath under the given resource name.
+     * The schema is read and compiled only once for a given resource and draft.
+     *
+     * @param resource the classpath resource name of the schema, for example {@code schemas/config.json}
+     * @param draft the JSON schema draft
+     * @return the compiled validator or empty {@link Optional} if the resource does not exist
+     */
+    public static Optional<Validator> getValidator(String resource, Draft draft) {
+        // Missing resources are not cached, computeIfAbsent does not store null values
+        return Optional.ofNullable(VALIDATORS.computeIfAbsent(new SchemaKey(resource, draft), SchemaValidator::compile));
+    }
+
+    /**
+     * Compiles schemas available on the classpath under given resource names so that the first validation does not
+     * need to pay the price.
+     *
+     * @param resources the classpath resource names of the schemas
+     */
+    public static void warmUp(Collection<String> resources) {
+        for (String resource : resources) {
+            if (getValidator(resource).isEmpty()) {
+                log.warn("Schema '{}' could not be found, skipping", resource);
+            }
+        }
+
+        log.debug("{} compiled schemas cached", VALIDATORS.size());
+    }
+
+    /**
+     * A method to validate the content of the message body according to the JSON Schema available on the classpath
+     * under the given resource name. The compiled schema is cached, see {@link #getValidator(String)}.
+     *
+     * @param resource the classpath resource name of the schema
+     * @param body the content to validate
+     * @return the result of the validation
+     */
+    public static ValidationResult validateResource(String resource, String body) {
+        Validator validator = getValidator(resource)
+                .orElseThrow(() -> new ApplicationException("Could not find schema '{}'", resource));
+
+        return validate(validator, body);
+    }
+
     /**
      * A method to validate the content of the message body according to the defined JSON Schema.
      *
+     * <p>
+     * The schema is compiled on every call. If the schema is available on the classpath, use
+     * {@link #validateResource(String, String)} instead.
+     * </p>
+     *
      * @return the result of the validation
      */
     public static ValidationResult validate(String schema, String body) {
-        log.debug("Validating: {}", body);
         log.trace("Schema: {}", schema);
 
-        OutputUnit result = Validator
-                .create(
-                        JsonSchema.of(new JsonObject(schema)),
-                        new JsonSchemaOptions().setBaseUri("https://jboss.org/sbomer")
-                                .setOutputFormat(OutputFormat.Basic)
-                                .setDraft(Draft.DRAFT202012))
-                .validate(new JsonObject(body));
+        return validate(create(schema, DEFAULT_DRAFT), body);
+    }
+
+    /**
+     * A method to validate the content of the message body with the provided compiled schema.
+     *
+     * @param validator the compiled schema
+     * @param body the content to validate
+     * @return the result of the validation
+     */
+    public static ValidationResult validate(Validator validator, String body) {
+        log.debug("Validating: {}", body);
+
+        OutputUnit result = validator.validate(new JsonObject(body));
 
         ValidationResult validationResult = ValidationResult.fromOutputUnit(result);
 
@@ -87,4 +180,28 @@ public class SchemaValidator {
         return validationResult;
     }
 
+    private static Validator compile(SchemaKey key) {
+        String schema;
+
+        try (InputStream in = SchemaValidator.class.getClassLoader().getResourceAsStream(key.resource())) {
+            if (in == null) {
+                return null;
+            }
+
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ApplicationException("Could not read the schema '{}'", key.resource(), e);
+        }
+
+        log.debug("Compiling schema '{}' ({})", key.resource(), key.draft());
+
+        return create(schema, key.draft());
+    }
+
+    private static Validator create(String schema, Draft draft) {
+        return Validator.create(
+                JsonSchema.of(new JsonObject(schema)),
+                new JsonSchemaOptions().setBaseUri(BASE_URI).setOutputFormat(OutputFormat.Basic).setDraft(draft));
+    }
+
 }
@@ -17,10 +17,8 @@
  */
 package org.jboss.sbomer.core.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
@@ -35,6 +33,20 @@ import jakarta.enterprise.context.ApplicationScoped;
  */
 @ApplicationScoped
 public class ConfigSchemaValidator implements Validator<Config> {
+
+    /**
+     * Compiles schemas for all known configuration types, so that the first validation does not have to. Meant to be
+     * called by long-running applications at startup, otherwise schemas are compiled on first use.
+     */
+    public void warmUp() {
+        SchemaValidator.warmUp(
+                Stream.of(GenerationRequestType.values())
+                        .map(GenerationRequestType::getSchema)
+                        .filter(Objects::nonNull)
+                        .map(ConfigSchemaValidator::resource)
+                        .toList());
+    }
+
     /**
      * Performs validation of a give {@link Config} according to the JSON schema.
      *
@@ -47,17 +59,12 @@ public class ConfigSchemaValidator implements Validator<Config> {
             throw new ApplicationException("No configuration provided");
         }
 
-        String schemaFile = GenerationRequestType.schemaFile(config.getClass());
-        String name = "schemas/" + schemaFile;
-        String schema;
-
-        try (InputStream in = SchemaValidator.class.getClassLoader().getResourceAsStream(name)) {
-            Objects.requireNonNull(in, "Resource " + name + " not found");
-            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new ApplicationException("Could not read the configuration file schema", e);
-        }
+        return SchemaValidator.validateResource(
+                resource(GenerationRequestType.schemaFile(config.getClass())),
+                config.toJson());
+    }
 
-        return SchemaValidator.validate(schema, config.toJson());
+    private static String resource(String schemaFile) {
+        return "schemas/" + schemaFile;
     }
 }
@@ -17,10 +17,6 @@
  */
 package org.jboss.sbomer.core.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-
 import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
 import org.jboss.sbomer.core.config.request.RequestConfig;
@@ -54,22 +50,12 @@ public class RequestConfigSchemaValidator implements Validator<RequestConfig> {
             throw new ApplicationException("Cannot validate provided config, unable to find schema file");
         }
 
-        String schema;
-
-        try (InputStream is = SchemaValidator.class.getClassLoader()
-                .getResourceAsStream("schemas/request/" + typeName.value() + ".json")) {
-
-            if (is == null) {
-                throw new ApplicationException(
-                        "Could not find schema for type: '{}', please contact administrator",
-                        typeName.value());
-            }
-
-            schema = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new ApplicationException("Could not read the configuration file schema", e);
-        }
-
-        return SchemaValidator.validate(schema, config.toJson());
+        return SchemaValidator.validate(
+                SchemaValidator.getValidator("schemas/request/" + typeName.value() + ".json")
+                        .orElseThrow(
+                                () -> new ApplicationException(
+                                        "Could not find schema for type: '{}', please contact administrator",
+                                        typeName.value())),
+                config.toJson());
     }
 }
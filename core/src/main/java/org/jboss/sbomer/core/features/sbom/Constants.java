@@ -127,4 +127,10 @@ public class Constants {
      */
     public static final String TEKTON_TASK_RUN_NAME_SUFFIX_RETRY_ATTEMPT = "retry";
 
+    /**
+     * The suffix of the file with the reports of the commands run during the generation, written next to the generated
+     * manifest, for example {@code bom.process-report.json} for {@code bom.json}
+     */
+    public static final String PROCESS_REPORT_SUFFIX = ".process-report.json";
+
 }
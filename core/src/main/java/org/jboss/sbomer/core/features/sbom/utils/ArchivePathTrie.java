@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>
+ * A trie of paths to files within (possibly nested) archives, as reported by the deliverable analyzer, for example
+ * {@code dist.zip!/lib/app.jar!/META-INF/lib/nested.jar}. Every entry (separated by {@code !/}) of a path is a level
+ * in the trie.
+ * </p>
+ *
+ * <p>
+ * Both adding a path and finding the closest enclosing archive of a path cost a single walk over the path, so
+ * resolving the nesting of all analyzed files is linear in the total length of their paths.
+ * </p>
+ *
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @param <V> the type of the values associated with the paths
+ */
+public class ArchivePathTrie<V> {
+
+    public static final String SEPARATOR = "!/";
+
+    private static final class Node<V> {
+        Map<String, Node<V>> children;
+        V value;
+
+        Node<V> child(String entry) {
+            return children != null ? children.get(entry) : null;
+        }
+
+        Node<V> childOrCreate(String entry) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+
+            return children.computeIfAbsent(entry, e -> new Node<>());
+        }
+    }
+
+    private final Node<V> root = new Node<>();
+
+    /**
+     * Associates the value with the path, replacing any value associated with it before.
+     *
+     * @param path the path
+     * @param value the value, not {@code null}
+     */
+    public void put(String path, V value) {
+        Node<V> node = root;
+        int start = 0;
+
+        while (true) {
+            int end = path.indexOf(SEPARATOR, start);
+
+            if (end == -1) {
+                node = node.childOrCreate(path.substring(start));
+                break;
+            }
+
+            node = node.childOrCreate(path.substring(start, end));
+            start = end + SEPARATOR.length();
+        }
+
+        node.value = value;
+    }
+
+    /**
+     * Finds the value associated with the closest enclosing archive of the path, that is the longest path which is a
+     * proper prefix of the given path ending just before a {@link #SEPARATOR} and which has a value associated.
+     *
+     * @param path the path
+     * @return the value of the closest enclosing archive, or {@link Optional#empty()} if no enclosing archive is known
+     */
+    public Optional<V> findClosestParent(String path) {
+        Node<V> node = root;
+        V parent = null;
+        int start = 0;
+        int end;
+
+        // The last entry is the path itself, it is never its own parent
+        while ((end = path.indexOf(SEPARATOR, start)) != -1) {
+            node = node.child(path.substring(start, end));
+
+            if (node == null) {
+                break;
+            }
+
+            if (node.value != null) {
+                parent = node.value;
+            }
+
+            start = end + SEPARATOR.length();
+        }
+
+        return Optional.ofNullable(parent);
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * An index over a CycloneDX {@link Bom} which maps purls and bom-refs to top-level components and dependency refs to
+ * every place where a {@link Dependency} with the given ref is found in the dependency tree (including nested
+ * {@code dependsOn} and {@code provides} entries).
+ * </p>
+ *
+ * <p>
+ * The main component ({@code metadata.component}) is not indexed: it is not returned by the lookup methods, even after
+ * its purl or bom-ref is updated through this class.
+ * </p>
+ *
+ * <p>
+ * All mutations done through this class keep the index consistent with the underlying {@link Bom}. Changes done to
+ * the {@link Bom} directly (outside of this class) are not tracked; in such case a new index needs to be created.
+ * </p>
+ */
+@Slf4j
+public class BomIndex {
+
+    /**
+     * A position of a {@link Dependency} within a list owned by the {@link Bom} or by a parent {@link Dependency}.
+     */
+    private static final class DependencySlot {
+        final List<Dependency> owner;
+        final boolean topLevel;
+        int position;
+
+        DependencySlot(List<Dependency> owner, int position, boolean topLevel) {
+            this.owner = owner;
+            this.position = position;
+            this.topLevel = topLevel;
+        }
+
+        Dependency get(String ref) {
+            if (position < owner.size() && ref.equals(owner.get(position).getRef())) {
+                return owner.get(position);
+            }
+
+            // The owning list was modified outside of the index, try to find the element again
+            for (int i = 0; i < owner.size(); i++) {
+                if (ref.equals(owner.get(i).getRef())) {
+                    position = i;
+                    return owner.get(i);
+                }
+            }
+
+            return null;
+        }
+    }
+
+    @Getter
+    private final Bom bom;
+
+    private final Map<String, List<Component>> componentsByPurl = new HashMap<>();
+
+    private final Map<String, List<Component>> componentsByBomRef = new HashMap<>();
+
+    private final Map<String, List<DependencySlot>> dependenciesByRef = new HashMap<>();
+
+    private BomIndex(Bom bom) {
+        this.bom = bom;
+    }
+
+    /**
+     * Creates an index for the provided {@link Bom}.
+     *
+     * @param bom the manifest to index
+     * @return the index
+     */
+    public static BomIndex of(Bom bom) {
+        BomIndex index = new BomIndex(bom);
+
+        if (bom.getComponents() != null) {
+            bom.getComponents().forEach(index::indexComponent);
+        }
+
+        if (bom.getDependencies() != null) {
+            if (!(bom.getDependencies() instanceof ArrayList)) {
+                bom.setDependencies(bom.getDependencies());
+            }
+
+            // Bom#setDependencies() copies the list, so make sure to index the list owned by the manifest
+            index.indexDependencies(bom.getDependencies(), true);
+        }
+
+        return index;
+    }
+
+    /**
+     * Finds the first top-level component with the given purl.
+     *
+     * @param purl the purl
+     * @return the first component with the given purl, if any
+     */
+    public Optional<Component> findComponentWithPurl(String purl) {
+        return getComponentsWithPurl(purl).stream().findFirst();
+    }
+
+    /**
+     * Returns all top-level components with the given purl, in the order these are found in the manifest.
+     *
+     * @param purl the purl
+     * @return an unmodifiable list of components
+     */
+    public List<Component> getComponentsWithPurl(String purl) {
+        return List.copyOf(componentsByPurl.getOrDefault(purl, List.of()));
+    }
+
+    /**
+     * Returns all top-level components with the given bom-ref, in the order these are found in the manifest.
+     *
+     * @param bomRef the bom-ref
+     * @return an unmodifiable list of components
+     */
+    public List<Component> getComponentsWithBomRef(String bomRef) {
+        return List.copyOf(componentsByBomRef.getOrDefault(bomRef, List.of()));
+    }
+
+    /**
+     * Finds the first top-level dependency with the given ref.
+     *
+     * @param ref the ref
+     * @return the dependency, if any
+     */
+    public Optional<Dependency> findDependency(String ref) {
+        return dependenciesByRef.getOrDefault(ref, List.of())
+                .stream()
+                .filter(slot -> slot.topLevel)
+                .map(slot -> slot.get(ref))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Checks whether there is a top-level dependency with the given ref.
+     *
+     * @param ref the ref
+     * @return {@code true} if there is a top-level dependency with the given ref, {@code false} otherwise
+     */
+    public boolean hasDependency(String ref) {
+        return findDependency(ref).isPresent();
+    }
+
+    /**
+     * Checks whether a dependency with the given ref is found anywhere in the dependency tree.
+     *
+     * @param ref the ref
+     * @return {@code true} if the ref is used anywhere in the dependency tree, {@code false} otherwise
+     */
+    public boolean isReferenced(String ref) {
+        return dependenciesByRef.containsKey(ref);
+    }
+
+    /**
+     * Adds the component to the list of top-level components of the manifest.
+     *
+     * @param component the component to add
+     */
+    public void addComponent(Component component) {
+        if (bom.getComponents() == null) {
+            bom.setComponents(new ArrayList<>());
+        }
+
+        bom.getComponents().add(component);
+        indexComponent(component);
+    }
+
+    /**
+     * Adds the dependency (including its nested dependencies) to the list of top-level dependencies of the manifest.
+     *
+     * @param dependency the dependency to add
+     */
+    public void addDependency(Dependency dependency) {
+        if (bom.getDependencies() == null) {
+            bom.setDependencies(new ArrayList<>());
+        }
+
+        List<Dependency> dependencies = bom.getDependencies();
+        dependencies.add(dependency);
+        indexDependency(dependencies, dependencies.size() - 1, true);
+    }
+
+    /**
+     * <p>
+     * Updates all references for a given purl within the manifest from {@code oldPurl} to {@code newPurl}.
+     * </p>
+     *
+     * <p>
+     * This updates the main component as well as all top-level components with the given purl. For every updated
+     * component the bom-ref is updated too, see {@link #updateBomRef(Component, String, String)}.
+     * </p>
+     *
+     * @param oldPurl the old purl
+     * @param newPurl the new purl
+     */
+    public void updatePurl(String oldPurl, String newPurl) {
+        Component mainComponent = bom.getMetadata() != null ? bom.getMetadata().getComponent() : null;
+
+        if (mainComponent != null && oldPurl.equals(mainComponent.getPurl())) {
+            mainComponent.setPurl(newPurl);
+            updateBomRef(mainComponent, oldPurl, newPurl);
+        }
+
+        for (Component component : getComponentsWithPurl(oldPurl)) {
+            updatePurl(component, oldPurl, newPurl);
+        }
+    }
+
+    /**
+     * Updates the purl of the top-level component if it matches the old purl. If it was updated, the bom-ref of the
+     * component is updated as well, see {@link #updateBomRef(Component, String, String)}.
+     *
+     * @param component the component
+     * @param oldPurl the old purl
+     * @param newPurl the new purl
+     * @return {@code true} if the purl was updated, {@code false} otherwise
+     */
+    public boolean updatePurl(Component component, String oldPurl, String newPurl) {
+        if (!oldPurl.equals(component.getPurl())) {
+            return false;
+        }
+
+        component.setPurl(newPurl);
+        move(componentsByPurl, component, oldPurl, newPurl);
+        updateBomRef(component, oldPurl, newPurl);
+
+        return true;
+    }
+
+    /**
+     * <p>
+     * Updates the bom-ref for the given component, and updates the refs in the dependency hierarchy, including nested
+     * dependencies and provides.
+     * </p>
+     *
+     * <p>
+     * There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
+     * components (which have different bom-refs). If there already is a top-level dependency with the new ref, nothing
+     * is updated, otherwise the manifest would not be valid.
+     * </p>
+     *
+     * @param component the component to update the bom-ref for
+     * @param oldRef the old reference
+     * @param newRef the new reference
+     * @return {@code true} if the bom-ref was updated, {@code false} otherwise
+     */
+    public boolean updateBomRef(Component component, String oldRef, String newRef) {
+        if (!oldRef.equals(component.getBomRef()) || hasDependency(newRef)) {
+            return false;
+        }
+
+        component.setBomRef(newRef);
+        move(componentsByBomRef, component, oldRef, newRef);
+        updateDependencyRef(oldRef, newRef);
+
+        return true;
+    }
+
+    /**
+     * Replaces every {@link Dependency} with the {@code oldRef} ref found in the dependency tree with a new
+     * {@link Dependency} with the {@code newRef} ref. Nested dependencies and provides are retained.
+     *
+     * @param oldRef the old reference
+     * @param newRef the new reference
+     * @return the number of replaced dependencies
+     */
+    public int updateDependencyRef(String oldRef, String newRef) {
+        if (oldRef.equals(newRef)) {
+            return 0;
+        }
+
+        List<DependencySlot> slots = dependenciesByRef.remove(oldRef);
+
+        if (slots == null) {
+            return 0;
+        }
+
+        return replaceDependencies(slots, oldRef, newRef);
+    }
+
+    /**
+     * <p>
+     * Replaces every {@link Dependency} found in the dependency tree with a ref being a key in the
+     * {@code refRelocations} map (old ref to new ref) with a new {@link Dependency} with the new ref. Nested
+     * dependencies and provides are retained.
+     * </p>
+     *
+     * <p>
+     * Relocations are applied simultaneously, meaning that a dependency is relocated at most once, even if its new ref
+     * is a key in the map too (for example A to B and B to C).
+     * </p>
+     *
+     * @param refRelocations the map of old refs to new refs
+     * @return the number of replaced dependencies
+     */
+    public int updateDependencyRefs(Map<String, String> refRelocations) {
+        Map<String, List<DependencySlot>> detached = new LinkedHashMap<>();
+
+        // Detach all slots first, so that the slots moved to a new ref are not moved again by a chained relocation
+        refRelocations.forEach((oldRef, newRef) -> {
+            if (!oldRef.equals(newRef) && dependenciesByRef.containsKey(oldRef)) {
+                detached.put(oldRef, dependenciesByRef.remove(oldRef));
+            }
+        });
+
+        int replaced = 0;
+
+        for (Map.Entry<String, List<DependencySlot>> entry : detached.entrySet()) {
+            replaced += replaceDependencies(entry.getValue(), entry.getKey(), refRelocations.get(entry.getKey()));
+        }
+
+        return replaced;
+    }
+
+    /**
+     * Sets the purl of the component, keeping the index consistent. Contrary to
+     * {@link #updatePurl(Component, String, String)} the bom-ref is left untouched.
+     */
+    void setPurl(Component component, String purl) {
+        String oldPurl = component.getPurl();
+        component.setPurl(purl);
+        move(componentsByPurl, component, oldPurl, purl);
+    }
+
+    /**
+     * Sets the bom-ref of the component, keeping the index consistent. Contrary to
+     * {@link #updateBomRef(Component, String, String)} the dependency tree is left untouched.
+     */
+    void setBomRef(Component component, String bomRef) {
+        String oldBomRef = component.getBomRef();
+        component.setBomRef(bomRef);
+        move(componentsByBomRef, component, oldBomRef, bomRef);
+    }
+
+    private int replaceDependencies(List<DependencySlot> slots, String oldRef, String newRef) {
+        List<DependencySlot> moved = new ArrayList<>(slots.size());
+
+        for (DependencySlot slot : slots) {
+            Dependency dependency = slot.get(oldRef);
+
+            if (dependency == null) {
+                log.debug("Dependency with ref '{}' is not in the manifest anymore, skipping", oldRef);
+                continue;
+            }
+
+            Dependency updatedDependency = new Dependency(newRef);
+            updatedDependency.setDependencies(dependency.getDependencies());
+            updatedDependency.setProvides(dependency.getProvides());
+            slot.owner.set(slot.position, updatedDependency);
+            moved.add(slot);
+        }
+
+        if (!moved.isEmpty()) {
+            dependenciesByRef.computeIfAbsent(newRef, k -> new ArrayList<>()).addAll(moved);
+        }
+
+        return moved.size();
+    }
+
+    private void indexComponent(Component component) {
+        if (component.getPurl() != null) {
+            componentsByPurl.computeIfAbsent(component.getPurl(), k -> new ArrayList<>(1)).add(component);
+        }
+
+        if (component.getBomRef() != null) {
+            componentsByBomRef.computeIfAbsent(component.getBomRef(), k -> new ArrayList<>(1)).add(component);
+        }
+    }
+
+    private void indexDependencies(List<Dependency> dependencies, boolean topLevel) {
+        for (int i = 0; i < dependencies.size(); i++) {
+            indexDependency(dependencies, i, topLevel);
+        }
+    }
+
+    private void indexDependency(List<Dependency> owner, int position, boolean topLevel) {
+        Dependency dependency = owner.get(position);
+
+        if (dependency.getRef() != null) {
+            dependenciesByRef.computeIfAbsent(dependency.getRef(), k -> new ArrayList<>(1))
+                    .add(new DependencySlot(owner, position, topLevel));
+        }
+
+        if (dependency.getDependencies() != null) {
+            List<Dependency> dependencies = mutable(dependency.getDependencies());
+            dependency.setDependencies(dependencies);
+            indexDependencies(dependencies, false);
+        }
+
+        if (dependency.getProvides() != null) {
+            List<Dependency> provides = mutable(dependency.getProvides());
+            dependency.setProvides(provides);
+            indexDependencies(provides, false);
+        }
+    }
+
+    /**
+     * Moves the indexed component to the new key. Components which are not indexed (the main component) are skipped.
+     */
+    private static void move(Map<String, List<Component>> map, Component component, String oldKey, String newKey) {
+        List<Component> components = map.get(oldKey);
+
+        if (components == null || !components.removeIf(c -> c == component)) {
+            return;
+        }
+
+        if (components.isEmpty()) {
+            map.remove(oldKey);
+        }
+
+        map.computeIfAbsent(newKey, k -> new ArrayList<>(1)).add(component);
+    }
+
+    private static List<Dependency> mutable(List<Dependency> dependencies) {
+        return dependencies instanceof ArrayList ? dependencies : new ArrayList<>(dependencies);
+    }
+}
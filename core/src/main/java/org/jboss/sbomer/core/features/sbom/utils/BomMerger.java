@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Adds components and dependencies of a source {@link Bom} which are missing in a target {@link Bom}.
+ * </p>
+ *
+ * <p>
+ * All components of the target manifest (including nested ones) are indexed by bom-ref once, then the source manifest
+ * is traversed in a single pass. A source component with a bom-ref already found anywhere in the target manifest is
+ * not added again, instead its nested components are merged into the existing component. Other source components
+ * (together with their nested components) are appended to the list corresponding to their location in the source
+ * manifest. Source components without a bom-ref are skipped, as these cannot be identified.
+ * </p>
+ *
+ * <p>
+ * Top-level dependencies are merged by ref in the same way. Nested {@code dependsOn} and {@code provides} entries of a
+ * dependency found in both manifests are merged recursively.
+ * </p>
+ *
+ * <p>
+ * Existing content of the target manifest is never reordered or removed and missing elements are appended in the order
+ * in which these are found in the source manifest, so the result is deterministic. The cost of the merge is linear in
+ * the total number of components and dependencies of both manifests.
+ * </p>
+ */
+@Slf4j
+public class BomMerger {
+
+    private final Map<String, Component> componentsByBomRef = new HashMap<>();
+
+    private final Map<String, Dependency> dependenciesByRef = new HashMap<>();
+
+    private BomMerger() {
+    }
+
+    /**
+     * Adds components and dependencies of the {@code source} manifest missing in the {@code target} manifest.
+     *
+     * @param target the manifest to update
+     * @param source the manifest to take missing components and dependencies from, it is not modified but its elements
+     *        are added to the target manifest without copying
+     */
+    public static void merge(Bom target, Bom source) {
+        BomMerger merger = new BomMerger();
+
+        if (SbomUtils.isNotEmpty(source.getComponents())) {
+            target.setComponents(mutable(target.getComponents()));
+            merger.indexComponents(target.getComponents());
+            merger.mergeComponents(target.getComponents(), source.getComponents());
+        }
+
+        if (SbomUtils.isNotEmpty(source.getDependencies())) {
+            target.setDependencies(mutable(target.getDependencies()));
+            merger.indexDependencies(target.getDependencies());
+            merger.mergeDependencies(target.getDependencies(), source.getDependencies());
+        }
+    }
+
+    private void indexComponents(List<Component> components) {
+        for (Component component : components) {
+            if (component.getBomRef() != null) {
+                componentsByBomRef.putIfAbsent(component.getBomRef(), component);
+            }
+
+            if (component.getComponents() != null) {
+                indexComponents(component.getComponents());
+            }
+        }
+    }
+
+    private void indexDependencies(List<Dependency> dependencies) {
+        for (Dependency dependency : dependencies) {
+            if (dependency.getRef() != null) {
+                dependenciesByRef.putIfAbsent(dependency.getRef(), dependency);
+            }
+        }
+    }
+
+    private void mergeComponents(List<Component> targetComponents, List<Component> sourceComponents) {
+        for (Component component : sourceComponents) {
+            String bomRef = component.getBomRef();
+
+            // Skip if can't uniquely identify component
+            if (bomRef == null) {
+                log.debug(
+                        "Component (of type '{}', cpe: '{}') does not have bom-ref assigned, skipping",
+                        component.getType(),
+                        component.getCpe());
+                continue;
+            }
+
+            Component existingComponent = componentsByBomRef.get(bomRef);
+
+            if (existingComponent == null) {
+                log.debug("Adding missing component (with bom-ref: '{}')", bomRef);
+                targetComponents.add(component);
+                indexComponents(List.of(component));
+            } else if (existingComponent != component && SbomUtils.isNotEmpty(component.getComponents())) {
+                log.debug("Component (with bom-ref: '{}') already exists, adding missing subcomponents", bomRef);
+                existingComponent.setComponents(mutable(existingComponent.getComponents()));
+                mergeComponents(existingComponent.getComponents(), component.getComponents());
+            }
+        }
+    }
+
+    private void mergeDependencies(List<Dependency> targetDependencies, List<Dependency> sourceDependencies) {
+        for (Dependency dependency : sourceDependencies) {
+            String ref = dependency.getRef();
+            Dependency existingDependency = dependenciesByRef.get(ref);
+
+            if (existingDependency == null) {
+                log.debug("Adding missing dependency (with ref: '{}')", ref);
+                targetDependencies.add(dependency);
+                dependenciesByRef.put(ref, dependency);
+            } else if (existingDependency != dependency) {
+                mergeNested(existingDependency, dependency);
+            }
+        }
+    }
+
+    /**
+     * Merges {@code dependsOn} and {@code provides} entries of the source dependency into the target dependency. Only
+     * the (usually short) lists of the target dependency are indexed, and only if there is anything to merge.
+     */
+    private static void mergeNested(Dependency target, Dependency source) {
+        if (SbomUtils.isNotEmpty(source.getDependencies())) {
+            log.debug("Dependency (with ref: '{}') already exists, adding missing sub-dependencies", source.getRef());
+            target.setDependencies(mutable(target.getDependencies()));
+            mergeNested(target.getDependencies(), source.getDependencies());
+        }
+
+        if (SbomUtils.isNotEmpty(source.getProvides())) {
+            log.debug("Dependency (with ref: '{}') already exists, adding missing sub-provides", source.getRef());
+            target.setProvides(mutable(target.getProvides()));
+            mergeNested(target.getProvides(), source.getProvides());
+        }
+    }
+
+    private static void mergeNested(List<Dependency> targetDependencies, List<Dependency> sourceDependencies) {
+        Map<String, Dependency> existing = new HashMap<>();
+        targetDependencies.forEach(dependency -> existing.putIfAbsent(dependency.getRef(), dependency));
+
+        for (Dependency dependency : sourceDependencies) {
+            Dependency existingDependency = existing.get(dependency.getRef());
+
+            if (existingDependency == null) {
+                targetDependencies.add(dependency);
+                existing.put(dependency.getRef(), dependency);
+            } else if (existingDependency != dependency) {
+                mergeNested(existingDependency, dependency);
+            }
+        }
+    }
+
+    private static <T> List<T> mutable(List<T> list) {
+        if (list == null) {
+            return new ArrayList<>();
+        }
+
+        return list instanceof ArrayList ? list : new ArrayList<>(list);
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.generators.json.BomJsonGenerator;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.BomReference;
+import org.cyclonedx.util.mixin.MixInBomReference;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * <p>
+ * Streaming reader and writer of CycloneDX JSON manifests.
+ * </p>
+ *
+ * <p>
+ * Manifests are read directly from an {@link InputStream} or a Jackson {@link JsonParser}, and written directly to an
+ * {@link OutputStream} or a Jackson {@link JsonGenerator}, without building the whole document as a {@link String}
+ * first. This keeps the memory footprint of large manifests (for example multi-arch container images) close to the
+ * size of the {@link Bom} model itself.
+ * </p>
+ *
+ * <p>
+ * When reading, values repeated across the manifest are deduplicated with a {@link StringPool}, so that these are held
+ * in memory only once.
+ * </p>
+ *
+ * <p>
+ * The output is the same as the one produced by {@link BomJsonGenerator#toJsonString()}: the serialization is done
+ * with the {@link ObjectMapper} configured by the CycloneDX generator for the given schema version, with the same
+ * pretty printer and the same {@link BomReference} mixin. Like the generator, the codec sets the {@code bomFormat} and
+ * {@code specVersion} of the written manifest to the ones of the schema version.
+ * </p>
+ */
+public class CycloneDxJsonCodec {
+
+    private static final ObjectMapper READER = new ObjectMapper();
+
+    private CycloneDxJsonCodec() {
+        // This is a utility class
+    }
+
+    /**
+     * Exposes the {@link ObjectMapper} configured by the CycloneDX generator for the given schema version.
+     */
+    private static final class StreamingBomJsonGenerator extends BomJsonGenerator {
+        StreamingBomJsonGenerator(Bom bom, Version version) {
+            super(bom, version);
+        }
+
+        ObjectMapper getObjectMapper() {
+            return mapper;
+        }
+    }
+
+    /**
+     * The serializers registered by the generator depend on the schema version only, so the mapper is created once.
+     * The generator registers the {@link MixInBomReference} only when serializing, so that references are written as
+     * plain strings; it is registered here upfront, before the mapper is used.
+     */
+    private static final class WriterHolder {
+        static final Version VERSION = SbomUtils.schemaVersion();
+
+        static final ObjectMapper MAPPER = new StreamingBomJsonGenerator(new Bom(), VERSION).getObjectMapper()
+                .addMixIn(BomReference.class, MixInBomReference.class);
+
+        /**
+         * Configured in the same way as the pretty printer of {@link BomJsonGenerator}, which puts every array element
+         * on a separate line.
+         */
+        static final DefaultPrettyPrinter PRETTY_PRINTER = new DefaultPrettyPrinter();
+
+        static final Field BOM_FORMAT = bomField("bomFormat");
+
+        static final Field SPEC_VERSION = bomField("specVersion");
+
+        static {
+            PRETTY_PRINTER.indentArraysWith(DefaultIndenter.SYSTEM_LINEFEED_INSTANCE);
+        }
+
+        private static Field bomField(String name) {
+            try {
+                Field field = Bom.class.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                throw new IllegalStateException("Unable to find the '" + name + "' field of the CycloneDX Bom", e);
+            }
+        }
+    }
+
+    /**
+     * Sets the {@code bomFormat} and {@code specVersion} of the manifest, as {@link BomJsonGenerator} does. These have
+     * no setters, so reflection is used, as in the generator.
+     */
+    private static void injectBomFormatAndSpecVersion(Bom bom) throws IOException {
+        try {
+            WriterHolder.BOM_FORMAT.set(bom, "CycloneDX");
+            WriterHolder.SPEC_VERSION.set(bom, WriterHolder.VERSION.getVersionString());
+        } catch (IllegalAccessException e) {
+            throw new IOException("Unable to set the format and the version of the manifest", e);
+        }
+    }
+
+    /**
+     * Returns the textual values of the wrapped parser as instances held by a {@link StringPool}. Field names do not
+     * need this, as these are already canonicalized by Jackson.
+     */
+    private static final class DeduplicatingParser extends JsonParserDelegate {
+        private final StringPool pool;
+
+        DeduplicatingParser(JsonParser parser, StringPool pool) {
+            super(parser);
+            this.pool = pool;
+        }
+
+        @Override
+        public String getText() throws IOException {
+            String text = delegate.getText();
+            return delegate.hasToken(JsonToken.VALUE_STRING) ? pool.canonicalize(text) : text;
+        }
+
+        @Override
+        public String getValueAsString() throws IOException {
+            String text = delegate.getValueAsString();
+            return delegate.hasToken(JsonToken.VALUE_STRING) ? pool.canonicalize(text) : text;
+        }
+
+        @Override
+        public String getValueAsString(String defaultValue) throws IOException {
+            String text = delegate.getValueAsString(defaultValue);
+            return delegate.hasToken(JsonToken.VALUE_STRING) ? pool.canonicalize(text) : text;
+        }
+
+        @Override
+        public String nextTextValue() throws IOException {
+            return pool.canonicalize(delegate.nextTextValue());
+        }
+    }
+
+    /**
+     * Reads the manifest from the provided {@link InputStream}. The stream is not closed. Repeated values are
+     * deduplicated, see {@link StringPool}.
+     *
+     * @param inputStream the stream to read from
+     * @return the manifest
+     * @throws IOException if the content could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(InputStream inputStream) throws IOException {
+        return read(inputStream, new StringPool());
+    }
+
+    /**
+     * Reads the manifest from the provided {@link InputStream}, deduplicating repeated values with the provided
+     * {@link StringPool}. The stream is not closed.
+     *
+     * @param inputStream the stream to read from
+     * @param pool the pool to deduplicate values with
+     * @return the manifest
+     * @throws IOException if the content could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(InputStream inputStream, StringPool pool) throws IOException {
+        JsonParser parser = READER.getFactory().createParser(inputStream);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+        try (parser) {
+            return read(parser, pool);
+        }
+    }
+
+    /**
+     * Reads the manifest from the current position of the provided {@link JsonParser}. Repeated values are
+     * deduplicated, see {@link StringPool}.
+     *
+     * @param parser the parser to read from
+     * @return the manifest
+     * @throws IOException if the content could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(JsonParser parser) throws IOException {
+        return read(parser, new StringPool());
+    }
+
+    /**
+     * Reads the manifest from the current position of the provided {@link JsonParser}, deduplicating repeated values
+     * with the provided {@link StringPool}.
+     *
+     * @param parser the parser to read from
+     * @param pool the pool to deduplicate values with
+     * @return the manifest
+     * @throws IOException if the content could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(JsonParser parser, StringPool pool) throws IOException {
+        return READER.readValue(new DeduplicatingParser(parser, pool), Bom.class);
+    }
+
+    /**
+     * Reads the manifest from the provided file. Repeated values are deduplicated, see {@link StringPool}.
+     *
+     * @param path the path to the manifest
+     * @return the manifest
+     * @throws IOException if the file could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(Path path) throws IOException {
+        return read(path, new StringPool());
+    }
+
+    /**
+     * Reads the manifest from the provided file, deduplicating repeated values with the provided {@link StringPool}.
+     *
+     * @param path the path to the manifest
+     * @param pool the pool to deduplicate values with
+     * @return the manifest
+     * @throws IOException if the file could not be read or is not a valid CycloneDX JSON document
+     */
+    public static Bom read(Path path, StringPool pool) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return read(inputStream, pool);
+        }
+    }
+
+    /**
+     * Reads the manifest from the provided JSON content. Repeated values are deduplicated, see {@link StringPool}.
+     *
+     * @param content the manifest content
+     * @return the manifest
+     * @throws IOException if the content is not a valid CycloneDX JSON document
+     */
+    public static Bom read(String content) throws IOException {
+        try (JsonParser parser = READER.getFactory().createParser(content)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Converts the provided {@link JsonNode} into a manifest without serializing it first. In case the node is a
+     * textual one, its content is parsed.
+     *
+     * @param jsonNode the node to convert
+     * @return the manifest
+     * @throws IOException if the content is not a valid CycloneDX JSON document
+     */
+    public static Bom read(JsonNode jsonNode) throws IOException {
+        if (jsonNode.isTextual()) {
+            try (JsonParser parser = READER.getFactory().createParser(jsonNode.textValue())) {
+                return read(parser);
+            }
+        }
+
+        try (JsonParser parser = READER.treeAsTokens(jsonNode)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Writes the manifest (pretty-printed) into the provided {@link OutputStream}. The stream is not closed.
+     *
+     * @param bom the manifest to write
+     * @param outputStream the stream to write to
+     * @throws IOException if the manifest could not be written
+     */
+    public static void write(Bom bom, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = WriterHolder.MAPPER.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(WriterHolder.PRETTY_PRINTER.createInstance());
+            write(bom, generator);
+        }
+    }
+
+    /**
+     * Writes the manifest using the provided {@link JsonGenerator}. The generator is neither flushed nor closed. The
+     * {@code bomFormat} and {@code specVersion} of the manifest are set to the ones of the schema version.
+     *
+     * @param bom the manifest to write
+     * @param generator the generator to write with
+     * @throws IOException if the manifest could not be written
+     */
+    public static void write(Bom bom, JsonGenerator generator) throws IOException {
+        injectBomFormatAndSpecVersion(bom);
+
+        // Do not use ObjectMapper#writeValue(JsonGenerator, Object) as it flushes the generator
+        WriterHolder.MAPPER.writerFor(Bom.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValue(generator, bom);
+    }
+
+    /**
+     * Writes the manifest (pretty-printed) into the provided file, replacing any existing content.
+     *
+     * @param bom the manifest to write
+     * @param path the path to write the manifest to
+     * @throws IOException if the manifest could not be written
+     */
+    public static void write(Bom bom, Path path) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(bom, outputStream);
+        }
+    }
+
+    /**
+     * Converts the manifest into a {@link JsonNode}, without serializing it into a {@link String} first.
+     *
+     * @param bom the manifest to convert
+     * @return the {@link JsonNode} representation of the manifest
+     * @throws IOException if the manifest could not be converted
+     */
+    public static JsonNode toJsonNode(Bom bom) throws IOException {
+        try (TokenBuffer buffer = new TokenBuffer(WriterHolder.MAPPER, false)) {
+            write(bom, buffer);
+
+            try (JsonParser parser = buffer.asParser()) {
+                return WriterHolder.MAPPER.readTree(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class HashUtils {
+
+    private HashUtils() {
+        // This is a utility class
+    }
+
+    /**
+     * Computes the SHA-256 hash of the compact JSON representation of the provided content.
+     *
+     * @param content the content to hash
+     * @return the hex-encoded SHA-256 hash
+     */
+    public static String hash(JsonNode content) {
+        return sha256(toBytes(content));
+    }
+
+    /**
+     * Converts the content into its compact JSON representation, as used by {@link #hash(JsonNode)}.
+     *
+     * @param content the content to convert
+     * @return the UTF-8 encoded JSON
+     */
+    public static byte[] toBytes(JsonNode content) {
+        try {
+            return ObjectMapperProvider.json().writeValueAsBytes(content);
+        } catch (JsonProcessingException e) {
+            throw new ApplicationException("Unable to convert content to bytes", e);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of the provided bytes.
+     *
+     * @param value the bytes to hash
+     * @return the hex-encoded SHA-256 hash
+     */
+    public static String sha256(byte[] value) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ApplicationException("Unable to find digest algorithm", e);
+        }
+
+        return bytesToHex(digest.digest(value));
+    }
+
+    private static String bytesToHex(byte[] hash) {
+        StringBuilder hexString = new StringBuilder(2 * hash.length);
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
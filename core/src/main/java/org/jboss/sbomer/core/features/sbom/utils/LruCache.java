@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * A small, thread-safe, bounded cache which evicts the least recently used entry once the maximum size is reached.
+ * </p>
+ *
+ * <p>
+ * Values are computed outside of the lock, so a value for the same key may be computed more than once by concurrent
+ * callers; the mapping function is expected to be side-effect free. {@code null} values are cached as well.
+ * </p>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class LruCache<K, V> {
+
+    private static final Object NULL = new Object();
+
+    private final Map<K, Object> entries;
+
+    public LruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+
+        this.entries = new LinkedHashMap<K, Object>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Object> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value for the given key, computing and caching it first if not cached yet.
+     *
+     * @param key the key
+     * @param mappingFunction the function computing the value, may return {@code null}
+     * @return the value, may be {@code null}
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Object cached;
+
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        if (cached == null) {
+            V value = mappingFunction.apply(key);
+            cached = value == null ? NULL : value;
+
+            synchronized (entries) {
+                entries.put(key, cached);
+            }
+        }
+
+        return unwrap(cached);
+    }
+
+    /**
+     * Returns the cached value for the given key.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null} if not cached (or the cached value is {@code null})
+     */
+    public V get(K key) {
+        synchronized (entries) {
+            return unwrap(entries.get(key));
+        }
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, value == null ? NULL : value);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object cached) {
+        return cached == NULL ? null : (V) cached;
+    }
+}
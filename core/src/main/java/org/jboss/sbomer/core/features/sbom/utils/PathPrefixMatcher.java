@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Matches paths against a set of prefixes.
+ * </p>
+ *
+ * <p>
+ * The prefixes are compiled once into a character trie, so that checking a path costs at most one lookup per
+ * character of the path, no matter how many prefixes there are. A path matches if it starts with any of the prefixes,
+ * exactly like {@link String#startsWith(String)} would, which means that the prefixes are not required to end with a
+ * path separator.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ */
+public final class PathPrefixMatcher {
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        boolean terminal;
+    }
+
+    private final Node root = new Node();
+
+    private final boolean empty;
+
+    private PathPrefixMatcher(Collection<String> prefixes) {
+        boolean added = false;
+
+        if (prefixes != null) {
+            for (String prefix : prefixes) {
+                if (prefix == null) {
+                    continue;
+                }
+
+                Node node = root;
+
+                for (int i = 0; i < prefix.length(); i++) {
+                    node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+                }
+
+                node.terminal = true;
+                added = true;
+            }
+        }
+
+        this.empty = !added;
+    }
+
+    /**
+     * Compiles the provided prefixes. {@code null} entries are ignored.
+     *
+     * @param prefixes the prefixes, can be {@code null}
+     * @return the matcher
+     */
+    public static PathPrefixMatcher of(Collection<String> prefixes) {
+        return new PathPrefixMatcher(prefixes);
+    }
+
+    /**
+     * Checks whether there are no prefixes to match against.
+     *
+     * @return {@code true} if no prefixes were provided, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Checks whether the path starts with any of the prefixes.
+     *
+     * @param path the path to check
+     * @return {@code true} if the path starts with any of the prefixes, {@code false} otherwise (including the case
+     *         where there are no prefixes at all or the path is {@code null})
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+
+        Node node = root;
+
+        for (int i = 0; !node.terminal; i++) {
+            if (i == path.length()) {
+                return false;
+            }
+
+            node = node.children.get(path.charAt(i));
+
+            if (node == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
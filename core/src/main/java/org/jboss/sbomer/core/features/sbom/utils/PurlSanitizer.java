@@ -28,8 +28,18 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PurlSanitizer {
 
-    private static final String NAME_VERSION_QKEY_QVALUE = "[^a-zA-Z0-9.+\\-_]";
-    private static final String TYPE_INVALID_CHARS = "[^a-zA-Z0-9.+-]";
+    /**
+     * Characters allowed in names, versions, qualifier keys and values and subpath segments:
+     * {@code [a-zA-Z0-9.+\-_]}. All other characters are replaced with {@code -}.
+     */
+    private static final boolean[] NAME_VERSION_QKEY_QVALUE = allowedChars("._+-");
+
+    /**
+     * Characters allowed in the type: {@code [a-zA-Z0-9.+-]}. All other characters are replaced with {@code -}.
+     */
+    private static final boolean[] TYPE_CHARS = allowedChars(".+-");
+
+    private static final char REPLACEMENT = '-';
 
     private PurlSanitizer() {
         throw new IllegalStateException("This is a utility class that should not be instantiated");
@@ -60,9 +70,9 @@ public class PurlSanitizer {
         // Manually parse and sanitize the PURL components
         try {
             // Split PURL into components
-            String[] purlParts = purl.split("\\?", 2);
-            String mainPart = purlParts[0];
-            String qualifiersPart = purlParts.length > 1 ? purlParts[1] : null;
+            int questionMark = purl.indexOf('?');
+            String mainPart = questionMark >= 0 ? purl.substring(0, questionMark) : purl;
+            String qualifiersPart = questionMark >= 0 ? purl.substring(questionMark + 1) : null;
 
             // Extract scheme
             if (mainPart.startsWith("pkg:")) {
@@ -70,9 +80,9 @@ public class PurlSanitizer {
             }
 
             // Extract subpath if present
-            String[] mainPartSplit = mainPart.split("#", 2);
-            mainPart = mainPartSplit[0];
-            String subpath = mainPartSplit.length > 1 ? mainPartSplit[1] : null;
+            int hash = mainPart.indexOf('#');
+            String subpath = hash >= 0 ? mainPart.substring(hash + 1) : null;
+            mainPart = hash >= 0 ? mainPart.substring(0, hash) : mainPart;
 
             // Extract type, namespace, name, version
             String type;
@@ -127,7 +137,7 @@ public class PurlSanitizer {
     }
 
     public static String sanitizeType(String type) {
-        return type.replaceAll(TYPE_INVALID_CHARS, "-").toLowerCase();
+        return replaceInvalidChars(type, 0, type.length(), TYPE_CHARS, true);
     }
 
     public static String sanitizeNamespace(String namespace) {
@@ -135,23 +145,59 @@ public class PurlSanitizer {
     }
 
     public static String sanitizeName(String name) {
-        return name.replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
+        return replaceInvalidChars(name, NAME_VERSION_QKEY_QVALUE);
     }
 
     public static String sanitizeVersion(String version) {
         if (version == null)
             return null;
-        return version.replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
+        return replaceInvalidChars(version, NAME_VERSION_QKEY_QVALUE);
     }
 
     public static String sanitizeSubpath(String subpath) {
         if (subpath == null)
             return null;
-        String[] segments = subpath.split("/");
-        for (int i = 0; i < segments.length; i++) {
-            segments[i] = segments[i].replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
+
+        // Trailing separators are dropped, as String.split() would do
+        int end = subpath.length();
+        while (end > 0 && subpath.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        StringBuilder sb = null;
+        int start = 0;
+
+        for (int i = 0; i <= end; i++) {
+            if (i < end && subpath.charAt(i) != '/') {
+                continue;
+            }
+
+            String segment = replaceInvalidChars(subpath, start, i, NAME_VERSION_QKEY_QVALUE, false);
+
+            if (sb == null && segment == null) {
+                // Nothing replaced so far
+                start = i + 1;
+                continue;
+            }
+
+            if (sb == null) {
+                sb = new StringBuilder(end).append(subpath, 0, start);
+            }
+
+            sb.append(segment != null ? segment : subpath.substring(start, i));
+
+            if (i < end) {
+                sb.append('/');
+            }
+
+            start = i + 1;
         }
-        return String.join("/", segments);
+
+        if (sb == null) {
+            return end == subpath.length() ? subpath : subpath.substring(0, end);
+        }
+
+        return sb.toString();
     }
 
     public static TreeMap<String, String> sanitizeQualifiers(TreeMap<String, String> qualifiers) { // NOSONAR: This
@@ -163,8 +209,8 @@ public class PurlSanitizer {
         }
         TreeMap<String, String> sanitized = new TreeMap<>();
         for (Map.Entry<String, String> entry : qualifiers.entrySet()) {
-            String key = entry.getKey().replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
-            String value = entry.getValue().replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
+            String key = replaceInvalidChars(entry.getKey(), NAME_VERSION_QKEY_QVALUE);
+            String value = replaceInvalidChars(entry.getValue(), NAME_VERSION_QKEY_QVALUE);
             sanitized.put(key, value);
         }
         return sanitized;
@@ -175,14 +221,85 @@ public class PurlSanitizer {
             return null; // NOSONAR: Should return an empty map, but PackageURL expects null
         }
         TreeMap<String, String> qualifiers = new TreeMap<>();
-        String[] pairs = qualifiersPart.split("&");
-        for (String pair : pairs) {
-            String[] keyValue = pair.split("=", 2);
-            if (keyValue.length == 2) {
-                qualifiers.put(keyValue[0], keyValue[1]);
+        int start = 0;
+        while (start <= qualifiersPart.length()) {
+            int end = qualifiersPart.indexOf('&', start);
+            if (end < 0) {
+                end = qualifiersPart.length();
             }
+            int equals = qualifiersPart.indexOf('=', start);
+            if (equals >= 0 && equals < end) {
+                qualifiers.put(qualifiersPart.substring(start, equals), qualifiersPart.substring(equals + 1, end));
+            }
+            start = end + 1;
         }
         return qualifiers;
     }
 
+    private static boolean[] allowedChars(String extra) {
+        boolean[] allowed = new boolean[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            allowed[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            allowed[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            allowed[c] = true;
+        }
+        for (char c : extra.toCharArray()) {
+            allowed[c] = true;
+        }
+        return allowed;
+    }
+
+    private static String replaceInvalidChars(String value, boolean[] allowed) {
+        String replaced = replaceInvalidChars(value, 0, value.length(), allowed, false);
+        return replaced != null ? replaced : value;
+    }
+
+    /**
+     * Replaces every character between {@code start} and {@code end} which is not allowed with {@code -}. A surrogate
+     * pair is replaced with a single {@code -}, same as a regular expression would do.
+     *
+     * @return the sanitized region, or {@code null} if nothing needed to be replaced (no allocation is done then), with
+     *         the exception of {@code lowerCase} set to {@code true}, which always returns the region
+     */
+    private static String replaceInvalidChars(String value, int start, int end, boolean[] allowed, boolean lowerCase) {
+        StringBuilder sb = null;
+
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            boolean valid = c < 128 && allowed[c];
+            boolean upper = lowerCase && c >= 'A' && c <= 'Z';
+
+            if (valid && !upper) {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                continue;
+            }
+
+            if (sb == null) {
+                sb = new StringBuilder(end - start).append(value, start, i);
+            }
+
+            if (upper) {
+                sb.append((char) (c + ('a' - 'A')));
+            } else {
+                sb.append(REPLACEMENT);
+
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    i++;
+                }
+            }
+        }
+
+        if (sb != null) {
+            return sb.toString();
+        }
+
+        return lowerCase ? value.substring(start, end) : null;
+    }
+
 }
@@ -42,7 +42,6 @@ import static org.jboss.sbomer.core.features.sbom.Constants.SUPPLIER_URL;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -52,6 +51,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -112,6 +112,7 @@ import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.RedHatProductProcessorConfig;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -138,6 +139,16 @@ public class SbomUtils {
 
     private static final String PURL_REDHAT_NPM_NAMESPACE_PREFIX = "@redhat";
 
+    /**
+     * The same purls are found across components and manifests, cache the results of canonicalization and
+     * sanitization, both require parsing of the purl.
+     */
+    private static final int PURL_CACHE_SIZE = 10_000;
+
+    private static final LruCache<String, String> CANONICAL_PURLS = new LruCache<>(PURL_CACHE_SIZE);
+
+    private static final LruCache<String, String> SANITIZED_PURLS = new LruCache<>(PURL_CACHE_SIZE);
+
     private static class HashAlgorithmMapping<T> {
         final Hash.Algorithm algorithm;
         final Function<T, String> getter; // Function takes T and returns String
@@ -647,10 +658,16 @@ public class SbomUtils {
         return metadata;
     }
 
+    /**
+     * Validates the manifest against the CycloneDX schema. Results are cached by the manifest content hash, see
+     * {@link CycloneDxValidationCache}.
+     *
+     * @param jsonNode the manifest to validate
+     * @return the list of validation errors, empty if the manifest is valid
+     * @throws IOException if the content cannot be parsed
+     */
     public static List<ParseException> validate(JsonNode jsonNode) throws IOException {
-        return new JsonParser().validate(
-                jsonNode.isTextual() ? jsonNode.textValue().getBytes() : jsonNode.toString().getBytes(),
-                schemaVersion());
+        return CycloneDxValidationCache.validate(jsonNode);
     }
 
     public static Tool createTool(String version) { // NOSONAR: Tool is deprecated, but this is for legacy support
@@ -679,25 +696,198 @@ public class SbomUtils {
      * duplicates as well.
      * </p>
      *
+     * <p>
+     * The manifest is indexed on every call, use {@link #updatePurl(BomIndex, String, String)} with an index shared
+     * across updates of the same manifest instead.
+     * </p>
+     *
      * @param bom the BOM
      * @param oldPurl the old purl
      * @param newPurl the new purl
      */
     public static void updatePurl(Bom bom, String oldPurl, String newPurl) {
-        // Update main component's purl
-        if (updatePurl(bom.getMetadata().getComponent(), oldPurl, newPurl)) {
-            updateBomRef(bom, bom.getMetadata().getComponent(), oldPurl, newPurl);
+        updatePurl(BomIndex.of(bom), oldPurl, newPurl);
+    }
+
+    /**
+     * For a given {@link BomIndex} update all references for a given purl within the indexed manifest from
+     * {@code oldPurl} to {@code newPurl}. Use this variant when many purls need to be updated in the same manifest, so
+     * that the index is built only once.
+     *
+     * @param index the index of the BOM
+     * @param oldPurl the old purl
+     * @param newPurl the new purl
+     * @see #updatePurl(Bom, String, String)
+     */
+    public static void updatePurl(BomIndex index, String oldPurl, String newPurl) {
+        index.updatePurl(oldPurl, newPurl);
+    }
+
+    /**
+     * <p>
+     * For a given {@link Bom} update all references for every purl found in the {@code relocations} map (old purl to
+     * new purl) in a single traversal of the components and the dependency tree.
+     * </p>
+     *
+     * <p>
+     * This is equivalent to calling {@link #updatePurl(Bom, String, String)} for every entry, but the dependency tree
+     * is rewritten only once. Relocations are applied simultaneously, meaning that a purl is relocated at most once,
+     * even if its new purl is a key in the map too.
+     * </p>
+     *
+     * <p>
+     * The bom-ref of a relocated component is updated only if it is equal to the old purl and the new purl is not
+     * used as a ref by another component or top-level dependency, which keeps its ref. Refs of relocated components
+     * are vacated, so chained relocations (for example A to B and B to C) update all refs. Otherwise the relocation is
+     * reported as a collision: the purl is still updated, but the bom-ref and the dependency tree are left untouched so
+     * that the manifest stays valid.
+     * </p>
+     *
+     * <p>
+     * The manifest is indexed on every call, use {@link #updatePurls(BomIndex, Map)} with an index shared across the
+     * whole processing of the manifest instead.
+     * </p>
+     *
+     * @param bom the BOM
+     * @param relocations the map of old purls to new purls
+     * @return the bom-ref relocations applied to the dependency tree
+     */
+    public static Map<String, String> updatePurls(Bom bom, Map<String, String> relocations) {
+        if (relocations == null || relocations.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return updatePurls(BomIndex.of(bom), relocations);
+    }
+
+    /**
+     * For a given {@link BomIndex} update all references for every purl found in the {@code relocations} map (old purl
+     * to new purl) within the indexed manifest. The index is kept consistent with the manifest.
+     *
+     * @param index the index of the BOM
+     * @param relocations the map of old purls to new purls
+     * @return the bom-ref relocations applied to the dependency tree
+     * @see #updatePurls(Bom, Map)
+     */
+    public static Map<String, String> updatePurls(BomIndex index, Map<String, String> relocations) {
+        if (relocations == null || relocations.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Bom bom = index.getBom();
+        List<Component> components = new ArrayList<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            components.add(bom.getMetadata().getComponent());
         }
 
-        // If we have any components (we really should!) then update these purls as well
         if (bom.getComponents() != null) {
-            // Update all components' purls (if needed)
-            bom.getComponents().forEach(c -> {
-                if (updatePurl(c, oldPurl, newPurl)) {
-                    updateBomRef(bom, c, oldPurl, newPurl);
+            components.addAll(bom.getComponents());
+        }
+
+        Map<String, String> refRelocations = refRelocations(bom, components, relocations);
+
+        for (Component component : components) {
+            relocatePurl(index, component, relocations, refRelocations);
+        }
+
+        index.updateDependencyRefs(refRelocations);
+
+        return refRelocations;
+    }
+
+    /**
+     * Decides which bom-refs are relocated together with the purls. Refs of components which are relocated themselves
+     * are vacated, so that chained relocations (for example A to B and B to C) move all refs. A relocation which would
+     * collide with a ref staying in place keeps its old ref, which in turn may make other relocations collide, so the
+     * decision is repeated until no more refs stay in place.
+     */
+    private static Map<String, String> refRelocations(
+            Bom bom,
+            List<Component> components,
+            Map<String, String> relocations) {
+        Map<String, String> candidates = new LinkedHashMap<>();
+
+        for (Component component : components) {
+            String oldPurl = component.getPurl();
+            String newPurl = oldPurl != null ? relocations.get(oldPurl) : null;
+
+            if (newPurl != null && !newPurl.equals(oldPurl) && oldPurl.equals(component.getBomRef())) {
+                candidates.put(oldPurl, newPurl);
+            }
+        }
+
+        Set<String> existingRefs = new HashSet<>();
+
+        if (bom.getDependencies() != null) {
+            bom.getDependencies().forEach(d -> existingRefs.add(d.getRef()));
+        }
+
+        components.forEach(c -> existingRefs.add(c.getBomRef()));
+
+        Set<String> vacatedRefs = new HashSet<>(candidates.keySet());
+        Map<String, String> refRelocations;
+        boolean stable;
+
+        do {
+            Set<String> usedRefs = new HashSet<>(existingRefs);
+            usedRefs.removeAll(vacatedRefs);
+            refRelocations = new HashMap<>();
+            stable = true;
+
+            for (Map.Entry<String, String> candidate : candidates.entrySet()) {
+                if (!vacatedRefs.contains(candidate.getKey())) {
+                    continue;
                 }
-            });
+
+                // There might be cases (mainly for components detected by Syft) where the same purl is duplicated
+                // across components (which have different bom-refs). So, we need to check if there are not already
+                // components or dependencies having the bom-ref equals to the new purl before updating it.
+                // Otherwise, we would have bom validation errors.
+                if (usedRefs.add(candidate.getValue())) {
+                    refRelocations.put(candidate.getKey(), candidate.getValue());
+                } else {
+                    vacatedRefs.remove(candidate.getKey());
+                    stable = false;
+                }
+            }
+        } while (!stable);
+
+        return refRelocations;
+    }
+
+    private static void relocatePurl(
+            BomIndex index,
+            Component component,
+            Map<String, String> relocations,
+            Map<String, String> refRelocations) {
+        String oldPurl = component.getPurl();
+
+        if (oldPurl == null) {
+            return;
         }
+
+        String newPurl = relocations.get(oldPurl);
+
+        if (newPurl == null || newPurl.equals(oldPurl)) {
+            return;
+        }
+
+        index.setPurl(component, newPurl);
+
+        if (!oldPurl.equals(component.getBomRef())) {
+            return;
+        }
+
+        if (!newPurl.equals(refRelocations.get(oldPurl))) {
+            log.warn(
+                    "Cannot update bom-ref '{}' to '{}', the new ref is already used in the manifest, updating purl only",
+                    oldPurl,
+                    newPurl);
+            return;
+        }
+
+        index.setBomRef(component, newPurl);
     }
 
     /**
@@ -722,29 +912,35 @@ public class SbomUtils {
      * Updates the bom-ref for the given component, and update the refs in the dependency hierarchy, looking for nested
      * dependencies and provides.
      *
+     * <p>
+     * The manifest is indexed on every call, use {@link #updateBomRef(BomIndex, Component, String, String)} with an
+     * index shared across updates of the same manifest instead.
+     * </p>
+     *
+     * @param bom the BOM
      * @param component the component to update the bom-ref for
+     * @param oldRef the old reference
      * @param newRef the new reference
      */
     public static void updateBomRef(Bom bom, Component component, String oldRef, String newRef) {
-        // Update the BOM reference of the component.
+        updateBomRef(BomIndex.of(bom), component, oldRef, newRef);
+    }
+
+    /**
+     * Updates the bom-ref for the given component, and update the refs in the dependency hierarchy of the indexed
+     * manifest.
+     *
+     * @param index the index of the BOM
+     * @param component the component to update the bom-ref for
+     * @param oldRef the old reference
+     * @param newRef the new reference
+     * @see BomIndex#updateBomRef(Component, String, String)
+     */
+    public static void updateBomRef(BomIndex index, Component component, String oldRef, String newRef) {
         // There might be cases (mainly for components detected by Syft) where the same purl is duplicated across
         // components (which have different bom-refs). So, we need to check if there are not already dependencies having
         // the bom-ref equals to the new purl before updating it. Otherwise, we would have bom validation errors.
-        if (oldRef.equals(component.getBomRef())
-                && !bom.getDependencies().stream().map(Dependency::getRef).toList().contains(newRef)) {
-
-            component.setBomRef(newRef);
-
-            // Recursively update the dependencies in the BOM
-            if (bom.getDependencies() != null) {
-                List<Dependency> updatedDependencies = new ArrayList<>(bom.getDependencies().size());
-                for (Dependency dependency : bom.getDependencies()) {
-                    Dependency updatedDependency = updateDependencyRef(dependency, oldRef, newRef);
-                    updatedDependencies.add(updatedDependency);
-                }
-                bom.setDependencies(updatedDependencies);
-            }
-        }
+        index.updateBomRef(component, oldRef, newRef);
     }
 
     public static Dependency updateDependencyRef(Dependency dependency, String oldRef, String newRef) {
@@ -977,10 +1173,29 @@ public class SbomUtils {
         }
     }
 
+    /**
+     * Finds the first top-level component with the given purl. This scans all components of the manifest, use
+     * {@link #findComponentWithPurl(String, BomIndex)} for repeated lookups in the same manifest.
+     *
+     * @param purl the purl
+     * @param bom the BOM
+     * @return the first component with the given purl, if any
+     */
     public static Optional<Component> findComponentWithPurl(String purl, Bom bom) {
         return bom.getComponents().stream().filter(c -> c.getPurl().equals(purl)).findFirst();
     }
 
+    /**
+     * Finds the first top-level component with the given purl in the indexed manifest.
+     *
+     * @param purl the purl
+     * @param index the index of the BOM
+     * @return the first component with the given purl, if any
+     */
+    public static Optional<Component> findComponentWithPurl(String purl, BomIndex index) {
+        return index.findComponentWithPurl(purl);
+    }
+
     public static boolean hasProperty(Component component, String property) {
         return component.getProperties() != null
                 && component.getProperties().stream().anyMatch(c -> c.getName().equals(property));
@@ -1135,8 +1350,12 @@ public class SbomUtils {
      * @return {@link JsonNode} representation of the {@link Bom}.
      */
     public static JsonNode toJsonNode(Bom bom) {
-        BomJsonGenerator generator = BomGeneratorFactory.createJson(SbomUtils.schemaVersion(), bom);
-        return generator.toJsonNode();
+        try {
+            return CycloneDxJsonCodec.toJsonNode(bom);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
     }
 
     /**
@@ -1163,9 +1382,8 @@ public class SbomUtils {
         }
 
         try {
-            final String content = jsonNode.isTextual() ? jsonNode.textValue() : jsonNode.toString();
-            return new JsonParser().parse(content.getBytes(UTF_8));
-        } catch (ParseException e) {
+            return CycloneDxJsonCodec.read(jsonNode);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
             return null;
         }
@@ -1207,9 +1425,22 @@ public class SbomUtils {
     }
 
     public static Bom fromPath(Path path) {
+        return fromPath(path, new StringPool());
+    }
+
+    /**
+     * Reads the manifest from the provided file, deduplicating repeated values with the provided {@link StringPool}.
+     * Sharing the pool when reading multiple related manifests (for example manifests of all variants of a multi-arch
+     * container image) deduplicates values across all of these.
+     *
+     * @param path the path to the manifest
+     * @param pool the pool to deduplicate values with
+     * @return the manifest or {@code null} in case it could not be read
+     */
+    public static Bom fromPath(Path path, StringPool pool) {
         try {
-            return new JsonParser().parse(path.toFile());
-        } catch (ParseException e) {
+            return CycloneDxJsonCodec.read(path, pool);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
             return null;
         }
@@ -1217,16 +1448,16 @@ public class SbomUtils {
 
     public static void toPath(Bom bom, Path path) {
         try {
-            Files.writeString(path, SbomUtils.toJson(bom));
-        } catch (IOException | GeneratorException e) {
+            CycloneDxJsonCodec.write(bom, path);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
         }
     }
 
     public static Bom fromString(String bomStr) {
         try {
-            return new JsonParser().parse(bomStr.getBytes(UTF_8));
-        } catch (ParseException e) {
+            return CycloneDxJsonCodec.read(bomStr);
+        } catch (IOException e) {
             log.error(e.getMessage(), e);
             return null;
         }
@@ -1538,12 +1769,18 @@ public class SbomUtils {
     }
 
     public static String sanitizePurl(String purl) {
-        try {
-            return PurlSanitizer.sanitizePurl(purl);
-        } catch (Exception e) {
-            log.debug("Failed to sanitize purl {}", purl, e);
+        if (purl == null) {
             return null;
         }
+
+        return SANITIZED_PURLS.computeIfAbsent(purl, p -> {
+            try {
+                return PurlSanitizer.sanitizePurl(p);
+            } catch (Exception e) {
+                log.debug("Failed to sanitize purl {}", p, e);
+                return null;
+            }
+        });
     }
 
     private static String rebuildPurl(Component component) {
@@ -1610,13 +1847,15 @@ public class SbomUtils {
             return purl;
         }
 
-        try {
-            PackageURL packageURL = new PackageURL(purl);
-            return packageURL.toString();
-        } catch (MalformedPackageURLException | IllegalArgumentException e) {
-            log.warn("Purl '{}' could not be canonicalized", purl, e);
-            return purl;
-        }
+        return CANONICAL_PURLS.computeIfAbsent(purl, p -> {
+            try {
+                PackageURL packageURL = new PackageURL(p);
+                return packageURL.toString();
+            } catch (MalformedPackageURLException | IllegalArgumentException e) {
+                log.warn("Purl '{}' could not be canonicalized", p, e);
+                return p;
+            }
+        });
     }
 
     /**
@@ -1733,144 +1972,14 @@ public class SbomUtils {
     }
 
     /**
-     * Add missing components from one manifest to another
-     *
-     * @param targetComponents the target manifest components
-     * @param sourceComponents the source manifest components
-     */
-    private static void addMissingComponents(List<Component> targetComponents, List<Component> sourceComponents) {
-        Map<String, Component> mergedComponents = new HashMap<>();
-        for (Component component : targetComponents) {
-            // Skip if can't uniquely identify component
-            if (bomRefExists(component)) {
-                mergedComponents.put(component.getBomRef(), component);
-            }
-        }
-        targetComponents.clear();
-        for (Component component : sourceComponents) {
-            // Skip if can't uniquely identify component
-            if (bomRefExists(component)) {
-                String bomRef = component.getBomRef();
-                Component existingComponent = mergedComponents.get(bomRef);
-                // Duplicate found, see if we have any missing subcomponents
-                if (existingComponent != null) {
-                    log.debug("Component (with bom-ref: '{}') already exists, adding missing subcomponents", bomRef);
-                    List<Component> subComponents = component.getComponents();
-                    // Pointless proceeding unless there are subcomponents from the source manifest
-                    if (isNotEmpty(subComponents)) {
-                        adjustEmptySubComponents(existingComponent);
-                        addMissingComponents(existingComponent.getComponents(), subComponents);
-                    }
-                } else {
-                    log.debug("Adding missing component (with bom-ref: '{}')", bomRef);
-                    mergedComponents.put(bomRef, component);
-                }
-            }
-        }
-        targetComponents.addAll(mergedComponents.values());
-    }
-
-    /**
-     * Add missing dependencies from one manifest to another
+     * Adds components and dependencies of the source manifest which are missing in the target manifest, keeping the
+     * order of the existing elements. See {@link BomMerger} for details.
      *
-     * @param targetDependencies the target manifest dependencies
-     * @param sourceDependencies the source manifest dependencies
+     * @param targetBom the manifest to update
+     * @param sourceBom the manifest to take missing components and dependencies from
      */
-    private static void addMissingDependencies(
-            List<Dependency> targetDependencies,
-            List<Dependency> sourceDependencies) {
-        Map<String, Dependency> mergedDependencies = new HashMap<>();
-        for (Dependency dependency : targetDependencies) {
-            mergedDependencies.put(dependency.getRef(), dependency);
-        }
-        targetDependencies.clear();
-        for (Dependency dependency : sourceDependencies) {
-            String ref = dependency.getRef();
-            Dependency existingDependency = mergedDependencies.get(ref);
-            // Duplicate found, see if we have any missing sub-dependencies
-            if (existingDependency != null) {
-                log.debug("Dependency (with ref: '{}') already exists, adding missing sub-dependencies", ref);
-                List<Dependency> subDependencies = dependency.getDependencies();
-                // Pointless proceeding unless there are sub-dependencies from source manifest
-                if (isNotEmpty(subDependencies)) {
-                    adjustEmptySubDependencies(existingDependency);
-                    addMissingDependencies(existingDependency.getDependencies(), subDependencies);
-                }
-                List<Dependency> subProvides = dependency.getProvides();
-                // Pointless proceeding unless there are sub-provides from source manifest
-                if (isNotEmpty(subProvides)) {
-                    adjustEmptySubProvides(existingDependency);
-                    addMissingDependencies(existingDependency.getProvides(), subProvides);
-                }
-            } else {
-                log.debug("Adding missing dependency (with ref: '{}')", ref);
-                mergedDependencies.put(ref, dependency);
-            }
-        }
-        targetDependencies.addAll(mergedDependencies.values());
-    }
-
     public static void addMissingComponentsAndDependencies(Bom targetBom, Bom sourceBom) {
-        List<Component> sourcesComponents = sourceBom.getComponents();
-        // Pointless proceeding unless there are components in source manifest
-        if (isNotEmpty(sourcesComponents)) {
-            addMissingComponents(targetBom.getComponents(), sourcesComponents);
-        }
-        List<Dependency> sourcesDependencies = sourceBom.getDependencies();
-        // Pointless proceeding unless there are dependencies in source manifest
-        if (isNotEmpty(sourcesDependencies)) {
-            addMissingDependencies(targetBom.getDependencies(), sourcesDependencies);
-        }
-    }
-
-    /**
-     * Verify if component bom-ref exists
-     *
-     * @param component the component
-     * @return {@code true} if bom-ref exists, {@code false} otherwise
-     */
-    private static boolean bomRefExists(Component component) {
-        if (component.getBomRef() == null) {
-            log.debug(
-                    "Component (of type '{}', cpe: '{}') does not have bom-ref assigned, skipping",
-                    component.getType(),
-                    component.getCpe());
-            return false;
-        }
-        return true;
-    }
-
-    /**
-     * If the subcomponents are null, initialize an empty list
-     *
-     * @param component the component to adjust
-     */
-    private static void adjustEmptySubComponents(Component component) {
-        if (component.getComponents() == null) {
-            component.setComponents(new ArrayList<>());
-        }
-    }
-
-    /**
-     * If the sub-dependencies are null, initialize an empty list
-     *
-     * @param dependency the dependency to adjust
-     */
-    private static void adjustEmptySubDependencies(Dependency dependency) {
-        if (dependency.getDependencies() == null) {
-            dependency.setDependencies(new ArrayList<>());
-        }
-    }
-
-    /**
-     * If the sub-provides are null, initialize an empty list
-     *
-     * @param dependency the dependency to adjust
-     */
-    private static void adjustEmptySubProvides(Dependency dependency) {
-        if (dependency.getProvides() == null) {
-            dependency.setProvides(new ArrayList<>());
-        }
+        BomMerger.merge(targetBom, sourceBom);
     }
 
     /**
@@ -1976,17 +2085,34 @@ public class SbomUtils {
      * @param updateComponentPurl if true, also update the component.purl field (controlled by feature flag)
      */
     public static void setPurlVersionFromGeneric(Component c, boolean updateComponentPurl) {
-        setPurlVersionFromGeneric(null, c, updateComponentPurl);
+        setPurlVersionFromGeneric((BomIndex) null, c, updateComponentPurl);
     }
 
     /**
      * Set the version of a generic PURL by extracting it from the filename.
      *
+     * <p>
+     * The manifest is indexed on every call which may update the component purl, use
+     * {@link #setPurlVersionFromGeneric(BomIndex, Component, boolean)} with an index shared across updates of the same
+     * manifest instead.
+     * </p>
+     *
      * @param bom the BOM containing the component (optional, for dependency updates)
      * @param c the component to update
      * @param updateComponentPurl if true, also update the component.purl field (controlled by feature flag)
      */
     public static void setPurlVersionFromGeneric(Bom bom, Component c, boolean updateComponentPurl) {
+        setPurlVersionFromGeneric(bom != null && updateComponentPurl ? BomIndex.of(bom) : null, c, updateComponentPurl);
+    }
+
+    /**
+     * Set the version of a generic PURL by extracting it from the filename.
+     *
+     * @param index the index of the BOM containing the component (optional, for dependency updates)
+     * @param c the component to update
+     * @param updateComponentPurl if true, also update the component.purl field (controlled by feature flag)
+     */
+    public static void setPurlVersionFromGeneric(BomIndex index, Component c, boolean updateComponentPurl) {
         // Grab toplevel and evidence purls
         final Optional<PackageURL> topLevelPurl = Optional.ofNullable(c.getPurl()).map(purl -> {
             try {
@@ -2100,14 +2226,18 @@ public class SbomUtils {
                             }
 
                             // Update the component purl
-                            c.setPurl(newPurl);
+                            if (index != null) {
+                                index.setPurl(c, newPurl);
+                            } else {
+                                c.setPurl(newPurl);
+                            }
                             log.debug("Updated component purl from {} to {}", oldPurl, newPurl);
 
                             // Update bomRef and dependencies if bomRef was set
                             if (bomRefMatches) {
-                                if (bom != null) {
+                                if (index != null) {
                                     // Use updateBomRef to propagate changes to dependencies
-                                    SbomUtils.updateBomRef(bom, c, bomRef, newPurl);
+                                    SbomUtils.updateBomRef(index, c, bomRef, newPurl);
                                 } else {
                                     // Fallback: just update the component's bomRef
                                     c.setBomRef(newPurl);
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A bounded pool of canonical {@link String} instances.
+ * </p>
+ *
+ * <p>
+ * Manifests repeat the same values many times: property names and values (for example
+ * {@code syft:location:0:path} or layer digests), hash algorithms, purl types, license identifiers or external
+ * reference URLs. Without deduplication, every occurrence is a separate {@link String} retained by the parsed
+ * {@link org.cyclonedx.model.Bom}. Replacing every value with the instance held in this pool leaves a single copy of
+ * each value.
+ * </p>
+ *
+ * <p>
+ * The pool is bounded: once it holds {@code maxSize} values, new values are not added anymore (but the existing ones
+ * are still returned). Values longer than {@code maxLength} characters (such as license texts or descriptions) are not
+ * pooled at all. The pool is not thread-safe; a single pool can be shared when reading multiple manifests
+ * sequentially, which deduplicates values across these manifests too.
+ * </p>
+ */
+public class StringPool {
+
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+
+    public static final int DEFAULT_MAX_LENGTH = 256;
+
+    private final Map<String, String> strings = new HashMap<>();
+
+    private final int maxSize;
+
+    private final int maxLength;
+
+    private long hits;
+
+    public StringPool() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_LENGTH);
+    }
+
+    public StringPool(int maxSize, int maxLength) {
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the canonical instance equal to the provided value, adding the value to the pool if there is none yet.
+     *
+     * @param value the value
+     * @return the canonical instance, or the provided value if it is not pooled
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+
+        String existing = strings.get(value);
+
+        if (existing != null) {
+            hits++;
+            return existing;
+        }
+
+        if (strings.size() < maxSize) {
+            strings.put(value, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the number of distinct values in the pool.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * Returns how many times a value was replaced with an instance from the pool, i.e. how many duplicate
+     * {@link String} instances were avoided.
+     *
+     * @return the number of deduplicated values
+     */
+    public long getHits() {
+        return hits;
+    }
+}
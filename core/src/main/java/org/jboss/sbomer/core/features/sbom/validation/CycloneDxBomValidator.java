@@ -17,14 +17,11 @@
  */
 package org.jboss.sbomer.core.features.sbom.validation;
 
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.schemaVersion;
-
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
 import org.cyclonedx.exception.ParseException;
-import org.cyclonedx.parsers.JsonParser;
 import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,9 +40,7 @@ public class CycloneDxBomValidator implements ConstraintValidator<CycloneDxBom,
         List<ParseException> exceptions;
 
         try {
-            exceptions = new JsonParser().validate(
-                    value.isTextual() ? value.textValue().getBytes() : value.toString().getBytes(),
-                    schemaVersion());
+            exceptions = CycloneDxValidationCache.validate(value);
 
             if (exceptions.isEmpty()) {
                 return true;
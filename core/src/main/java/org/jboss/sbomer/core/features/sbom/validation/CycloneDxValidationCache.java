@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.validation;
+
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.schemaVersion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.utils.HashUtils;
+import org.jboss.sbomer.core.features.sbom.utils.LruCache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Caches results of the CycloneDX schema validation of manifests, keyed by the SHA-256 hash of the manifest content
+ * (see {@link HashUtils#hash(JsonNode)}).
+ * </p>
+ *
+ * <p>
+ * Validating a large manifest against the CycloneDX schema is expensive, while the same, unchanged, content is
+ * validated many times (for example every time an entity holding the manifest is updated). The cache is bounded and
+ * evicts least recently used entries.
+ * </p>
+ */
+@Slf4j
+public class CycloneDxValidationCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private static final LruCache<String, List<ParseException>> RESULTS = new LruCache<>(MAX_ENTRIES);
+
+    private CycloneDxValidationCache() {
+        // This is a utility class
+    }
+
+    /**
+     * Computes the hash used as the cache key for the given manifest. For textual nodes the text itself is hashed.
+     *
+     * @param manifest the manifest
+     * @return the hex-encoded SHA-256 hash
+     */
+    public static String hash(JsonNode manifest) {
+        return HashUtils.sha256(toBytes(manifest));
+    }
+
+    /**
+     * Validates the manifest against the CycloneDX schema, unless a manifest with the same content was validated
+     * before.
+     *
+     * @param manifest the manifest to validate
+     * @return the list of validation errors, empty if the manifest is valid
+     * @throws IOException if the content cannot be parsed
+     */
+    public static List<ParseException> validate(JsonNode manifest) throws IOException {
+        byte[] content = toBytes(manifest);
+        String hash = HashUtils.sha256(content);
+
+        List<ParseException> result = RESULTS.get(hash);
+
+        if (result != null) {
+            log.debug("Manifest with hash '{}' was already validated, skipping validation", hash);
+            return result;
+        }
+
+        result = List.copyOf(new JsonParser().validate(content, schemaVersion()));
+        RESULTS.put(hash, result);
+
+        return result;
+    }
+
+    /**
+     * Records that the manifest with the given hash is known to be valid, for example because it was validated and
+     * stored before and the content has not changed since.
+     *
+     * @param hash the hash of the manifest, see {@link #hash(JsonNode)}
+     */
+    public static void markValid(String hash) {
+        RESULTS.put(hash, List.of());
+    }
+
+    /**
+     * Removes all cached validation results.
+     */
+    public static void clear() {
+        RESULTS.clear();
+    }
+
+    private static byte[] toBytes(JsonNode manifest) {
+        if (manifest.isTextual()) {
+            return manifest.textValue().getBytes(StandardCharsets.UTF_8);
+        }
+
+        return HashUtils.toBytes(manifest);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.pnc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+
+/**
+ * <p>
+ * Criteria to look up an {@link Artifact} in PNC. An artifact matches if any of the provided values (purl or one of the
+ * hashes) matches, values which are {@code null} are ignored.
+ * </p>
+ *
+ * <p>
+ * Used as the key of results of {@link PncService#getArtifacts(java.util.Collection)}.
+ * </p>
+ *
+ * @param purl the purl of the artifact
+ * @param sha256 the SHA-256 hash of the artifact
+ * @param sha1 the SHA-1 hash of the artifact
+ * @param md5 the MD5 hash of the artifact
+ */
+public record ArtifactQuery(String purl, String sha256, String sha1, String md5) {
+
+    private static final String NPM_REDHAT_SCOPE = "pkg:npm/%40redhat/";
+
+    /**
+     * Creates a query from the (optional) values used by the processors.
+     *
+     * @param purl the purl of the artifact, can be {@code null}
+     * @param sha256 the SHA-256 hash of the artifact
+     * @param sha1 the SHA-1 hash of the artifact
+     * @param md5 the MD5 hash of the artifact
+     * @return the query
+     */
+    public static ArtifactQuery of(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
+        return new ArtifactQuery(purl, sha256.orElse(null), sha1.orElse(null), md5.orElse(null));
+    }
+
+    /**
+     * Checks whether there is at least one value to search with.
+     *
+     * @return {@code true} if a purl or any hash is provided, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return purl == null && sha256 == null && sha1 == null && md5 == null;
+    }
+
+    /**
+     * Converts the query into an RSQL expression where all conditions are OR-ed.
+     *
+     * @return the RSQL expression
+     */
+    public String toRsql() {
+        List<String> query = new ArrayList<>(4);
+
+        // Purl was provided, so let's use it, hashes will be used to filter out results, if there are multiple
+        // artifacts returned
+        if (purl != null) {
+            // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
+            if (purl.startsWith(NPM_REDHAT_SCOPE)) {
+                query.add("purl=like=\"" + purl.replace(NPM_REDHAT_SCOPE, "pkg:npm/?40redhat/") + "\"");
+            } else {
+                query.add("purl==\"" + purl + "\"");
+            }
+        }
+
+        if (sha256 != null) {
+            query.add("sha256==" + sha256);
+        }
+
+        if (sha1 != null) {
+            query.add("sha1==" + sha1);
+        }
+
+        if (md5 != null) {
+            query.add("md5==" + md5);
+        }
+
+        return String.join(",", query);
+    }
+
+    /**
+     * Checks whether the artifact would be returned by the {@link #toRsql()} query.
+     *
+     * @param artifact the artifact to check
+     * @return {@code true} if the artifact matches any of the provided values, {@code false} otherwise
+     */
+    public boolean matches(Artifact artifact) {
+        return (purl != null && purl.equals(artifact.getPurl()))
+                || (sha256 != null && sha256.equals(artifact.getSha256()))
+                || (sha1 != null && sha1.equals(artifact.getSha1()))
+                || (md5 != null && md5.equals(artifact.getMd5()));
+    }
+}
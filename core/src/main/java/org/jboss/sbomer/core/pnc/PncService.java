@@ -17,12 +17,18 @@
  */
 package org.jboss.sbomer.core.pnc;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
@@ -51,6 +57,11 @@ import org.jboss.pnc.dto.requests.DeliverablesAnalysisRequest;
 import org.jboss.pnc.dto.response.AnalyzedArtifact;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.utils.LookupCache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -61,6 +72,21 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PncService {
 
+    /**
+     * Maximum number of {@link ArtifactQuery queries} combined into a single request.
+     */
+    public static final int ARTIFACT_BATCH_SIZE = 100;
+
+    /**
+     * Maximum length of a combined RSQL query, as it is sent (URL-encoded) as a query parameter.
+     */
+    public static final int MAX_RSQL_LENGTH = 6000;
+
+    /**
+     * Length of the URL-encoded separator ({@code ,}) of OR-ed RSQL expressions.
+     */
+    private static final int ENCODED_SEPARATOR_LENGTH = encodedLength(",");
+
     @Getter
     final String apiUrl;
 
@@ -80,8 +106,42 @@ public class PncService {
 
     final DeliverableAnalyzerReportClient deliverableAnalyzerReportClient;
 
+    @Getter
+    final LookupCache cache;
+
+    final LookupCache.Region<Artifact> artifactCache;
+
+    final LookupCache.Region<Build> buildCache;
+
+    final LookupCache.Region<List<Artifact>> npmDependenciesCache;
+
     public PncService(String apiUrl) {
+        this(apiUrl, LookupCache.disabled());
+    }
+
+    /**
+     * Creates the service which caches results of artifact and build lookups in the provided {@link LookupCache}.
+     * Artifacts with a SHA-256 hash and builds in a final state are considered immutable.
+     *
+     * @param apiUrl the PNC host
+     * @param cache the cache to use
+     */
+    public PncService(String apiUrl, LookupCache cache) {
         this.apiUrl = apiUrl;
+        this.cache = cache;
+
+        ObjectMapper mapper = ObjectMapperProvider.json()
+                .copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        artifactCache = cache.region("pnc-artifacts", Artifact.class, mapper, a -> a.getSha256() != null);
+        buildCache = cache
+                .region("pnc-builds", Build.class, mapper, b -> b.getStatus() != null && b.getStatus().isFinal());
+        npmDependenciesCache = cache.region(
+                "pnc-npm-dependencies",
+                mapper.getTypeFactory().constructCollectionType(List.class, Artifact.class),
+                mapper,
+                d -> false);
 
         artifactClient = new ArtifactClient(getConfiguration());
         buildClient = new BuildClient(getConfiguration());
@@ -129,6 +189,10 @@ public class PncService {
      * @return The {@link Build} object or {@code null} in case the {@link Build} could not be found.
      */
     public Build getBuild(String buildId) {
+        return buildCache.get(buildId, () -> fetchBuild(buildId));
+    }
+
+    private Build fetchBuild(String buildId) {
         log.debug("Fetching Build from PNC with id '{}'", buildId);
         try {
             return buildClient.getSpecific(buildId);
@@ -355,64 +419,146 @@ public class PncService {
 
     // FIXME: 'Optional<String>' used as a type parameter
     public Artifact getArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
-        if (purl == null && sha256.orElse(null) == null && sha1.orElse(null) == null && md5.orElse(null) == null) {
+        ArtifactQuery artifactQuery = ArtifactQuery.of(purl, sha256, sha1, md5);
+
+        if (artifactQuery.isEmpty()) {
             log.debug("No meaningful values provided for searching an artifact, returning nothing");
 
             return null;
         }
 
-        List<String> query = new ArrayList<>();
+        String rsql = artifactQuery.toRsql();
+
+        return artifactCache.get(rsql, () -> {
+            log.debug("Using following rsql query to search for an artifact: '{}'", rsql);
+
+            return selectArtifact(queryArtifacts(rsql));
+        });
+    }
+
+    /**
+     * <p>
+     * Looks up artifacts for many queries at once. Queries are OR-ed into RSQL expressions of at most
+     * {@link #ARTIFACT_BATCH_SIZE} queries (and {@link #MAX_RSQL_LENGTH} characters once URL-encoded), so that a
+     * single request to PNC is made for every chunk instead of for every query.
+     * </p>
+     *
+     * <p>
+     * Returned artifacts are mapped back to every query they match (a chunk with a single query gets all returned
+     * artifacts, as with {@link #getArtifact(String, Optional, Optional, Optional)}). If there are multiple artifacts
+     * matching a query, the same rule as in {@link #getArtifact(String, Optional, Optional, Optional)} is used to
+     * select one: the first artifact associated with a build is preferred, otherwise the newest one is selected.
+     * </p>
+     *
+     * <p>
+     * Queries with results in the {@link LookupCache} are not sent to PNC.
+     * </p>
+     *
+     * @param queries the queries to look up
+     * @return a map containing every provided (non-empty) query, with the selected artifact or {@code null} as the
+     *         value, if no artifact was found
+     */
+    public Map<ArtifactQuery, Artifact> getArtifacts(Collection<ArtifactQuery> queries) {
+        Map<ArtifactQuery, Artifact> results = new HashMap<>();
+        List<ArtifactQuery> chunk = new ArrayList<>();
+        int length = 0;
+
+        for (ArtifactQuery artifactQuery : new LinkedHashSet<>(queries)) {
+            if (artifactQuery.isEmpty()) {
+                continue;
+            }
+
+            LookupCache.Entry<Artifact> cached = artifactCache.find(artifactQuery.toRsql());
 
-        // Purl was provided, so let's use it, hashes will be used to filter out results, if there are multiple
-        // artifacts returned
-        if (purl != null) {
-            // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
-            if (purl.startsWith("pkg:npm/%40redhat/")) {
-                query.add("purl=like=\"" + purl.replace("pkg:npm/%40redhat/", "pkg:npm/?40redhat/") + "\"");
-            } else {
-                query.add("purl==\"" + purl + "\"");
+            if (cached != null) {
+                results.put(artifactQuery, cached.value());
+                continue;
             }
+
+            // Including the separator, even for the first query, to stay on the safe side
+            int queryLength = encodedLength(artifactQuery.toRsql()) + ENCODED_SEPARATOR_LENGTH;
+
+            if (!chunk.isEmpty() && (chunk.size() >= ARTIFACT_BATCH_SIZE || length + queryLength > MAX_RSQL_LENGTH)) {
+                results.putAll(getArtifactsChunk(chunk));
+                chunk.clear();
+                length = 0;
+            }
+
+            chunk.add(artifactQuery);
+            length += queryLength;
         }
 
-        sha256.ifPresent(s -> query.add("sha256==" + s));
+        if (!chunk.isEmpty()) {
+            results.putAll(getArtifactsChunk(chunk));
+        }
 
-        sha1.ifPresent(s -> query.add("sha1==" + s));
+        return results;
+    }
 
-        md5.ifPresent(s -> query.add("md5==" + s));
+    private Map<ArtifactQuery, Artifact> getArtifactsChunk(List<ArtifactQuery> chunk) {
+        String rsql = chunk.stream().map(ArtifactQuery::toRsql).collect(Collectors.joining(","));
 
-        String rsql = String.join(",", query);
+        log.debug("Searching for artifacts matching {} queries with a single rsql query", chunk.size());
 
-        log.debug("Using following rsql query to search for an artifact: '{}'", rsql);
+        Collection<Artifact> artifacts = queryArtifacts(rsql);
+        Map<ArtifactQuery, Artifact> results = new HashMap<>();
 
-        RemoteCollection<Artifact> remoteArtifacts;
+        for (ArtifactQuery artifactQuery : chunk) {
+            // All returned artifacts belong to a single query, even if PNC did not return the values queried for.
+            // Otherwise, keep the order of the returned artifacts, so that the newest one can be selected.
+            List<Artifact> matching = chunk.size() == 1 ? List.copyOf(artifacts)
+                    : artifacts.stream().filter(artifactQuery::matches).toList();
+            Artifact artifact = selectArtifact(matching);
+            results.put(artifactQuery, artifact);
+            artifactCache.put(artifactQuery.toRsql(), artifact);
+        }
 
-        try {
-            remoteArtifacts = artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql));
+        log.debug(
+                "Found {} artifacts for {} queries",
+                results.values().stream().filter(Objects::nonNull).count(),
+                chunk.size());
 
+        return results;
+    }
+
+    /**
+     * Queries PNC for all artifacts matching the RSQL expression.
+     *
+     * @param rsql the RSQL expression
+     * @return the matching artifacts
+     */
+    protected Collection<Artifact> queryArtifacts(String rsql) {
+        try {
+            return artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql)).getAll();
         } catch (RemoteResourceException ex) {
             throw new ClientException("Querying artifact failed, PNC responded with an error, query: '{}'", rsql, ex);
         }
+    }
 
-        if (remoteArtifacts.size() == 0) {
+    private static int encodedLength(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).length();
+    }
+
+    private static Artifact selectArtifact(Collection<Artifact> artifacts) {
+        if (artifacts.isEmpty()) {
             log.debug("No artifact found, returning nothing");
             return null;
         }
 
-        if (remoteArtifacts.size() == 1) {
+        if (artifacts.size() == 1) {
             log.debug("Single artifact found, returning it!");
-            return remoteArtifacts.iterator().next();
+            return artifacts.iterator().next();
         }
 
         // First try to select artifacts with an associated build
-        Collection<Artifact> allArtifacts = remoteArtifacts.getAll();
-        Optional<Artifact> artifact = allArtifacts.stream().filter(a -> a.getBuild() != null).findFirst();
+        Optional<Artifact> artifact = artifacts.stream().filter(a -> a.getBuild() != null).findFirst();
         if (artifact.isPresent()) {
-            log.debug("Found {} results, returning the artifact associated with a build", remoteArtifacts.size());
+            log.debug("Found {} results, returning the artifact associated with a build", artifacts.size());
             return artifact.get();
         }
         // If no artifact has a build, return the newest one
-        log.debug("Found {} results, returning newest one", remoteArtifacts.size());
-        return allArtifacts.stream().skip(allArtifacts.size() - 1L).findFirst().orElse(null);
+        log.debug("Found {} results, returning newest one", artifacts.size());
+        return artifacts.stream().skip(artifacts.size() - 1L).findFirst().orElse(null);
     }
 
     /**
@@ -475,10 +621,15 @@ public class PncService {
      * @return The collection of {@link Artifact} objects or {@code null} in case the {@link Build} could not be found.
      */
     public Collection<Artifact> getNPMDependencies(String buildID) {
+        return npmDependenciesCache.get(buildID, () -> fetchNPMDependencies(buildID));
+    }
+
+    private List<Artifact> fetchNPMDependencies(String buildID) {
         log.debug("Fetching NPM Dependencies from PNC build with id '{}'", buildID);
         try {
-            return buildClient.getDependencyArtifacts(buildID, Optional.empty(), Optional.of("purl=LIKE=pkg:npm*"))
-                    .getAll();
+            return new ArrayList<>(
+                    buildClient.getDependencyArtifacts(buildID, Optional.empty(), Optional.of("purl=LIKE=pkg:npm*"))
+                            .getAll());
         } catch (RemoteResourceException ex) {
             throw new ClientException("Dependencies could not be retrieved because PNC responded with an error", ex);
         }
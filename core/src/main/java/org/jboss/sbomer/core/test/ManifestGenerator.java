@@ -0,0 +1,696 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test;
+
+import static org.jboss.sbomer.core.features.sbom.Constants.CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT;
+import static org.jboss.sbomer.core.features.sbom.Constants.CONTAINER_PROPERTY_IMAGE_LABEL_NAME;
+import static org.jboss.sbomer.core.features.sbom.Constants.CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE;
+import static org.jboss.sbomer.core.features.sbom.Constants.CONTAINER_PROPERTY_IMAGE_LABEL_VERSION;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_DELIVERABLE_CHECKSUM;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_DELIVERABLE_URL;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_ENVIRONMENT_IMAGE;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_ARTIFACT_ID;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_BUILD_ID;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_OPERATION_ID;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Pedigree;
+import org.cyclonedx.model.Property;
+import org.cyclonedx.model.Variants;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+
+/**
+ * <p>
+ * Generates synthetic CycloneDX manifests resembling the ones SBOMer handles in production: container image manifests
+ * produced by Syft (see {@link #syftImage(int, int, String)}), manifests of PNC deliverable analyzer operations with
+ * nested archives (see {@link #pncOperation(int, int)}) and container image indexes of multi-arch images (see
+ * {@link #multiArchImages(int, int, List)} and {@link #imageIndex(List)}).
+ * </p>
+ *
+ * <p>
+ * Manifests are generated from a seed. The same seed and the same sequence of calls always produce the same manifests
+ * (including serial numbers and timestamps), so these can be shared as fixtures by unit tests, benchmarks and load
+ * tests without any network access.
+ * </p>
+ *
+ * <p>
+ * The distribution of purl types, the number of properties per component and the dependency fan-out follow what is
+ * found in real manifests, the content itself is not meaningful. Instances are not thread-safe.
+ * </p>
+ */
+public class ManifestGenerator {
+
+    /**
+     * A seed to use when there is no reason to use a different one.
+     */
+    public static final long DEFAULT_SEED = 20231010L;
+
+    /**
+     * Architectures of a typical multi-arch container image.
+     */
+    public static final List<String> ARCHITECTURES = List.of("amd64", "arm64", "ppc64le", "s390x");
+
+    private static final Date TIMESTAMP = Date.from(Instant.parse("2024-07-16T15:43:17Z"));
+
+    private static final String SBOMER_VERSION = "1.0.0";
+
+    private static final String PNC_API_URL = "https://pnc.example.com";
+
+    private static final Map<String, String> RPM_ARCHITECTURES = Map
+            .of("amd64", "x86_64", "arm64", "aarch64", "ppc64le", "ppc64le", "s390x", "s390x");
+
+    private enum SyftPackageType {
+        // The weights follow the content of product container images, where RPMs are dominant
+        RPM(45, "rpm-db-cataloger", null, "rpm", "rpm-db-entry"),
+        MAVEN(25, "java-archive-cataloger", "java", "java-archive", "java-archive"),
+        GOLANG(12, "go-module-binary-cataloger", "go", "go-module", "go-module-buildinfo-entry"),
+        NPM(10, "javascript-package-cataloger", "javascript", "npm", "javascript-npm-package"),
+        PYPI(6, "python-installed-package-cataloger", "python", "python", "python-package"),
+        BINARY(2, "binary-classifier-cataloger", null, "binary", "binary-signature");
+
+        final int weight;
+        final String foundBy;
+        final String language;
+        final String type;
+        final String metadataType;
+
+        SyftPackageType(int weight, String foundBy, String language, String type, String metadataType) {
+            this.weight = weight;
+            this.foundBy = foundBy;
+            this.language = language;
+            this.type = type;
+            this.metadataType = metadataType;
+        }
+    }
+
+    private static final String[] WORDS = { "commons", "core", "api", "util", "client", "server", "io", "json", "xml",
+            "http", "net", "crypto", "log", "config", "data", "cache", "auth", "codec", "parser", "runtime", "tools",
+            "compress", "proto", "grpc", "ssl", "text", "time", "zlib", "glib", "python", "perl", "shadow", "systemd" };
+
+    private static final String[] LICENSES = { "Apache-2.0", "MIT", "BSD-3-Clause", "EPL-2.0", "LGPL-2.1-only",
+            "GPL-2.0-only", "MPL-2.0", "ISC" };
+
+    private static final String[] RPM_LICENSES = { "GPLv2", "GPLv2+", "LGPLv2+", "MIT", "BSD", "GPLv3+",
+            "Public Domain" };
+
+    private final Random random;
+
+    public ManifestGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a Syft manifest of a single-arch ({@code amd64}) container image, with 4 dependencies per component on
+     * average.
+     *
+     * @param componentCount the number of components
+     * @return the manifest
+     */
+    public Bom syftImage(int componentCount) {
+        return syftImage(componentCount, 4, ARCHITECTURES.get(0));
+    }
+
+    /**
+     * <p>
+     * Generates a manifest of a container image, as produced by Syft, before any adjustments are made.
+     * </p>
+     *
+     * <p>
+     * Image labels are stored as properties of the {@link Metadata}, every component has a unique bom-ref (purl with
+     * a {@code package-id} qualifier) and, apart from an operating system component, a purl. Components depend on
+     * {@code fanOut} components on average (with shared libraries being the most common dependencies), there are no
+     * cycles in the dependency graph.
+     * </p>
+     *
+     * @param componentCount the number of components
+     * @param fanOut the average number of dependencies of a component
+     * @param architecture the architecture of the image, for example {@code amd64}
+     * @return the manifest
+     */
+    public Bom syftImage(int componentCount, int fanOut, String architecture) {
+        String repository = "acme/" + word() + "-" + word() + "-rhel9";
+        return syftImage(random.nextLong(), repository, componentCount, fanOut, architecture);
+    }
+
+    /**
+     * Generates Syft manifests of a multi-arch container image, one for each of the provided architectures. All
+     * manifests share the image labels and the content, only the image digest and the architecture of the components
+     * differ.
+     *
+     * @param componentCount the number of components in every manifest
+     * @param fanOut the average number of dependencies of a component
+     * @param architectures the architectures, see {@link #ARCHITECTURES}
+     * @return the manifests, in the order of the provided architectures
+     */
+    public List<Bom> multiArchImages(int componentCount, int fanOut, List<String> architectures) {
+        String repository = "acme/" + word() + "-" + word() + "-rhel9";
+        long imageSeed = random.nextLong();
+
+        return architectures.stream()
+                .map(architecture -> syftImage(imageSeed, repository, componentCount, fanOut, architecture))
+                .toList();
+    }
+
+    /**
+     * Generates an image index manifest of a multi-arch container image, in the same form as the one produced when
+     * cataloguing the manifests of all image variants.
+     *
+     * @param architectures the architectures of the variants, see {@link #ARCHITECTURES}
+     * @return the manifest
+     */
+    public Bom imageIndex(List<String> architectures) {
+        String repository = "acme/" + word() + "-" + word() + "-rhel9";
+        String imageName = "registry.example.com/" + repository;
+        String indexDigest = "sha256:" + hex(random, 64);
+        String componentName = repository.substring(repository.indexOf('/') + 1) + "-container";
+        String version = version(random);
+        String release = random.nextInt(20) + "." + (1700000000 + random.nextInt(100000000));
+
+        Component mainComponent = SbomUtils.createComponent(
+                null,
+                imageName,
+                indexDigest,
+                null,
+                SbomUtils.createContainerImageOCIPurl(imageName, indexDigest),
+                Component.Type.CONTAINER);
+        mainComponent.setBomRef(componentName + "_image-index");
+        addProperty(mainComponent, CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT, componentName);
+        addProperty(mainComponent, CONTAINER_PROPERTY_IMAGE_LABEL_NAME, repository);
+        addProperty(mainComponent, CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE, release);
+        addProperty(mainComponent, CONTAINER_PROPERTY_IMAGE_LABEL_VERSION, version);
+        SbomUtils.setPublisher(mainComponent);
+        SbomUtils.setSupplier(mainComponent);
+        SbomUtils.addMissingContainerHash(mainComponent);
+
+        Variants variants = new Variants();
+
+        for (String architecture : architectures) {
+            String digest = "sha256:" + hex(random, 64);
+            Component variant = SbomUtils.createComponent(
+                    null,
+                    imageName,
+                    digest,
+                    null,
+                    "pkg:oci/" + repository.substring(repository.indexOf('/') + 1) + "@" + digest.replace(":", "%3A")
+                            + "?arch=" + architecture + "&os=linux&tag=" + version + "-" + release,
+                    Component.Type.CONTAINER);
+            variant.setBomRef(componentName + "_" + architecture);
+            SbomUtils.setPublisher(variant);
+            SbomUtils.setSupplier(variant);
+            SbomUtils.addMissingContainerHash(variant);
+            variants.addComponent(variant);
+        }
+
+        Pedigree pedigree = new Pedigree();
+        pedigree.setVariants(variants);
+        mainComponent.setPedigree(pedigree);
+
+        Component metadataComponent = new Component();
+        metadataComponent.setType(mainComponent.getType());
+        metadataComponent.setName(mainComponent.getName());
+        metadataComponent.setPurl(mainComponent.getPurl());
+        metadataComponent.setDescription("Image index manifest of " + mainComponent.getPurl());
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(metadataComponent);
+        metadata.setTimestamp(TIMESTAMP);
+        metadata.setToolChoice(SbomUtils.createToolInformation(SBOMER_VERSION));
+
+        Bom bom = Objects.requireNonNull(SbomUtils.createBom());
+        bom.setSerialNumber(serialNumber(random));
+        bom.setMetadata(metadata);
+        bom.setComponents(new ArrayList<>(List.of(mainComponent)));
+        SbomUtils.addMissingMetadataSupplier(bom);
+
+        return bom;
+    }
+
+    /**
+     * <p>
+     * Generates a manifest of a PNC deliverable analyzer operation, as produced for a product deliverable (a ZIP file).
+     * </p>
+     *
+     * <p>
+     * Most of the components are Maven artifacts built in PNC, the rest are NPM packages and files without any
+     * usable purl. Some of the archives are nested in other archives (for example a JAR in a WAR in an EAR), up to
+     * the provided depth. The dependency tree follows this nesting: the deliverable depends on the top-level archives
+     * and every archive depends on the archives nested in it. Some archives can be found at multiple locations.
+     * </p>
+     *
+     * @param componentCount the number of components
+     * @param maxDepth the maximum level of archive nesting, {@code 0} means there are no nested archives
+     * @return the manifest
+     */
+    public Bom pncOperation(int componentCount, int maxDepth) {
+        String product = word() + "-" + word();
+        String milestone = version(random) + ".CR" + (1 + random.nextInt(5));
+        String fileName = product + "-" + milestone + "-maven-repository.zip";
+        String checksum = hex(random, 64);
+        String deliverableUrl = "https://download.example.com/" + product + "/" + milestone + "/" + fileName;
+        String purl = "pkg:generic/" + fileName + "?checksum=sha256%3A" + checksum;
+
+        Component mainComponent = SbomUtils.createComponent(
+                null,
+                fileName,
+                "sha256:" + checksum,
+                "SBOM representing the deliverable " + fileName + " with checksum sha256:" + checksum,
+                purl,
+                Component.Type.FILE);
+        mainComponent.setHashes(new ArrayList<>(List.of(new Hash(Hash.Algorithm.SHA_256, checksum))));
+        SbomUtils.addExternalReference(
+                mainComponent,
+                ExternalReference.Type.BUILD_SYSTEM,
+                PNC_API_URL + "/pnc-rest/v2/operations/deliverable-analyzer/" + pncId(random),
+                SBOM_RED_HAT_PNC_OPERATION_ID);
+        addProperty(mainComponent, SBOM_RED_HAT_DELIVERABLE_URL, deliverableUrl);
+        addProperty(mainComponent, SBOM_RED_HAT_DELIVERABLE_CHECKSUM, "sha256:" + checksum);
+
+        Metadata metadata = SbomUtils.createDefaultSbomerMetadata(mainComponent, SBOMER_VERSION);
+        metadata.setTimestamp(TIMESTAMP);
+
+        Dependency mainDependency = new Dependency(purl);
+
+        List<Component> components = new ArrayList<>(componentCount);
+        List<Dependency> dependencies = new ArrayList<>(componentCount + 1);
+        dependencies.add(mainDependency);
+
+        // Archives which can contain other archives, with their nesting level
+        List<Dependency> containers = new ArrayList<>();
+        List<Integer> containerDepths = new ArrayList<>();
+
+        // A pool of builds, as many artifacts are produced by the same build
+        int buildCount = Math.max(1, componentCount / 8);
+        String[] buildIds = new String[buildCount];
+        String[] scmUrls = new String[buildCount];
+
+        for (int i = 0; i < buildCount; i++) {
+            buildIds[i] = pncId(random);
+            scmUrls[i] = "https://github.com/acme/" + word() + "-" + word() + ".git";
+        }
+
+        for (int i = 0; i < componentCount; i++) {
+            int build = random.nextInt(buildCount);
+            Component component = pncComponent(i, buildIds[build], scmUrls[build]);
+            Dependency dependency = new Dependency(component.getBomRef());
+
+            components.add(component);
+            dependencies.add(dependency);
+
+            // Some archives are found in multiple locations
+            int locations = random.nextInt(10) == 0 ? 2 : 1;
+            int minDepth = maxDepth;
+
+            for (int location = 0; location < locations; location++) {
+                Dependency parent = mainDependency;
+                int depth = 0;
+
+                // A third of the archives is nested, half of these in the most recent archive to form deep chains
+                if (maxDepth > 0 && !containers.isEmpty() && random.nextInt(3) == 0) {
+                    int index = random.nextBoolean() ? containers.size() - 1 : random.nextInt(containers.size());
+                    parent = containers.get(index);
+                    depth = containerDepths.get(index) + 1;
+                }
+
+                addDependencyIfMissing(parent, component.getBomRef());
+                minDepth = Math.min(minDepth, depth);
+            }
+
+            if (minDepth < maxDepth && isArchive(component)) {
+                containers.add(dependency);
+                containerDepths.add(minDepth);
+            }
+        }
+
+        Bom bom = Objects.requireNonNull(SbomUtils.createBom());
+        bom.setSerialNumber(serialNumber(random));
+        bom.setMetadata(metadata);
+        bom.setComponents(components);
+        bom.setDependencies(dependencies);
+
+        return bom;
+    }
+
+    private Bom syftImage(long imageSeed, String repository, int componentCount, int fanOut, String architecture) {
+        // Content of all variants of a multi-arch image is generated from the same seed
+        Random content = new Random(imageSeed);
+        String rpmArchitecture = RPM_ARCHITECTURES.getOrDefault(architecture, architecture);
+        String layer = "sha256:" + hex(random, 64);
+
+        Component mainComponent = new Component();
+        mainComponent.setType(Component.Type.CONTAINER);
+        mainComponent.setName("registry.example.com/" + repository);
+        mainComponent.setVersion("sha256:" + hex(random, 64));
+        mainComponent.setBomRef(hex(random, 16));
+
+        String componentName = repository.substring(repository.indexOf('/') + 1) + "-container";
+        String version = version(content);
+
+        Metadata metadata = new Metadata();
+        metadata.setTimestamp(TIMESTAMP);
+        metadata.setComponent(mainComponent);
+
+        List<Property> labels = new ArrayList<>();
+        labels.add(property("syft:image:labels:architecture", rpmArchitecture));
+        labels.add(property("syft:image:labels:build-date", "2024-06-13T16:02:24"));
+        labels.add(property("syft:image:labels:com.redhat.component", componentName));
+        labels.add(property("syft:image:labels:com.redhat.license_terms", "https://www.redhat.com/agreements"));
+        labels.add(property("syft:image:labels:description", "ACME " + repository));
+        labels.add(property("syft:image:labels:distribution-scope", "public"));
+        labels.add(property("syft:image:labels:io.buildah.version", "1.29.0"));
+        labels.add(property("syft:image:labels:maintainer", "ACME Engineering <acme@example.com>"));
+        labels.add(property("syft:image:labels:name", repository));
+        labels.add(property("syft:image:labels:release", (1 + content.nextInt(20)) + "." + hex(content, 8)));
+        labels.add(property("syft:image:labels:summary", "ACME " + repository));
+        labels.add(property("syft:image:labels:vcs-ref", hex(content, 40)));
+        labels.add(property("syft:image:labels:vcs-type", "git"));
+        labels.add(property("syft:image:labels:vendor", "Red Hat, Inc."));
+        labels.add(property("syft:image:labels:version", version));
+        metadata.setProperties(labels);
+
+        List<Component> components = new ArrayList<>(componentCount + 1);
+        List<Dependency> dependencies = new ArrayList<>(componentCount);
+
+        for (int i = 0; i < componentCount; i++) {
+            Component component = syftComponent(content, i, rpmArchitecture, layer);
+            components.add(component);
+
+            // Dependencies point to components created earlier, so there are no cycles
+            int dependencyCount = Math.min(i, content.nextInt(2 * fanOut + 1));
+
+            if (dependencyCount == 0) {
+                continue;
+            }
+
+            Set<Integer> targets = new LinkedHashSet<>();
+
+            while (targets.size() < dependencyCount) {
+                // Half of the dependencies are on "shared libraries", the first components
+                targets.add(content.nextBoolean() ? content.nextInt(Math.min(i, 32)) : content.nextInt(i));
+            }
+
+            Dependency dependency = new Dependency(component.getBomRef());
+            targets.forEach(target -> dependency.addDependency(new Dependency(components.get(target).getBomRef())));
+            dependencies.add(dependency);
+        }
+
+        Component operatingSystem = new Component();
+        operatingSystem.setType(Component.Type.OPERATING_SYSTEM);
+        operatingSystem.setName("rhel");
+        operatingSystem.setVersion("9.4");
+        operatingSystem.setDescription("Red Hat Enterprise Linux 9.4 (Plow)");
+        operatingSystem.setBomRef(hex(content, 16));
+        components.add(operatingSystem);
+
+        Bom bom = Objects.requireNonNull(SbomUtils.createBom());
+        bom.setSerialNumber(serialNumber(content));
+        bom.setMetadata(metadata);
+        bom.setComponents(components);
+        bom.setDependencies(dependencies);
+
+        return bom;
+    }
+
+    private Component syftComponent(Random content, int index, String architecture, String layer) {
+        SyftPackageType type = syftPackageType(content);
+        String name = WORDS[content.nextInt(WORDS.length)] + "-" + WORDS[content.nextInt(WORDS.length)] + "-" + index;
+        String version = version(content);
+        String purl;
+        String path;
+        List<Property> metadataProperties = new ArrayList<>();
+
+        switch (type) {
+            case RPM:
+                String release = (1 + content.nextInt(10)) + ".el9";
+                String rpmArchitecture = content.nextInt(5) == 0 ? "noarch" : architecture;
+                version = version + "-" + release;
+                purl = "pkg:rpm/redhat/" + name + "@" + version + "?arch=" + rpmArchitecture + "&upstream=" + name + "-"
+                        + version + ".src.rpm&distro=rhel-9.4";
+                path = "/var/lib/rpm/rpmdb.sqlite";
+                metadataProperties.add(property("syft:metadata:release", release));
+                metadataProperties.add(property("syft:metadata:size", String.valueOf(content.nextInt(10000000))));
+                metadataProperties.add(property("syft:metadata:sourceRpm", name + "-" + version + ".src.rpm"));
+                break;
+            case MAVEN:
+                String group = "org.acme." + WORDS[content.nextInt(WORDS.length)];
+
+                if (content.nextInt(3) > 0) {
+                    version = version + ".redhat-0000" + (1 + content.nextInt(9));
+                }
+
+                purl = "pkg:maven/" + group + "/" + name + "@" + version;
+                path = "/opt/app/lib/" + name + "-" + version + ".jar";
+                metadataProperties.add(property("syft:metadata:virtualPath", path));
+                metadataProperties.add(property("syft:metadata:pomArtifactID", name));
+                metadataProperties.add(property("syft:metadata:pomGroupID", group));
+                break;
+            case GOLANG:
+                version = "v" + version;
+                purl = "pkg:golang/github.com/acme/" + name + "@" + version;
+                path = "/usr/bin/" + name;
+                metadataProperties.add(property("syft:metadata:goCompiledVersion", "go1.21.9"));
+                metadataProperties.add(property("syft:metadata:architecture", architecture));
+                break;
+            case NPM:
+                purl = content.nextBoolean() ? "pkg:npm/" + name + "@" + version
+                        : "pkg:npm/%40acme/" + name + "@" + version;
+                path = "/app/node_modules/" + name + "/package.json";
+                break;
+            case PYPI:
+                purl = "pkg:pypi/" + name + "@" + version;
+                path = "/usr/lib/python3.9/site-packages/" + name + "-" + version + ".dist-info/METADATA";
+                break;
+            default:
+                purl = "pkg:generic/" + name + "@" + version;
+                path = "/usr/lib64/" + name + ".so";
+                break;
+        }
+
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setName(name);
+        component.setVersion(version);
+        component.setPurl(purl);
+        // Syft references are unique, even if the same package is found at multiple places
+        component.setBomRef(purl + (purl.indexOf('?') >= 0 ? "&" : "?") + "package-id=" + hex(content, 16));
+
+        if (type == SyftPackageType.RPM) {
+            component.setPublisher("Red Hat, Inc.");
+        }
+
+        if (content.nextInt(10) < 7) {
+            License license = new License();
+
+            if (type == SyftPackageType.RPM) {
+                license.setName(RPM_LICENSES[content.nextInt(RPM_LICENSES.length)]);
+            } else {
+                license.setId(LICENSES[content.nextInt(LICENSES.length)]);
+            }
+
+            LicenseChoice licenseChoice = new LicenseChoice();
+            licenseChoice.setLicenses(List.of(license));
+            component.setLicenses(licenseChoice);
+        }
+
+        List<Property> properties = new ArrayList<>();
+        properties.add(property("syft:package:foundBy", type.foundBy));
+
+        if (type.language != null) {
+            properties.add(property("syft:package:language", type.language));
+        }
+
+        properties.add(property("syft:package:type", type.type));
+        properties.add(property("syft:package:metadataType", type.metadataType));
+
+        for (int i = 1 + content.nextInt(type == SyftPackageType.RPM ? 2 : 5); i > 0; i--) {
+            String cpe = "cpe:2.3:a:" + WORDS[content.nextInt(WORDS.length)] + ":" + name + ":" + version
+                    + ":*:*:*:*:*:*:*";
+
+            if (component.getCpe() == null) {
+                component.setCpe(cpe);
+            }
+
+            properties.add(property("syft:cpe23", cpe));
+        }
+
+        properties.add(property("syft:location:0:layerID", layer));
+        properties.add(property("syft:location:0:path", path));
+        properties.addAll(metadataProperties);
+        component.setProperties(properties);
+
+        return component;
+    }
+
+    private Component pncComponent(int index, String buildId, String scmUrl) {
+        int kind = random.nextInt(100);
+        String name = word() + "-" + word() + "-" + index;
+        String version = version(random);
+        boolean redHat = random.nextInt(5) > 0;
+        String group = null;
+        String purl;
+
+        if (kind < 85) {
+            group = "org.acme." + word();
+            version = redHat ? version + ".redhat-0000" + (1 + random.nextInt(9)) : version;
+            String type = random.nextInt(10) < 7 ? "jar" : random.nextBoolean() ? "pom" : "war";
+            purl = "pkg:maven/" + group + "/" + name + "@" + version + "?type=" + type;
+        } else if (kind < 95) {
+            version = redHat ? version + "-redhat-0000" + (1 + random.nextInt(9)) : version;
+            purl = "pkg:npm/%40redhat/" + name + "@" + version;
+        } else {
+            redHat = false;
+            purl = "pkg:generic/" + name + ".jar?checksum=sha256%3A" + hex(random, 64);
+        }
+
+        Component component = SbomUtils.createComponent(group, name, version, null, purl, Component.Type.LIBRARY);
+        component.setScope(Component.Scope.REQUIRED);
+
+        List<Hash> hashes = new ArrayList<>();
+        hashes.add(new Hash(Hash.Algorithm.MD5, hex(random, 32)));
+        hashes.add(new Hash(Hash.Algorithm.SHA1, hex(random, 40)));
+        hashes.add(new Hash(Hash.Algorithm.SHA_256, hex(random, 64)));
+        component.setHashes(hashes);
+
+        if (random.nextInt(10) < 6) {
+            License license = new License();
+            license.setId(LICENSES[random.nextInt(LICENSES.length)]);
+
+            LicenseChoice licenseChoice = new LicenseChoice();
+            licenseChoice.setLicenses(List.of(license));
+            component.setLicenses(licenseChoice);
+        }
+
+        SbomUtils.addExternalReference(
+                component,
+                ExternalReference.Type.BUILD_SYSTEM,
+                PNC_API_URL + "/pnc-rest/v2/artifacts/" + (1000000 + index),
+                SBOM_RED_HAT_PNC_ARTIFACT_ID);
+
+        if (redHat) {
+            SbomUtils.setPublisher(component);
+            SbomUtils.setSupplier(component);
+            SbomUtils.addMrrc(component);
+            SbomUtils.addExternalReference(
+                    component,
+                    ExternalReference.Type.BUILD_SYSTEM,
+                    PNC_API_URL + "/pnc-rest/v2/builds/" + buildId,
+                    SBOM_RED_HAT_PNC_BUILD_ID);
+            SbomUtils.addExternalReference(
+                    component,
+                    ExternalReference.Type.BUILD_META,
+                    "quay.example.com/pnc/builder-rhel-8-j17-mvn3.9:1.0.2",
+                    SBOM_RED_HAT_ENVIRONMENT_IMAGE);
+            SbomUtils.addExternalReference(component, ExternalReference.Type.VCS, scmUrl, null);
+            SbomUtils.addPedigreeAncestor(component, scmUrl + "#" + name + "-" + version, hex(random, 40));
+        }
+
+        return component;
+    }
+
+    private static boolean isArchive(Component component) {
+        String purl = component.getPurl();
+        return purl.endsWith("?type=jar") || purl.endsWith("?type=war") || purl.startsWith("pkg:generic/");
+    }
+
+    private static void addDependencyIfMissing(Dependency parent, String ref) {
+        if (parent.getDependencies() != null
+                && parent.getDependencies().stream().anyMatch(dependency -> ref.equals(dependency.getRef()))) {
+            return;
+        }
+
+        parent.addDependency(new Dependency(ref));
+    }
+
+    private SyftPackageType syftPackageType(Random content) {
+        int value = content.nextInt(100);
+
+        for (SyftPackageType type : SyftPackageType.values()) {
+            value -= type.weight;
+
+            if (value < 0) {
+                return type;
+            }
+        }
+
+        return SyftPackageType.BINARY;
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String version(Random random) {
+        return random.nextInt(10) + "." + random.nextInt(20) + "." + random.nextInt(30);
+    }
+
+    private static String pncId(Random random) {
+        StringBuilder sb = new StringBuilder(13);
+
+        for (int i = 0; i < 13; i++) {
+            sb.append(Character.toUpperCase(Character.forDigit(random.nextInt(36), 36)));
+        }
+
+        return sb.toString();
+    }
+
+    private static String hex(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+
+        return sb.toString();
+    }
+
+    private static String serialNumber(Random random) {
+        return "urn:uuid:" + new UUID(random.nextLong(), random.nextLong());
+    }
+
+    private static void addProperty(Component component, String name, String value) {
+        if (component.getProperties() == null) {
+            component.setProperties(new ArrayList<>());
+        }
+
+        component.getProperties().add(property(name, value));
+    }
+
+    private static Property property(String name, String value) {
+        Property property = new Property();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+}
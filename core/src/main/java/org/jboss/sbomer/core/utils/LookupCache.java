@@ -0,0 +1,320 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.jboss.sbomer.core.features.sbom.utils.HashUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A file-backed cache for results of lookups in remote systems (PNC, Brew), which is meant to be shared between
+ * processes, for example on a volume mounted by all generations.
+ * </p>
+ *
+ * <p>
+ * Every entry is stored as a separate JSON file in a {@link Region region} directory, named after the SHA-256 hash of
+ * its key. Entries are written to a temporary file first and then moved into place, so concurrent readers never see
+ * partially written entries; in case multiple processes store the same entry, the last one wins.
+ * </p>
+ *
+ * <p>
+ * Results considered immutable by the region (for example completed builds) never expire. Other results expire after
+ * the configured TTL. Negative results (lookups which found nothing) are cached too, with a shorter TTL, as the
+ * searched content may appear soon. Expired entries are removed when these are read. Any error related to reading or writing the entries is logged and the lookup
+ * falls back to the remote system; the cache is never a reason for a failure.
+ * </p>
+ */
+@Slf4j
+public class LookupCache {
+
+    private static final String KEY = "key";
+    private static final String EXPIRES = "expires";
+    private static final String VALUE = "value";
+
+    /**
+     * Loads the value from the remote system in case it is not cached.
+     *
+     * @param <T> the type of the value
+     * @param <E> the type of the exception thrown when loading the value
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        T load() throws E;
+    }
+
+    /**
+     * A cached value, which may be {@code null} for negative results.
+     *
+     * @param value the cached value
+     * @param <T> the type of the value
+     */
+    public record Entry<T>(T value) {
+    }
+
+    /**
+     * A set of entries of the same type, stored in a separate directory.
+     *
+     * @param <T> the type of the values
+     */
+    public final class Region<T> {
+        private final String name;
+        private final JavaType type;
+        private final ObjectMapper mapper;
+        private final Predicate<T> immutable;
+
+        private Region(String name, JavaType type, ObjectMapper mapper, Predicate<T> immutable) {
+            this.name = name;
+            this.type = type;
+            this.mapper = mapper;
+            this.immutable = immutable;
+        }
+
+        /**
+         * Returns the cached value for the key, if it is cached and not expired. Otherwise, the value is loaded and
+         * stored in the cache.
+         *
+         * @param key the key identifying the lookup
+         * @param loader the loader to use in case the value is not cached
+         * @return the value, can be {@code null}
+         * @throws E if the value could not be loaded
+         */
+        public <E extends Exception> T get(String key, Loader<T, E> loader) throws E {
+            Entry<T> entry = find(key);
+
+            if (entry != null) {
+                return entry.value();
+            }
+
+            T value = loader.load();
+            put(key, value);
+            return value;
+        }
+
+        /**
+         * Finds the cached value for the key.
+         *
+         * @param key the key identifying the lookup
+         * @return the entry or {@code null} if the value is not cached or is expired
+         */
+        public Entry<T> find(String key) {
+            if (!enabled) {
+                return null;
+            }
+
+            Path path = path(key);
+
+            try {
+                JsonNode node = mapper.readTree(Files.readString(path, StandardCharsets.UTF_8));
+
+                if (!key.equals(node.path(KEY).asText())) {
+                    misses.incrementAndGet();
+                    return null;
+                }
+
+                if (isExpired(node)) {
+                    delete(key, path);
+                    misses.incrementAndGet();
+                    return null;
+                }
+
+                JsonNode value = node.path(VALUE);
+                hits.incrementAndGet();
+                return new Entry<>(value.isNull() || value.isMissingNode() ? null : mapper.treeToValue(value, type));
+            } catch (NoSuchFileException e) {
+                misses.incrementAndGet();
+                return null;
+            } catch (IOException | RuntimeException e) {
+                log.debug("Unable to read cache entry '{}' from '{}', ignoring", key, path, e);
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        /**
+         * Stores the value in the cache.
+         *
+         * @param key the key identifying the lookup
+         * @param value the value to store, {@code null} for negative results
+         */
+        public void put(String key, T value) {
+            if (!enabled) {
+                return;
+            }
+
+            Path path = path(key);
+            Duration expiry = value == null ? negativeTtl : immutable.test(value) ? null : ttl;
+
+            ObjectNode node = mapper.createObjectNode();
+            node.put(KEY, key);
+
+            if (expiry != null) {
+                node.put(EXPIRES, clock.millis() + expiry.toMillis());
+            }
+
+            node.set(VALUE, mapper.valueToTree(value));
+
+            try {
+                Files.createDirectories(path.getParent());
+                Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+                try {
+                    Files.writeString(tmp, mapper.writeValueAsString(node), StandardCharsets.UTF_8);
+                    move(tmp, path);
+                } finally {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to store cache entry '{}' into '{}', ignoring", key, path, e);
+            }
+        }
+
+        /**
+         * Removes the expired entry, so that entries which are never looked up again do not pile up. In case another
+         * process stored a fresh entry in the meantime, it is removed too, which only causes one more lookup in the
+         * remote system.
+         */
+        private void delete(String key, Path path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("Unable to remove expired cache entry '{}' from '{}', ignoring", key, path, e);
+            }
+        }
+
+        private boolean isExpired(JsonNode node) {
+            JsonNode expires = node.get(EXPIRES);
+            return expires != null && expires.asLong() <= clock.millis();
+        }
+
+        private Path path(String key) {
+            String hash = HashUtils.sha256((name + "\n" + key).getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(name).resolve(hash.substring(0, 2)).resolve(hash + ".json");
+        }
+    }
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final Clock clock;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache storing the entries in the provided directory.
+     *
+     * @param directory the directory to store entries in, created if it does not exist
+     * @param ttl the time after which (mutable) results expire
+     * @param negativeTtl the time after which negative results expire
+     */
+    public LookupCache(Path directory, Duration ttl, Duration negativeTtl) {
+        this(directory, ttl, negativeTtl, Clock.systemUTC());
+    }
+
+    public LookupCache(Path directory, Duration ttl, Duration negativeTtl, Clock clock) {
+        this(true, directory, ttl, negativeTtl, clock);
+    }
+
+    private LookupCache(boolean enabled, Path directory, Duration ttl, Duration negativeTtl, Clock clock) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a cache which does not store anything, every lookup is done in the remote system.
+     *
+     * @return the disabled cache
+     */
+    public static LookupCache disabled() {
+        return new LookupCache(false, null, Duration.ZERO, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a region of entries of the provided type.
+     *
+     * @param name the name of the region, used as the name of its directory
+     * @param type the type of the values
+     * @param mapper the mapper used to (de)serialize the values
+     * @param immutable decides whether a (non-{@code null}) value can never change and thus never expires
+     * @return the region
+     */
+    public <T> Region<T> region(String name, JavaType type, ObjectMapper mapper, Predicate<T> immutable) {
+        return new Region<>(name, type, mapper, immutable);
+    }
+
+    public <T> Region<T> region(String name, Class<T> type, ObjectMapper mapper, Predicate<T> immutable) {
+        return region(name, mapper.constructType(type), mapper, immutable);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of lookups which were served from the cache (including negative results).
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of lookups which were not cached or were expired.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
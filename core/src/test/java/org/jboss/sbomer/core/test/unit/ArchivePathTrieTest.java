@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.jboss.sbomer.core.features.sbom.utils.ArchivePathTrie;
+import org.junit.jupiter.api.Test;
+
+class ArchivePathTrieTest {
+
+    private static ArchivePathTrie<String> trie() {
+        ArchivePathTrie<String> trie = new ArchivePathTrie<>();
+        trie.put("dist.zip!/lib/app.jar", "app");
+        trie.put("dist.zip!/lib/app.jar!/META-INF/lib/nested.jar", "nested");
+        trie.put("dist.zip!/lib/app.jar!/META-INF/lib/nested.jar!/deep.jar", "deep");
+        trie.put("dist.zip!/lib/other.jar", "other");
+        return trie;
+    }
+
+    @Test
+    void shouldFindClosestEnclosingArchive() {
+        ArchivePathTrie<String> trie = trie();
+
+        assertEquals(Optional.of("app"), trie.findClosestParent("dist.zip!/lib/app.jar!/META-INF/lib/nested.jar"));
+        assertEquals(
+                Optional.of("nested"),
+                trie.findClosestParent("dist.zip!/lib/app.jar!/META-INF/lib/nested.jar!/deep.jar"));
+        // Skips the levels without a value
+        assertEquals(
+                Optional.of("app"),
+                trie.findClosestParent("dist.zip!/lib/app.jar!/META-INF/lib/unknown.jar!/file.jar"));
+    }
+
+    @Test
+    void shouldNotFindParentOfTopLevelEntries() {
+        ArchivePathTrie<String> trie = trie();
+
+        assertTrue(trie.findClosestParent("dist.zip!/lib/app.jar").isEmpty());
+        assertTrue(trie.findClosestParent("dist.zip!/lib/other.jar").isEmpty());
+        assertTrue(trie.findClosestParent("lib/app.jar").isEmpty());
+        assertTrue(trie.findClosestParent("").isEmpty());
+    }
+
+    @Test
+    void shouldMatchWholeEntriesOnly() {
+        ArchivePathTrie<String> trie = trie();
+
+        assertTrue(trie.findClosestParent("dist.zip!/lib/app.jar.bak!/file.jar").isEmpty());
+        assertTrue(trie.findClosestParent("dist.zip!/lib/app!/file.jar").isEmpty());
+    }
+
+    @Test
+    void shouldReplaceValue() {
+        ArchivePathTrie<String> trie = trie();
+        trie.put("dist.zip!/lib/app.jar", "replaced");
+
+        assertEquals(Optional.of("replaced"), trie.findClosestParent("dist.zip!/lib/app.jar!/file.jar"));
+    }
+}
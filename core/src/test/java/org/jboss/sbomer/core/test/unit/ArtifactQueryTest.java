@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
+import org.junit.jupiter.api.Test;
+
+class ArtifactQueryTest {
+
+    private static final String PURL = "pkg:maven/org.acme/main@1.0.0.redhat-00001?type=jar";
+    private static final String OTHER = "pkg:maven/org.acme/other@1.0.0?type=jar";
+
+    @Test
+    void shouldCreateRsqlQuery() {
+        assertEquals("purl==\"" + PURL + "\",sha256==abc", new ArtifactQuery(PURL, "abc", null, null).toRsql());
+        assertEquals("sha1==def,md5==ghi", new ArtifactQuery(null, null, "def", "ghi").toRsql());
+        assertEquals(
+                "purl=like=\"pkg:npm/?40redhat/test@1.0.0\"",
+                new ArtifactQuery("pkg:npm/%40redhat/test@1.0.0", null, null, null).toRsql());
+    }
+
+    @Test
+    void shouldHandleEmptyQuery() {
+        assertTrue(ArtifactQuery.of(null, Optional.empty(), Optional.empty(), Optional.empty()).isEmpty());
+        assertFalse(ArtifactQuery.of(null, Optional.empty(), Optional.of("def"), Optional.empty()).isEmpty());
+    }
+
+    @Test
+    void shouldMatchArtifactByAnyValue() {
+        Artifact artifact = Artifact.builder().purl(PURL).sha256("abc").sha1("def").md5("ghi").build();
+
+        assertTrue(new ArtifactQuery(PURL, null, null, null).matches(artifact));
+        assertTrue(new ArtifactQuery(OTHER, "abc", null, null).matches(artifact));
+        assertTrue(new ArtifactQuery(null, null, null, "ghi").matches(artifact));
+        assertFalse(new ArtifactQuery(OTHER, "xyz", "def1", null).matches(artifact));
+    }
+
+    @Test
+    void shouldBeUsableAsKey() {
+        assertEquals(
+                new ArtifactQuery(PURL, "abc", null, null),
+                ArtifactQuery.of(PURL, Optional.of("abc"), Optional.empty(), Optional.empty()));
+    }
+}
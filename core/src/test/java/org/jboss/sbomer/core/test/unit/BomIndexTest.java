@@ -0,0 +1,210 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+
+class BomIndexTest {
+
+    private static final String MAIN = "pkg:maven/org.acme/main@1.0.0.redhat-00001?type=jar";
+    private static final String OLD = "pkg:maven/org.objectweb.asm/asm@9.1.0.redhat-00002?type=jar";
+    private static final String NEW = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+    private static final String OTHER = "pkg:maven/org.acme/other@1.0.0?type=jar";
+
+    private static Component component(String purl) {
+        Component component = new Component();
+        component.setPurl(purl);
+        component.setBomRef(purl);
+        return component;
+    }
+
+    private static Bom bom() {
+        Bom bom = new Bom();
+        Metadata metadata = new Metadata();
+        metadata.setComponent(component(MAIN));
+        bom.setMetadata(metadata);
+
+        bom.addComponent(component(MAIN));
+        bom.addComponent(component(OLD));
+        bom.addComponent(component(OTHER));
+
+        Dependency mainDependency = new Dependency(MAIN);
+        mainDependency.addDependency(new Dependency(OLD));
+        mainDependency.addDependency(new Dependency(OTHER));
+
+        Dependency otherDependency = new Dependency(OTHER);
+        otherDependency.addProvides(new Dependency(OLD));
+
+        bom.addDependency(mainDependency);
+        bom.addDependency(new Dependency(OLD));
+        bom.addDependency(otherDependency);
+
+        return bom;
+    }
+
+    @Test
+    void shouldFindComponentsAndDependencies() {
+        BomIndex index = BomIndex.of(bom());
+
+        assertTrue(index.findComponentWithPurl(OLD).isPresent());
+        assertFalse(index.findComponentWithPurl(NEW).isPresent());
+        assertEquals(1, index.getComponentsWithBomRef(OTHER).size());
+        assertTrue(index.hasDependency(OLD));
+        assertTrue(index.isReferenced(OLD));
+        assertFalse(index.hasDependency(NEW));
+    }
+
+    @Test
+    void shouldUpdatePurlAndAllDependencyRefs() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+
+        index.updatePurl(OLD, NEW);
+
+        assertEquals(NEW, bom.getComponents().get(1).getPurl());
+        assertEquals(NEW, bom.getComponents().get(1).getBomRef());
+        assertEquals(NEW, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(NEW, bom.getDependencies().get(1).getRef());
+        assertEquals(NEW, bom.getDependencies().get(2).getProvides().get(0).getRef());
+
+        // The index is kept in sync
+        assertFalse(index.findComponentWithPurl(OLD).isPresent());
+        assertSame(bom.getComponents().get(1), index.findComponentWithPurl(NEW).orElseThrow());
+        assertTrue(index.hasDependency(NEW));
+        assertFalse(index.isReferenced(OLD));
+    }
+
+    @Test
+    void shouldUpdateMainComponent() {
+        Bom bom = bom();
+        String newMain = "pkg:maven/org.acme/main-updated@1.0.0.redhat-00001?type=jar";
+
+        SbomUtils.updatePurl(bom, MAIN, newMain);
+
+        assertEquals(newMain, bom.getMetadata().getComponent().getPurl());
+        assertEquals(newMain, bom.getMetadata().getComponent().getBomRef());
+        assertEquals(newMain, bom.getComponents().get(0).getPurl());
+        assertEquals(newMain, bom.getDependencies().get(0).getRef());
+        assertEquals(2, bom.getDependencies().get(0).getDependencies().size());
+    }
+
+    @Test
+    void shouldNotIndexMainComponent() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+        Component mainComponent = bom.getMetadata().getComponent();
+        String newMain = "pkg:maven/org.acme/main-updated@1.0.0.redhat-00001?type=jar";
+
+        index.updatePurl(MAIN, newMain);
+
+        assertEquals(newMain, mainComponent.getBomRef());
+        assertTrue(index.getComponentsWithBomRef(newMain).stream().noneMatch(c -> c == mainComponent));
+        assertTrue(index.getComponentsWithPurl(newMain).stream().noneMatch(c -> c == mainComponent));
+        assertSame(bom.getComponents().get(0), index.findComponentWithPurl(newMain).orElseThrow());
+    }
+
+    @Test
+    void shouldNotUpdateBomRefIfNewRefAlreadyExists() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+        Component old = bom.getComponents().get(1);
+
+        assertFalse(index.updateBomRef(old, OLD, OTHER));
+        assertEquals(OLD, old.getBomRef());
+        assertEquals(OLD, bom.getDependencies().get(1).getRef());
+    }
+
+    @Test
+    void shouldHandleImmutableDependencyLists() {
+        Bom bom = new Bom();
+        bom.addComponent(component(OLD));
+
+        Dependency dependency = new Dependency(MAIN);
+        dependency.setDependencies(List.of(new Dependency(OLD)));
+        bom.setDependencies(List.of(dependency));
+
+        BomIndex.of(bom).updateDependencyRef(OLD, NEW);
+
+        assertEquals(NEW, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+    }
+
+    @Test
+    void shouldIndexAddedComponentsAndDependencies() {
+        Bom bom = new Bom();
+        BomIndex index = BomIndex.of(bom);
+
+        index.addComponent(component(OLD));
+        index.addDependency(new Dependency(OLD));
+
+        assertTrue(index.findComponentWithPurl(OLD).isPresent());
+        assertEquals(1, index.updateDependencyRef(OLD, NEW));
+        assertEquals(NEW, bom.getDependencies().get(0).getRef());
+    }
+
+    @Test
+    void shouldUpdateChainedDependencyRefsAtOnce() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+
+        // OLD moves to OTHER, while OTHER moves to NEW, none of the dependencies is moved twice
+        assertEquals(5, index.updateDependencyRefs(Map.of(OLD, OTHER, OTHER, NEW)));
+
+        assertEquals(OTHER, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(NEW, bom.getDependencies().get(0).getDependencies().get(1).getRef());
+        assertEquals(OTHER, bom.getDependencies().get(1).getRef());
+        assertEquals(NEW, bom.getDependencies().get(2).getRef());
+        assertEquals(OTHER, bom.getDependencies().get(2).getProvides().get(0).getRef());
+        assertFalse(index.isReferenced(OLD));
+        assertTrue(index.hasDependency(OTHER));
+        assertTrue(index.hasDependency(NEW));
+    }
+
+    @Test
+    void shouldShareIndexAcrossPurlUpdates() {
+        Bom bom = bom();
+        BomIndex index = BomIndex.of(bom);
+
+        assertEquals(Map.of(OLD, NEW), SbomUtils.updatePurls(index, Map.of(OLD, NEW)));
+
+        assertSame(bom.getComponents().get(1), SbomUtils.findComponentWithPurl(NEW, index).orElseThrow());
+        assertFalse(SbomUtils.findComponentWithPurl(OLD, index).isPresent());
+        assertEquals(1, index.getComponentsWithBomRef(NEW).size());
+        assertEquals(NEW, bom.getDependencies().get(1).getRef());
+
+        // The same index is used for further updates
+        SbomUtils.updateBomRef(index, bom.getComponents().get(1), NEW, OLD);
+
+        assertEquals(OLD, bom.getComponents().get(1).getBomRef());
+        assertEquals(OLD, bom.getDependencies().get(1).getRef());
+        assertEquals(OLD, bom.getDependencies().get(2).getProvides().get(0).getRef());
+    }
+}
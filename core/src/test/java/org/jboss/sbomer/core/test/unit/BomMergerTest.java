@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.junit.jupiter.api.Test;
+
+class BomMergerTest {
+
+    private static Component component(String bomRef, Component... components) {
+        Component component = new Component();
+        component.setBomRef(bomRef);
+        component.setName(bomRef);
+
+        if (components.length > 0) {
+            component.setComponents(new ArrayList<>(List.of(components)));
+        }
+
+        return component;
+    }
+
+    private static Dependency dependency(String ref, String... dependsOn) {
+        Dependency dependency = new Dependency(ref);
+
+        for (String d : dependsOn) {
+            dependency.addDependency(new Dependency(d));
+        }
+
+        return dependency;
+    }
+
+    private static List<String> bomRefs(List<Component> components) {
+        return components.stream().map(Component::getBomRef).toList();
+    }
+
+    private static List<String> refs(List<Dependency> dependencies) {
+        return dependencies.stream().map(Dependency::getRef).toList();
+    }
+
+    @Test
+    void shouldAppendMissingComponentsInSourceOrder() {
+        Bom target = new Bom();
+        target.setComponents(new ArrayList<>(List.of(component("c"), component("a"), component("b"))));
+
+        Bom source = new Bom();
+        source.setComponents(List.of(component("z"), component("a"), component("y"), component(null)));
+
+        SbomUtils.addMissingComponentsAndDependencies(target, source);
+
+        assertEquals(List.of("c", "a", "b", "z", "y"), bomRefs(target.getComponents()));
+    }
+
+    @Test
+    void shouldMergeNestedComponents() {
+        Component existing = component("parent", component("child-1"));
+        Bom target = new Bom();
+        target.setComponents(List.of(existing, component("other", component("child-3"))));
+
+        Bom source = new Bom();
+        source.setComponents(
+                List.of(
+                        component(
+                                "parent",
+                                component("child-2", component("grandchild")),
+                                component("child-1"),
+                                component("child-3"))));
+
+        SbomUtils.addMissingComponentsAndDependencies(target, source);
+
+        assertEquals(List.of("parent", "other"), bomRefs(target.getComponents()));
+        // The "child-3" component is already in the manifest, it is not added again
+        assertEquals(List.of("child-1", "child-2"), bomRefs(existing.getComponents()));
+        assertEquals(List.of("grandchild"), bomRefs(existing.getComponents().get(1).getComponents()));
+    }
+
+    @Test
+    void shouldMergeDependencies() {
+        Bom target = new Bom();
+        target.setDependencies(List.of(dependency("b", "x"), dependency("a")));
+
+        Dependency provider = dependency("p");
+        provider.addProvides(new Dependency("x"));
+
+        Bom source = new Bom();
+        source.setDependencies(
+                List.of(dependency("c", "a"), dependency("a", "b", "x"), dependency("b", "y", "x"), provider));
+
+        SbomUtils.addMissingComponentsAndDependencies(target, source);
+
+        assertEquals(List.of("b", "a", "c", "p"), refs(target.getDependencies()));
+        assertEquals(List.of("x", "y"), refs(target.getDependencies().get(0).getDependencies()));
+        assertEquals(List.of("b", "x"), refs(target.getDependencies().get(1).getDependencies()));
+        assertEquals(List.of("x"), refs(target.getDependencies().get(3).getProvides()));
+        assertNull(target.getComponents());
+    }
+
+    @Test
+    void shouldBeDeterministicAndIdempotent() throws IOException {
+        ManifestGenerator generator = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED);
+        Bom source = generator.syftImage(2000);
+
+        Bom first = CycloneDxJsonCodec.read(CycloneDxJsonCodec.toJsonNode(source));
+        first.setComponents(new ArrayList<>(first.getComponents().subList(0, 1000)));
+        first.setDependencies(new ArrayList<>(first.getDependencies().subList(0, 500)));
+
+        Bom second = CycloneDxJsonCodec.read(CycloneDxJsonCodec.toJsonNode(first));
+
+        SbomUtils.addMissingComponentsAndDependencies(first, source);
+        SbomUtils.addMissingComponentsAndDependencies(second, source);
+
+        assertEquals(bomRefs(source.getComponents()), bomRefs(first.getComponents()));
+        assertEquals(refs(source.getDependencies()), refs(first.getDependencies()));
+        assertEquals(CycloneDxJsonCodec.toJsonNode(first), CycloneDxJsonCodec.toJsonNode(second));
+
+        SbomUtils.addMissingComponentsAndDependencies(first, source);
+
+        assertEquals(CycloneDxJsonCodec.toJsonNode(second), CycloneDxJsonCodec.toJsonNode(first));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.utils.LookupCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LookupCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private LookupCache cache(Duration elapsed) {
+        Clock clock = Clock.fixed(NOW.plus(elapsed), ZoneOffset.UTC);
+        return new LookupCache(directory, Duration.ofHours(1), Duration.ofMinutes(10), clock);
+    }
+
+    private static LookupCache.Region<String> region(LookupCache cache) {
+        return cache.region("test", String.class, MAPPER, value -> value.startsWith("final"));
+    }
+
+    @Test
+    void shouldServeCachedValuesAcrossInstances() {
+        AtomicInteger loads = new AtomicInteger();
+        LookupCache first = cache(Duration.ZERO);
+
+        LookupCache.Loader<String, RuntimeException> loader = () -> {
+            loads.incrementAndGet();
+            return "value";
+        };
+
+        assertEquals("value", region(first).get("key", loader));
+        assertEquals("value", region(first).get("key", loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, first.getHits());
+        assertEquals(1, first.getMisses());
+
+        // A different process sharing the directory
+        LookupCache second = cache(Duration.ofMinutes(30));
+        assertEquals("value", region(second).get("key", () -> "other"));
+        assertEquals(1, second.getHits());
+    }
+
+    @Test
+    void shouldExpireMutableValues() {
+        region(cache(Duration.ZERO)).get("key", () -> "value");
+
+        assertEquals("updated", region(cache(Duration.ofHours(2))).get("key", () -> "updated"));
+    }
+
+    @Test
+    void shouldRemoveExpiredEntriesOnRead() throws IOException {
+        region(cache(Duration.ZERO)).put("key", "value");
+        assertEquals(1, countEntries());
+
+        assertNull(region(cache(Duration.ofHours(2))).find("key"));
+        assertEquals(0, countEntries());
+    }
+
+    private long countEntries() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json")).count();
+        }
+    }
+
+    @Test
+    void shouldNotExpireImmutableValues() {
+        region(cache(Duration.ZERO)).get("key", () -> "final value");
+
+        assertEquals("final value", region(cache(Duration.ofDays(365))).get("key", () -> "updated"));
+    }
+
+    @Test
+    void shouldExpireNegativeResultsSooner() {
+        assertNull(region(cache(Duration.ZERO)).get("key", () -> null));
+
+        assertNull(region(cache(Duration.ofMinutes(5))).get("key", () -> "found"));
+        assertEquals("found", region(cache(Duration.ofMinutes(15))).get("key", () -> "found"));
+    }
+
+    @Test
+    void shouldSeparateRegions() {
+        LookupCache cache = cache(Duration.ZERO);
+        region(cache).get("key", () -> "value");
+
+        LookupCache.Region<String> other = cache.region("other", String.class, MAPPER, value -> true);
+        assertNull(other.find("key"));
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+        LookupCache cache = LookupCache.disabled();
+        region(cache).get("key", () -> "value");
+
+        assertEquals("updated", region(cache).get("key", () -> "updated"));
+        assertEquals(0, cache.getHits());
+    }
+}
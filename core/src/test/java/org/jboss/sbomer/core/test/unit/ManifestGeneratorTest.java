@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.junit.jupiter.api.Test;
+
+class ManifestGeneratorTest {
+
+    private static void assertValid(Bom bom) throws IOException {
+        assertEquals(List.of(), SbomUtils.validate(CycloneDxJsonCodec.toJsonNode(bom)));
+    }
+
+    private static void assertDependenciesResolvable(Bom bom) {
+        Set<String> refs = new HashSet<>();
+        refs.add(bom.getMetadata().getComponent().getBomRef());
+        bom.getComponents().forEach(component -> assertTrue(refs.add(component.getBomRef())));
+
+        for (Dependency dependency : bom.getDependencies()) {
+            assertTrue(refs.contains(dependency.getRef()));
+
+            if (dependency.getDependencies() != null) {
+                dependency.getDependencies().forEach(d -> {
+                    assertTrue(refs.contains(d.getRef()));
+                    assertNotEquals(dependency.getRef(), d.getRef());
+                });
+            }
+        }
+    }
+
+    private static int depth(Map<String, Dependency> dependencies, String ref) {
+        Dependency dependency = dependencies.get(ref);
+
+        if (dependency.getDependencies() == null) {
+            return 0;
+        }
+
+        return 1 + dependency.getDependencies()
+                .stream()
+                .mapToInt(d -> depth(dependencies, d.getRef()))
+                .max()
+                .orElse(-1);
+    }
+
+    @Test
+    void shouldGenerateSameManifestsForSameSeed() throws IOException {
+        ManifestGenerator first = new ManifestGenerator(42);
+        ManifestGenerator second = new ManifestGenerator(42);
+
+        assertEquals(
+                CycloneDxJsonCodec.toJsonNode(first.syftImage(500)),
+                CycloneDxJsonCodec.toJsonNode(second.syftImage(500)));
+        assertEquals(
+                CycloneDxJsonCodec.toJsonNode(first.pncOperation(500, 4)),
+                CycloneDxJsonCodec.toJsonNode(second.pncOperation(500, 4)));
+        assertNotEquals(
+                CycloneDxJsonCodec.toJsonNode(new ManifestGenerator(43).syftImage(500)),
+                CycloneDxJsonCodec.toJsonNode(new ManifestGenerator(42).syftImage(500)));
+    }
+
+    @Test
+    void shouldGenerateSyftImage() throws IOException {
+        Bom bom = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).syftImage(2000, 4, "arm64");
+
+        // All components plus the operating system
+        assertEquals(2001, bom.getComponents().size());
+        assertValid(bom);
+        assertDependenciesResolvable(bom);
+
+        Map<String, Long> purlTypes = new HashMap<>();
+        bom.getComponents()
+                .stream()
+                .filter(component -> component.getPurl() != null)
+                .forEach(c -> purlTypes.merge(c.getPurl().substring(0, c.getPurl().indexOf('/')), 1L, Long::sum));
+
+        assertEquals(
+                Set.of("pkg:rpm", "pkg:maven", "pkg:golang", "pkg:npm", "pkg:pypi", "pkg:generic"),
+                purlTypes.keySet());
+        assertTrue(purlTypes.get("pkg:rpm") > purlTypes.get("pkg:maven"));
+        assertTrue(
+                bom.getComponents()
+                        .stream()
+                        .filter(c -> c.getPurl() != null && c.getPurl().startsWith("pkg:rpm/"))
+                        .allMatch(c -> c.getPurl().contains("arch=aarch64") || c.getPurl().contains("arch=noarch")));
+        assertTrue(
+                bom.getMetadata()
+                        .getProperties()
+                        .stream()
+                        .anyMatch(p -> "syft:image:labels:version".equals(p.getName())));
+    }
+
+    @Test
+    void shouldGeneratePncOperationWithNestedArchives() throws IOException {
+        Bom bom = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).pncOperation(3000, 5);
+
+        assertEquals(3000, bom.getComponents().size());
+        assertEquals(Component.Type.FILE, bom.getMetadata().getComponent().getType());
+        assertValid(bom);
+        assertDependenciesResolvable(bom);
+
+        Map<String, Dependency> dependencies = new HashMap<>();
+        bom.getDependencies().forEach(dependency -> dependencies.put(dependency.getRef(), dependency));
+
+        // The deliverable, plus at most 5 levels of archive nesting
+        int depth = depth(dependencies, bom.getMetadata().getComponent().getBomRef());
+        assertTrue(depth > 2, "Expected nested archives, depth: " + depth);
+        assertTrue(depth <= 6, "Expected at most 5 levels of nesting, depth: " + depth);
+    }
+
+    @Test
+    void shouldGenerateMultiArchImages() {
+        ManifestGenerator generator = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED);
+        List<Bom> boms = generator.multiArchImages(300, 4, ManifestGenerator.ARCHITECTURES);
+
+        assertEquals(4, boms.size());
+
+        Bom amd64 = boms.get(0);
+        Bom s390x = boms.get(3);
+
+        assertEquals(amd64.getMetadata().getComponent().getName(), s390x.getMetadata().getComponent().getName());
+        assertNotEquals(
+                amd64.getMetadata().getComponent().getVersion(),
+                s390x.getMetadata().getComponent().getVersion());
+
+        for (int i = 0; i < amd64.getComponents().size(); i++) {
+            Component component = amd64.getComponents().get(i);
+            Component other = s390x.getComponents().get(i);
+
+            if (component.getPurl() != null) {
+                assertEquals(component.getPurl().replace("x86_64", "s390x"), other.getPurl());
+            }
+        }
+    }
+
+    @Test
+    void shouldGenerateImageIndex() throws IOException {
+        Bom bom = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).imageIndex(ManifestGenerator.ARCHITECTURES);
+
+        assertValid(bom);
+        assertEquals(1, bom.getComponents().size());
+        assertEquals(4, bom.getComponents().get(0).getPedigree().getVariants().getComponents().size());
+        assertTrue(bom.getComponents().get(0).getBomRef().endsWith("_image-index"));
+    }
+}
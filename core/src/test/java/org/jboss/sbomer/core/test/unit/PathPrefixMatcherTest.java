@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.sbomer.core.features.sbom.utils.PathPrefixMatcher;
+import org.junit.jupiter.api.Test;
+
+class PathPrefixMatcherTest {
+
+    @Test
+    void shouldMatchLikeStartsWith() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of(List.of("/opt/app", "/usr/bin", "/opt/application/lib"));
+
+        assertFalse(matcher.isEmpty());
+        assertTrue(matcher.matches("/opt/app"));
+        assertTrue(matcher.matches("/opt/app/lib/a.jar"));
+        assertTrue(matcher.matches("/opt/application/lib/a.jar"));
+        assertTrue(matcher.matches("/usr/bin/tool"));
+        assertFalse(matcher.matches("/opt/ap"));
+        assertFalse(matcher.matches("/opt"));
+        assertFalse(matcher.matches("/usr/lib/tool"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    void shouldMatchNothingWithoutPrefixes() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of(Arrays.asList((String) null));
+
+        assertTrue(matcher.isEmpty());
+        assertTrue(PathPrefixMatcher.of(null).isEmpty());
+        assertTrue(PathPrefixMatcher.of(List.of()).isEmpty());
+        assertFalse(matcher.matches("/opt/app"));
+    }
+
+    @Test
+    void shouldMatchEverythingWithEmptyPrefix() {
+        PathPrefixMatcher matcher = PathPrefixMatcher.of(List.of("", "/opt/app"));
+
+        assertTrue(matcher.matches(""));
+        assertTrue(matcher.matches("/usr/lib/tool"));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
+import org.jboss.sbomer.core.pnc.PncService;
+import org.junit.jupiter.api.Test;
+
+class PncServiceArtifactsTest {
+
+    /**
+     * Records the RSQL queries instead of sending these to PNC and returns the provided artifacts for every query.
+     */
+    static class RecordingPncService extends PncService {
+        final List<String> queries = new ArrayList<>();
+
+        final List<Artifact> artifacts;
+
+        RecordingPncService(List<Artifact> artifacts) {
+            super("localhost");
+            this.artifacts = artifacts;
+        }
+
+        @Override
+        protected Collection<Artifact> queryArtifacts(String rsql) {
+            queries.add(rsql);
+            return artifacts;
+        }
+    }
+
+    private static int encodedLength(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).length();
+    }
+
+    @Test
+    void shouldSplitQueriesByBatchSize() {
+        RecordingPncService service = new RecordingPncService(List.of());
+        List<ArtifactQuery> queries = IntStream.range(0, 2 * PncService.ARTIFACT_BATCH_SIZE + 50)
+                .mapToObj(i -> new ArtifactQuery(null, null, "sha1-" + i, null))
+                .toList();
+
+        Map<ArtifactQuery, Artifact> results = service.getArtifacts(queries);
+
+        assertEquals(3, service.queries.size());
+        assertEquals(PncService.ARTIFACT_BATCH_SIZE, service.queries.get(0).split(",").length);
+        assertEquals(PncService.ARTIFACT_BATCH_SIZE, service.queries.get(1).split(",").length);
+        assertEquals(50, service.queries.get(2).split(",").length);
+        assertEquals(queries.size(), results.size());
+        assertTrue(results.values().stream().allMatch(a -> a == null));
+    }
+
+    @Test
+    void shouldSplitQueriesByEncodedLength() {
+        RecordingPncService service = new RecordingPncService(List.of());
+        // Quotes, colons, slashes and @ are encoded, so the encoded query is much longer than the raw one
+        List<ArtifactQuery> queries = IntStream.range(0, 50)
+                .mapToObj(
+                        i -> new ArtifactQuery(
+                                "pkg:maven/org.acme.some.long.group/artifact-" + i
+                                        + "@1.0.0.redhat-00001?type=jar&classifier=sources",
+                                null,
+                                null,
+                                null))
+                .toList();
+
+        int rawLength = queries.stream().mapToInt(q -> q.toRsql().length() + 1).sum();
+        int encodedLength = queries.stream().mapToInt(q -> encodedLength(q.toRsql()) + 3).sum();
+
+        // The raw length alone would fit into a single request
+        assertTrue(rawLength < PncService.MAX_RSQL_LENGTH);
+        assertTrue(encodedLength > PncService.MAX_RSQL_LENGTH);
+
+        service.getArtifacts(queries);
+
+        assertTrue(service.queries.size() > 1);
+        assertEquals(queries.size(), service.queries.stream().mapToInt(q -> q.split("\",").length).sum());
+
+        for (String rsql : service.queries) {
+            assertTrue(encodedLength(rsql) <= PncService.MAX_RSQL_LENGTH);
+        }
+    }
+
+    @Test
+    void shouldMapArtifactsToMatchingQueries() {
+        Artifact byHash = Artifact.builder().id("1").purl("pkg:maven/org.acme/other@1.0.0").sha256("abc").build();
+        Artifact withoutBuild = Artifact.builder().id("2").purl("pkg:maven/org.acme/main@1.0.0").build();
+        Artifact withBuild = Artifact.builder()
+                .id("3")
+                .purl("pkg:maven/org.acme/main@1.0.0")
+                .build(Build.builder().id("100").build())
+                .build();
+
+        RecordingPncService service = new RecordingPncService(List.of(byHash, withoutBuild, withBuild));
+
+        ArtifactQuery hashQuery = new ArtifactQuery(null, "abc", null, null);
+        ArtifactQuery purlQuery = new ArtifactQuery("pkg:maven/org.acme/main@1.0.0", null, null, null);
+        ArtifactQuery missingQuery = new ArtifactQuery("pkg:maven/org.acme/missing@1.0.0", null, null, null);
+
+        Map<ArtifactQuery, Artifact> results = service.getArtifacts(List.of(hashQuery, purlQuery, missingQuery));
+
+        assertEquals(1, service.queries.size());
+        assertSame(byHash, results.get(hashQuery));
+        // The artifact associated with a build is preferred
+        assertSame(withBuild, results.get(purlQuery));
+        assertTrue(results.containsKey(missingQuery));
+        assertNull(results.get(missingQuery));
+    }
+
+    @Test
+    void shouldMapAllArtifactsToSingleQuery() {
+        // PNC does not necessarily return the values queried for
+        Artifact artifact = Artifact.builder().id("123").build();
+        RecordingPncService service = new RecordingPncService(List.of(artifact));
+        ArtifactQuery purlQuery = new ArtifactQuery("pkg:maven/org.acme/main@1.0.0", null, null, null);
+
+        assertSame(artifact, service.getArtifacts(List.of(purlQuery)).get(purlQuery));
+    }
+}
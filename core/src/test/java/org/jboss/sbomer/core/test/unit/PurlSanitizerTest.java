@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.TreeMap;
+
+import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PurlSanitizerTest {
+
+    // Regular expressions used previously, the sanitizer must produce the same results
+    private static final String NAME_VERSION_QKEY_QVALUE = "[^a-zA-Z0-9.+\\-_]";
+    private static final String TYPE_INVALID_CHARS = "[^a-zA-Z0-9.+-]";
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = { "", "passt", "0^20230222.g4ddbcb9-4.el9_2", "a b:c@d", "\u00dcn\u00efc\u00f6d\u00e9",
+                    "emoji-\uD83D\uDE00-x", "trailing/", "x+y_z.1-2", "%20" })
+    void shouldSanitizeLikeRegularExpression(String value) {
+        assertEquals(value.replaceAll(NAME_VERSION_QKEY_QVALUE, "-"), PurlSanitizer.sanitizeName(value));
+        assertEquals(value.replaceAll(NAME_VERSION_QKEY_QVALUE, "-"), PurlSanitizer.sanitizeVersion(value));
+        assertEquals(value.replaceAll(TYPE_INVALID_CHARS, "-").toLowerCase(), PurlSanitizer.sanitizeType(value));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = { "", "/", "a/b/c", "a//b", "/a/b", "a/b/", "a/b//", "a b/c:d/e", "///",
+                    "\u00dcn\u00ef/c\u00f3/d\u00e9/" })
+    void shouldSanitizeSubpathLikeRegularExpression(String value) {
+        String[] segments = value.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = segments[i].replaceAll(NAME_VERSION_QKEY_QVALUE, "-");
+        }
+
+        assertEquals(String.join("/", segments), PurlSanitizer.sanitizeSubpath(value));
+    }
+
+    @Test
+    void shouldNotAllocateValidValues() {
+        String name = "valid-name_1.0+x";
+
+        assertSame(name, PurlSanitizer.sanitizeName(name));
+        assertSame(name, PurlSanitizer.sanitizeSubpath(name));
+    }
+
+    @Test
+    void shouldSanitizeQualifiers() {
+        TreeMap<String, String> qualifiers = new TreeMap<>();
+        qualifiers.put("upstream", "passt-0^20230222.src.rpm");
+
+        assertEquals("passt-0-20230222.src.rpm", PurlSanitizer.sanitizeQualifiers(qualifiers).get("upstream"));
+    }
+
+    @Test
+    void shouldSanitizeMalformedPurl() {
+        assertEquals(
+                "pkg:generic/acme/some-name@1.0-1?arch=x86_64&repo=a-b",
+                PurlSanitizer.sanitizePurl("pkg:generic/acme/some name@1.0^1?arch=x86_64&&repo=a^b&invalid"));
+    }
+
+    @Test
+    void shouldCacheSanitizedAndCanonicalPurls() {
+        String purl = "pkg:rpm/redhat/passt@0^20230222.g4ddbcb9-4.el9_2?arch=x86_64";
+
+        assertSame(SbomUtils.sanitizePurl(purl), SbomUtils.sanitizePurl(purl));
+        assertSame(
+                SbomUtils.canonicalizePurl("pkg:maven/org.acme/a@1.0?type=jar"),
+                SbomUtils.canonicalizePurl("pkg:maven/org.acme/a@1.0?type=jar"));
+    }
+}
@@ -33,12 +33,17 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -46,8 +51,10 @@ import org.cyclonedx.Version;
 import org.cyclonedx.generators.json.BomJsonGenerator;
 import org.cyclonedx.model.Ancestors;
 import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.BomReference;
 import org.cyclonedx.model.Component;
 import org.cyclonedx.model.Component.Type;
+import org.cyclonedx.model.Composition;
 import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.Evidence;
 import org.cyclonedx.model.ExternalReference;
@@ -75,6 +82,8 @@ import org.jboss.pnc.dto.response.AnalyzedDistribution;
 import org.jboss.pnc.enums.SystemImageType;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.Constants;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.features.sbom.utils.VcsUrl;
 import org.jboss.sbomer.core.test.TestResources;
@@ -120,6 +129,80 @@ class SbomUtilsTest {
             assertEquals("Apache-2.0", bom.getMetadata().getComponent().getLicenses().getLicenses().get(0).getId());
         }
 
+        private static Bom readBase() throws Exception {
+            try (InputStream inputStream = Files.newInputStream(sbomPath("base.json"))) {
+                return CycloneDxJsonCodec.read(inputStream);
+            }
+        }
+
+        private static void addComposition(Bom bom) {
+            Composition composition = new Composition();
+            composition.setAggregate(Composition.Aggregate.COMPLETE);
+            composition.setAssemblies(List.of(new BomReference(bom.getComponents().get(0).getBomRef())));
+            composition.setDependencies(List.of(new BomReference(bom.getMetadata().getComponent().getBomRef())));
+            bom.setCompositions(List.of(composition));
+        }
+
+        private static String write(Bom bom) throws Exception {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            CycloneDxJsonCodec.write(bom, outputStream);
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
+
+        @Test
+        void shouldStreamSbomWithSameOutputAsGenerator() throws Exception {
+            Bom bom = readBase();
+            // The generator updates the manifest it writes, so it gets its own copy
+            Bom expected = readBase();
+
+            assertNotNull(bom);
+            assertEquals(39, bom.getComponents().size());
+            assertEquals("1.4", bom.getSpecVersion());
+
+            String codecOutput = write(bom);
+
+            assertEquals(SbomUtils.toJson(expected), codecOutput);
+            assertEquals(SbomUtils.schemaVersion().getVersionString(), bom.getSpecVersion());
+            assertEquals("CycloneDX", bom.getBomFormat());
+            assertEquals(
+                    new BomJsonGenerator(readBase(), SbomUtils.schemaVersion()).toJsonNode(),
+                    CycloneDxJsonCodec.toJsonNode(bom));
+        }
+
+        @Test
+        void shouldStreamSbomWithCompositionsWithSameOutputAsGenerator() throws Exception {
+            Bom bom = readBase();
+            addComposition(bom);
+            Bom expected = readBase();
+            addComposition(expected);
+
+            String codecOutput = write(bom);
+
+            assertEquals(SbomUtils.toJson(expected), codecOutput);
+
+            // References are written as plain strings
+            JsonNode jsonNode = ObjectMapperProvider.json().readTree(codecOutput);
+            assertEquals(
+                    bom.getComponents().get(0).getBomRef(),
+                    jsonNode.at("/compositions/0/assemblies/0").textValue());
+            assertEquals(jsonNode, CycloneDxJsonCodec.toJsonNode(bom));
+
+            Bom read = CycloneDxJsonCodec.read(codecOutput);
+            assertEquals(
+                    bom.getComponents().get(0).getBomRef(),
+                    read.getCompositions().get(0).getAssemblies().get(0).getRef());
+        }
+
+        @Test
+        void shouldConvertJsonNodeWithoutSerialization() throws Exception {
+            JsonNode jsonNode = ObjectMapperProvider.json().readTree(sbomPath("base.json").toFile());
+            Bom bom = SbomUtils.fromJsonNode(jsonNode);
+
+            assertNotNull(bom);
+            assertEquals(39, bom.getComponents().size());
+            assertEquals("Apache-2.0", bom.getMetadata().getComponent().getLicenses().getLicenses().get(0).getId());
+        }
+
         @Test
         @Disabled("Doesn't work in Temurin JDK, needs investigation")
         // SbomUtilsTest$SbomUtilsTestNested.shouldReadFromFileAndConvertToJsonNode:92 expected:
@@ -549,6 +632,104 @@ class SbomUtilsTest {
         assertEquals("pkg:maven/custom@1.1.0.redhat-00002?type=jar", productDeps.get(2).getRef());
     }
 
+    @Test
+    void testUpdatePurls() {
+        String main = "pkg:maven/main-product/asm@9.1.0.redhat-00002?type=jar";
+        String oldAsm = "pkg:maven/org.objectweb.asm/asm@9.1.0.redhat-00002?type=jar";
+        String newAsm = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+        String oldCustom = "pkg:maven/custom@1.1.0.redhat-00002?type=jar";
+        String newCustom = "pkg:maven/org.acme/custom@1.1.0.redhat-00002?type=jar";
+        String other = "pkg:maven/other@1.0.0?type=jar";
+
+        Bom bom = new Bom();
+        Metadata metadata = new Metadata();
+        metadata.setComponent(createComponent(null, "main", "1.0.0", null, main, Type.LIBRARY));
+        bom.setMetadata(metadata);
+
+        bom.addComponent(createComponent(null, "asm", "9.1.0.redhat-00002", null, oldAsm, Type.LIBRARY));
+        bom.addComponent(createComponent(null, "custom", "1.1.0.redhat-00002", null, oldCustom, Type.LIBRARY));
+        bom.addComponent(createComponent(null, "other", "1.0.0", null, other, Type.LIBRARY));
+
+        Dependency mainDependency = new Dependency(main);
+        mainDependency.addDependency(new Dependency(oldAsm));
+        mainDependency.addDependency(new Dependency(oldCustom));
+        mainDependency.addDependency(new Dependency(other));
+        Dependency otherDependency = new Dependency(other);
+        otherDependency.addProvides(new Dependency(oldCustom));
+
+        bom.addDependency(mainDependency);
+        bom.addDependency(new Dependency(oldAsm));
+        bom.addDependency(new Dependency(oldCustom));
+        bom.addDependency(otherDependency);
+
+        // The 'custom' component cannot get its bom-ref updated, because 'other' is already used as a ref
+        Map<String, String> applied = SbomUtils.updatePurls(bom, Map.of(oldAsm, newAsm, oldCustom, other));
+
+        assertEquals(Map.of(oldAsm, newAsm), applied);
+
+        assertEquals(newAsm, bom.getComponents().get(0).getPurl());
+        assertEquals(newAsm, bom.getComponents().get(0).getBomRef());
+        assertEquals(other, bom.getComponents().get(1).getPurl());
+        assertEquals(oldCustom, bom.getComponents().get(1).getBomRef());
+
+        assertEquals(4, bom.getDependencies().size());
+        assertEquals(newAsm, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(oldCustom, bom.getDependencies().get(0).getDependencies().get(1).getRef());
+        assertEquals(newAsm, bom.getDependencies().get(1).getRef());
+        assertEquals(oldCustom, bom.getDependencies().get(2).getRef());
+        assertEquals(oldCustom, bom.getDependencies().get(3).getProvides().get(0).getRef());
+
+        // Relocations are applied at once, not transitively, the ref vacated by 'asm' is taken by 'other'
+        applied = SbomUtils.updatePurls(bom, Map.of(newAsm, newCustom, other, newAsm));
+
+        assertEquals(Map.of(newAsm, newCustom, other, newAsm), applied);
+        assertEquals(newCustom, bom.getComponents().get(0).getPurl());
+        assertEquals(newCustom, bom.getDependencies().get(1).getRef());
+        assertEquals(newAsm, bom.getComponents().get(2).getPurl());
+        assertEquals(newAsm, bom.getComponents().get(2).getBomRef());
+        assertEquals(newAsm, bom.getDependencies().get(3).getRef());
+        assertEquals(newAsm, bom.getDependencies().get(0).getDependencies().get(2).getRef());
+    }
+
+    @Test
+    void testUpdatePurlsChained() {
+        String a = "pkg:maven/org.acme/a@1.0.0?type=jar";
+        String b = "pkg:maven/org.acme/b@1.0.0?type=jar";
+        String c = "pkg:maven/org.acme/c@1.0.0?type=jar";
+        String d = "pkg:maven/org.acme/d@1.0.0?type=jar";
+
+        Bom bom = new Bom();
+        bom.addComponent(createComponent(null, "a", "1.0.0", null, a, Type.LIBRARY));
+        bom.addComponent(createComponent(null, "b", "1.0.0", null, b, Type.LIBRARY));
+        bom.addComponent(createComponent(null, "d", "1.0.0", null, d, Type.LIBRARY));
+
+        Dependency aDependency = new Dependency(a);
+        aDependency.addDependency(new Dependency(b));
+        bom.addDependency(aDependency);
+        bom.addDependency(new Dependency(b));
+        bom.addDependency(new Dependency(d));
+
+        Map<String, String> applied = SbomUtils.updatePurls(bom, Map.of(a, b, b, c));
+
+        assertEquals(Map.of(a, b, b, c), applied);
+        assertEquals(b, bom.getComponents().get(0).getPurl());
+        assertEquals(b, bom.getComponents().get(0).getBomRef());
+        assertEquals(c, bom.getComponents().get(1).getPurl());
+        assertEquals(c, bom.getComponents().get(1).getBomRef());
+        assertEquals(b, bom.getDependencies().get(0).getRef());
+        assertEquals(c, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(c, bom.getDependencies().get(1).getRef());
+
+        // 'b' cannot move to 'd', which stays in place, so 'c' cannot take the ref of 'b' either
+        applied = SbomUtils.updatePurls(bom, Map.of(c, b, b, d));
+
+        assertEquals(Map.of(), applied);
+        assertEquals(d, bom.getComponents().get(0).getPurl());
+        assertEquals(b, bom.getComponents().get(0).getBomRef());
+        assertEquals(b, bom.getComponents().get(1).getPurl());
+        assertEquals(c, bom.getComponents().get(1).getBomRef());
+    }
+
     @Test
     void shouldMapHashesWithGetDistroHashes() {
         // Hashes are all generated on "" (empty)
@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Property;
+import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.utils.CycloneDxJsonCodec;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StringPool;
+import org.jboss.sbomer.core.test.ManifestGenerator;
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+    private static byte[] toBytes(Bom bom) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CycloneDxJsonCodec.write(bom, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static Set<String> propertyStrings(Bom bom) {
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Component component : bom.getComponents()) {
+            if (component.getProperties() != null) {
+                for (Property property : component.getProperties()) {
+                    instances.add(property.getName());
+                    instances.add(property.getValue());
+                }
+            }
+        }
+
+        return instances;
+    }
+
+    @Test
+    void shouldReturnCanonicalInstance() {
+        StringPool pool = new StringPool();
+        String first = new String("syft:package:type");
+        String second = new String("syft:package:type");
+
+        assertSame(first, pool.canonicalize(first));
+        assertSame(first, pool.canonicalize(second));
+        assertNull(pool.canonicalize(null));
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    void shouldRespectLimits() {
+        StringPool pool = new StringPool(1, 5);
+
+        pool.canonicalize("abc");
+        String longValue = new String("abcdef");
+        String otherValue = new String("xyz");
+
+        assertNotSame(longValue, pool.canonicalize(new String("abcdef")));
+        pool.canonicalize(otherValue);
+        assertNotSame(otherValue, pool.canonicalize(new String("xyz")));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void shouldDeduplicateValuesWhenReading() throws IOException {
+        Bom bom = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).syftImage(5000);
+        byte[] content = toBytes(bom);
+
+        Bom duplicated = CycloneDxJsonCodec.read(new ByteArrayInputStream(content), new StringPool(0, 0));
+        Bom deduplicated = CycloneDxJsonCodec.read(new ByteArrayInputStream(content));
+
+        // Same content...
+        assertEquals(CycloneDxJsonCodec.toJsonNode(duplicated), CycloneDxJsonCodec.toJsonNode(deduplicated));
+
+        // ...but property names and values repeated across components are held only once
+        int withoutPool = propertyStrings(duplicated).size();
+        int withPool = propertyStrings(deduplicated).size();
+
+        assertTrue(withPool * 2 < withoutPool, "Expected at least half of the instances to be deduplicated");
+    }
+
+    @Test
+    void shouldDeduplicateValuesAcrossManifests() throws IOException {
+        List<Bom> boms = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED)
+                .multiArchImages(100, 4, ManifestGenerator.ARCHITECTURES);
+        StringPool pool = new StringPool();
+
+        Bom amd64 = CycloneDxJsonCodec.read(new ByteArrayInputStream(toBytes(boms.get(0))), pool);
+        Bom arm64 = CycloneDxJsonCodec.read(new ByteArrayInputStream(toBytes(boms.get(1))), pool);
+
+        assertSame(amd64.getComponents().get(0).getName(), arm64.getComponents().get(0).getName());
+    }
+
+    @Test
+    void shouldReadSameManifestAsCycloneDxParser() throws Exception {
+        Bom bom = new ManifestGenerator(ManifestGenerator.DEFAULT_SEED).pncOperation(500, 3);
+        String content = new String(toBytes(bom), StandardCharsets.UTF_8);
+
+        assertEquals(
+                CycloneDxJsonCodec.toJsonNode(new JsonParser().parse(content.getBytes(StandardCharsets.UTF_8))),
+                CycloneDxJsonCodec.toJsonNode(SbomUtils.fromString(content)));
+    }
+}
@@ -2,6 +2,7 @@ package org.jboss.sbomer.core.test.unit.config;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -11,6 +12,7 @@ import java.util.List;
 
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
+import org.jboss.sbomer.core.SchemaValidator;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
 import org.jboss.sbomer.core.config.ConfigSchemaValidator;
 import org.jboss.sbomer.core.errors.ApplicationException;
@@ -33,6 +35,24 @@ import org.junit.jupiter.api.Test;
 class ConfigSchemaValidatorTest {
     final ConfigSchemaValidator validator = new ConfigSchemaValidator();
 
+    @Test
+    void shouldReuseCompiledSchema() {
+        assertSame(
+                SchemaValidator.getValidator("schemas/config.json").orElseThrow(),
+                SchemaValidator.getValidator("schemas/config.json").orElseThrow());
+    }
+
+    @Test
+    void shouldFailOnMissingSchema() {
+        assertTrue(SchemaValidator.getValidator("schemas/doesnotexist.json").isEmpty());
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> SchemaValidator.validateResource("schemas/doesnotexist.json", "{}"));
+
+        assertEquals("Could not find schema 'schemas/doesnotexist.json'", ex.getMessage());
+    }
+
     @Nested
     class PncBuildConfigTests {
 
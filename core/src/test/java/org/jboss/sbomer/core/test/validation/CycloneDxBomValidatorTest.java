@@ -17,24 +17,32 @@
  */
 package org.jboss.sbomer.core.test.validation;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Locale;
 
+import org.cyclonedx.exception.ParseException;
 import org.cyclonedx.model.Bom;
 import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.features.sbom.validation.CycloneDxBomValidator;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 class CycloneDxBomValidatorTest {
 
     private static Locale originalLocale;
@@ -70,4 +78,33 @@ class CycloneDxBomValidatorTest {
                         "sbom.components[2].pedigree.commits[1].url: does not match the iri-reference pattern must be a valid RFC 3987 IRI-reference"));
 
     }
+
+    private static JsonNode invalidManifest() {
+        return SbomUtils.toJsonNode(
+                SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", "invalid-pedigree.json")));
+    }
+
+    @Test
+    void shouldCacheValidationResultByContent() throws IOException {
+        JsonNode manifest = invalidManifest();
+
+        List<ParseException> errors = SbomUtils.validate(manifest);
+
+        assertEquals(1, errors.size());
+        // Same content, different instance
+        assertSame(errors, SbomUtils.validate(manifest.deepCopy()));
+    }
+
+    @Test
+    void shouldSkipValidationOfContentMarkedAsValid() throws IOException {
+        JsonNode manifest = invalidManifest();
+
+        try {
+            CycloneDxValidationCache.markValid(CycloneDxValidationCache.hash(manifest));
+
+            assertTrue(SbomUtils.validate(manifest).isEmpty());
+        } finally {
+            CycloneDxValidationCache.clear();
+        }
+    }
 }
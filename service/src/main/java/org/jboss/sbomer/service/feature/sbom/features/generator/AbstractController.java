@@ -54,6 +54,7 @@ import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.utils.StringPool;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
 import org.jboss.sbomer.service.feature.errors.FeatureDisabledException;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
@@ -689,6 +690,8 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     @BeforeRetry(RetryLogger.class)
     public List<Bom> readManifests(List<Path> manifestPaths) {
         List<Bom> boms = new ArrayList<>();
+        // Manifests read together share most of their content (e.g. all variants of a multi-arch image)
+        StringPool pool = new StringPool();
 
         log.info("Reading {} manifests...", manifestPaths.size());
 
@@ -696,7 +699,7 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             log.debug("Reading manifest at path '{}'...", manifestPath);
 
             // Read the generated SBOM JSON file
-            Bom bom = SbomUtils.fromPath(manifestPath);
+            Bom bom = SbomUtils.fromPath(manifestPath, pool);
 
             // If we couldn't read it, this is a fatal failure for us
             if (bom == null) {
@@ -706,6 +709,8 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             boms.add(bom);
         }
 
+        log.debug("Read {} manifests, {} duplicate values were deduplicated", boms.size(), pool.getHits());
+
         return boms;
     }
 }
@@ -17,11 +17,14 @@
  */
 package org.jboss.sbomer.service.feature.sbom.k8s.reconciler;
 
+import static org.jboss.sbomer.core.features.sbom.Constants.PROCESS_REPORT_SUFFIX;
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.SBOM_IO_CONCURENCY;
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.SBOM_IO_DELAY;
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.SBOM_IO_MAX_QUEUE;
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.SBOM_IO_MAX_RETRIES;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -62,6 +65,7 @@ import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.slf4j.MDC;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.fabric8.tekton.v1beta1.Param;
@@ -624,6 +628,7 @@ public class BuildController extends AbstractController {
                     .withSbom(SbomUtils.toJsonNode(bom))
                     .withGenerationRequest(sbomGenerationRequest)
                     .withConfigIndex(i)
+                    .withProcessReport(readProcessReport(sbomPath))
                     .build();
 
             // And store it in the database
@@ -633,6 +638,33 @@ public class BuildController extends AbstractController {
         return sboms;
     }
 
+    /**
+     * Reads the reports of the commands run during the generation, written by the generator next to the manifest, for
+     * example {@code bom.process-report.json} for {@code bom.json}. The reports are optional, these are not written if
+     * no command was run (for example if a previously generated manifest was reused).
+     *
+     * @param sbomPath the path to the generated manifest
+     * @return the reports or {@code null} if not available
+     */
+    private JsonNode readProcessReport(Path sbomPath) {
+        String fileName = sbomPath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        String baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        Path reportPath = sbomPath.resolveSibling(baseName + PROCESS_REPORT_SUFFIX);
+
+        if (!Files.exists(reportPath)) {
+            log.debug("No process report found at '{}'", reportPath);
+            return null;
+        }
+
+        try {
+            return ObjectMapperProvider.json().readTree(reportPath.toFile());
+        } catch (IOException e) {
+            log.warn("Could not read the process report from '{}', ignoring", reportPath, e);
+            return null;
+        }
+    }
+
     private Config setConfig(GenerationRequest generationRequest, TaskRun taskRun) {
         log.debug("Handling result of the initialization task");
 
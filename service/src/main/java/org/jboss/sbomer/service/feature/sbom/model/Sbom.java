@@ -18,6 +18,7 @@
 package org.jboss.sbomer.service.feature.sbom.model;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -29,6 +30,7 @@ import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.features.sbom.validation.CycloneDxBom;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -112,6 +114,25 @@ public class Sbom extends PanacheEntityBase {
     @Schema(implementation = Map.class)
     private JsonNode releaseMetadata;
 
+    /**
+     * Reports of the commands run by the generator (exit code, duration, CPU time, peak memory and the amount of
+     * output), if provided by the generator.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "process_report")
+    @ToString.Exclude
+    @Schema(implementation = List.class)
+    private JsonNode processReport;
+
+    /**
+     * The hash of the manifest content (see {@link CycloneDxValidationCache#hash(JsonNode)}) which last passed the
+     * CycloneDX schema validation. Set by the service when it validates the manifest and used to skip the validation of
+     * unchanged manifests.
+     */
+    @JsonIgnore
+    @Column(name = "validated_hash", length = 64)
+    private String validatedHash;
+
     /**
      * Updates the purl for the object based on the SBOM content, if provided.
      *
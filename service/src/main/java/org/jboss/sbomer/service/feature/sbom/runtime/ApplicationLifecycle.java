@@ -17,6 +17,7 @@
  */
 package org.jboss.sbomer.service.feature.sbom.runtime;
 
+import org.jboss.sbomer.core.config.ConfigSchemaValidator;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 
 import io.quarkus.runtime.ShutdownEvent;
@@ -38,9 +39,15 @@ public class ApplicationLifecycle {
     @Inject
     FeatureFlags featureFlags;
 
+    @Inject
+    ConfigSchemaValidator configSchemaValidator;
+
     void onStart(@Observes StartupEvent event) {
         // we need to log startup and shutdown events
         log.info("Application has started");
+
+        // Compile the configuration schemas before the first request needs them
+        configSchemaValidator.warmUp();
     }
 
     void onStop(@Observes ShutdownEvent event) {
@@ -51,6 +51,7 @@ import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
@@ -473,21 +474,34 @@ public class SbomService {
     }
 
     /**
-     * Validates given {@link Sbom SBOM}.
+     * Validates given {@link Sbom SBOM}. If the manifest content did not change since it was last validated (see
+     * {@link Sbom#getValidatedHash()}), the CycloneDX schema validation is skipped. Once the SBOM is valid, the hash of
+     * its manifest is recorded.
      *
      * @param sbom the SBOM to validate
      */
     private void validate(Sbom sbom) {
         log.debug("Performing validation of SBOM: {}", sbom);
 
+        String hash = sbom.getSbom() != null ? CycloneDxValidationCache.hash(sbom.getSbom()) : null;
+
+        if (hash != null && hash.equals(sbom.getValidatedHash())) {
+            log.debug("Manifest of SBOM '{}' was validated before, skipping schema validation", sbom.getId());
+            CycloneDxValidationCache.markValid(hash);
+        }
+
         Set<ConstraintViolation<Sbom>> violations = validator.validate(sbom);
 
         if (!violations.isEmpty()) {
+            sbom.setValidatedHash(null);
+
             throw new ValidationException(
                     "SBOM validation error",
                     RestUtils.constraintViolationsToMessages(violations));
         }
 
+        sbom.setValidatedHash(hash);
+
         log.debug("SBOM '{}' is valid!", sbom.getId());
     }
 
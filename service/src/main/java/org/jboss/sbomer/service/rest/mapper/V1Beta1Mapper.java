@@ -51,7 +51,7 @@ public interface V1Beta1Mapper extends EntityMapper<V1Beta1ManifestRecord, V1Bet
 
     @Override
     @Mapping(target = "generation", source = "sbom.generationRequest")
-    @BeanMapping(ignoreUnmappedSourceProperties = { "persistent", "releaseMetadata" })
+    @BeanMapping(ignoreUnmappedSourceProperties = { "persistent", "releaseMetadata", "processReport" })
     V1Beta1ManifestRecord toRecord(Sbom sbom);
 
     Page<V1Beta1ManifestRecord> sbomsToBaseRecordPage(Page<Sbom> sboms);
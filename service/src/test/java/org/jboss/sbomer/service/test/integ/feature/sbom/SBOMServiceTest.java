@@ -21,13 +21,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.spy;
 
+import java.io.IOException;
 import java.util.Collection;
 
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
+import org.jboss.sbomer.core.errors.ValidationException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxValidationCache;
+import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
@@ -37,6 +43,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import io.quarkus.arc.ClientProxy;
 import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
@@ -145,4 +154,45 @@ class SBOMServiceTest {
             assertNull(sbom);
         }
     }
+
+    @Nested
+    class ValidatedHash {
+        private JsonNode manifest() throws IOException {
+            return ObjectMapperProvider.json().readTree(TestResources.asString("sboms/complete_sbom.json"));
+        }
+
+        @Test
+        void shouldRecordHashOfValidManifest() throws IOException {
+            Sbom sbom = Sbom.builder().withIdentifier(INITIAL_BUILD_ID).withSbom(manifest()).build();
+
+            sbomService.save(sbom);
+
+            assertEquals(CycloneDxValidationCache.hash(sbom.getSbom()), sbom.getValidatedHash());
+        }
+
+        @Test
+        void shouldNotRecordHashOfInvalidManifest() throws IOException {
+            JsonNode manifest = manifest();
+            // The component type is required
+            ((ObjectNode) manifest.get("components").get(0)).remove("type");
+
+            Sbom sbom = Sbom.builder()
+                    .withIdentifier(INITIAL_BUILD_ID)
+                    .withSbom(manifest)
+                    .withValidatedHash(CycloneDxValidationCache.hash(manifest()))
+                    .build();
+
+            assertThrows(ValidationException.class, () -> sbomService.save(sbom));
+            assertNull(sbom.getValidatedHash());
+        }
+
+        @Test
+        void shouldNotComputeHashWhenStoredDirectly() throws IOException {
+            Sbom sbom = Sbom.builder().withIdentifier(INITIAL_BUILD_ID).withSbom(manifest()).build();
+
+            sbom.prePersist();
+
+            assertNull(sbom.getValidatedHash());
+        }
+    }
 }